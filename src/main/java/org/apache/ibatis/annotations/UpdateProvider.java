@@ -100,6 +100,34 @@ public @interface UpdateProvider {
    */
   String databaseId() default "";
 
+  /**
+   * Specify whether the SQL built by the provider method can be reused.
+   *
+   * <p>
+   * When cacheable, the provider method is only invoked the first time a cache key is seen, and the parsed SQL is
+   * reused by the following calls with the same key; only the parameter binding happens per call.
+   * The cache key is returned by the {@link #cacheKeyMethod()}, or when it is omitted, is the set of provider method
+   * arguments that are {@code null}, along with the properties of the bean or {@code Map} arguments that are
+   * {@code null}.
+   *
+   * @return {@code true} if the SQL built by the provider method can be reused
+   * @since 3.5.8
+   */
+  boolean cacheable() default false;
+
+  /**
+   * Specify a method of the provider type that returns the cache key of a call, when {@link #cacheable()} is
+   * {@code true}.
+   *
+   * <p>
+   * The method must accept the same arguments as the provider method, and must return a value that is equal for the
+   * calls that build the same SQL.
+   *
+   * @return a method name of method for computing the cache key
+   * @since 3.5.8
+   */
+  String cacheKeyMethod() default "";
+
   /**
    * The container annotation for {@link UpdateProvider}.
    * 翻译：https://github.com/g1335333249/mybatis-3
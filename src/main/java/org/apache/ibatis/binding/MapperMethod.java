@@ -19,14 +19,20 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
+import org.apache.ibatis.columnar.ColumnarResult;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.SpilledResultList;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -77,6 +83,10 @@ public class MapperMethod {
         if (method.returnsVoid() && method.hasResultHandler()) {
           executeWithResultHandler(sqlSession, args);
           result = null;
+        } else if (method.returnsPrimitives()) {
+          result = executeForPrimitives(sqlSession, args);
+        } else if (method.returnsColumnar()) {
+          result = executeForColumnar(sqlSession, args);
         } else if (method.returnsMany()) {
           result = executeForMany(sqlSession, args);
         } else if (method.returnsMap()) {
@@ -149,15 +159,44 @@ public class MapperMethod {
     }
     // issue #510 Collections & arrays support
     if (!method.getReturnType().isAssignableFrom(result.getClass())) {
-      if (method.getReturnType().isArray()) {
-        return convertToArray(result);
-      } else {
-        return convertToDeclaredCollection(sqlSession.getConfiguration(), result);
+      try {
+        if (method.getReturnType().isArray()) {
+          return convertToArray(result);
+        } else {
+          return convertToDeclaredCollection(sqlSession.getConfiguration(), result);
+        }
+      } finally {
+        if (result instanceof SpilledResultList) {
+          // the rows have been copied, the spilled ones are not needed anymore
+          ((SpilledResultList<E>) result).close();
+        }
       }
     }
     return result;
   }
 
+  private Object executeForPrimitives(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+    Class<?> returnType = method.getReturnType();
+    if (int[].class.equals(returnType) || IntStream.class.equals(returnType)) {
+      int[] values = sqlSession.selectInts(command.getName(), param, rowBounds);
+      return IntStream.class.equals(returnType) ? Arrays.stream(values) : values;
+    } else if (long[].class.equals(returnType) || LongStream.class.equals(returnType)) {
+      long[] values = sqlSession.selectLongs(command.getName(), param, rowBounds);
+      return LongStream.class.equals(returnType) ? Arrays.stream(values) : values;
+    } else {
+      double[] values = sqlSession.selectDoubles(command.getName(), param, rowBounds);
+      return DoubleStream.class.equals(returnType) ? Arrays.stream(values) : values;
+    }
+  }
+
+  private ColumnarResult executeForColumnar(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+    return sqlSession.selectColumnar(command.getName(), param, rowBounds);
+  }
+
   private <T> Cursor<T> executeForCursor(SqlSession sqlSession, Object[] args) {
     Cursor<T> result;
     Object param = method.convertArgsToSqlCommandParam(args);
@@ -280,6 +319,8 @@ public class MapperMethod {
     private final boolean returnsVoid;
     private final boolean returnsCursor;
     private final boolean returnsOptional;
+    private final boolean returnsPrimitives;
+    private final boolean returnsColumnar;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -299,6 +340,10 @@ public class MapperMethod {
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
+      this.returnsPrimitives = int[].class.equals(this.returnType) || long[].class.equals(this.returnType)
+          || double[].class.equals(this.returnType) || IntStream.class.equals(this.returnType)
+          || LongStream.class.equals(this.returnType) || DoubleStream.class.equals(this.returnType);
+      this.returnsColumnar = ColumnarResult.class.equals(this.returnType);
       this.mapKey = getMapKey(method);
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
@@ -356,6 +401,26 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code int[]}, {@code long[]}, {@code double[]} or one of the primitive streams.
+     *
+     * @return return {@code true}, if the results are collected without boxing
+     * @since 3.5.8
+     */
+    public boolean returnsPrimitives() {
+      return returnsPrimitives;
+    }
+
+    /**
+     * return whether return type is {@link ColumnarResult}.
+     *
+     * @return return {@code true}, if the results are collected column by column
+     * @since 3.5.8
+     */
+    public boolean returnsColumnar() {
+      return returnsColumnar;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
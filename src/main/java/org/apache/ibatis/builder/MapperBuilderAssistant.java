@@ -27,7 +27,9 @@ import java.util.StringTokenizer;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.mapping.CacheBuilder;
@@ -129,16 +131,23 @@ public class MapperBuilderAssistant extends BaseBuilder {
       boolean readWrite,
       boolean blocking,
       Properties props) {
+    Class<? extends Cache> implementation = valueOrDefault(typeClass, PerpetualCache.class);
     Cache cache = new CacheBuilder(currentNamespace)
-        .implementation(valueOrDefault(typeClass, PerpetualCache.class))
+        .implementation(implementation)
         .addDecorator(valueOrDefault(evictionClass, LruCache.class))
         .clearInterval(flushInterval)
         .size(size)
         .readWrite(readWrite)
+        .serializer(configuration.getCacheSerializer())
         .blocking(blocking)
         .properties(props)
         .build();
     configuration.addCache(cache);
+    // only the built-in caches are known to hold their entries in this JVM, other ones may be shared with other JVMs
+    if (implementation == PerpetualCache.class || implementation == TinyLfuCache.class
+        || implementation == OffHeapCache.class) {
+      configuration.getTableVersions().addLocalCache(cache);
+    }
     currentCache = cache;
     return cache;
   }
@@ -262,7 +271,12 @@ public class MapperBuilderAssistant extends BaseBuilder {
       String keyColumn,
       String databaseId,
       LanguageDriver lang,
-      String resultSets) {
+      String resultSets,
+      String chunkParameter,
+      Integer chunkSize,
+      Integer chunkParallelism,
+      Integer spillThreshold,
+      String tables) {
 
     if (unresolvedCacheRef) {
       throw new IncompleteElementException("Cache-ref not yet resolved");
@@ -270,6 +284,12 @@ public class MapperBuilderAssistant extends BaseBuilder {
 
     id = applyCurrentNamespace(id, false);
     boolean isSelect = sqlCommandType == SqlCommandType.SELECT;
+    if (chunkSize != null && chunkSize > 0 && (!isSelect || chunkParameter == null)) {
+      throw new BuilderException("The statement '" + id + "' declares a chunkSize, but only a select with a chunkParameter can be split in chunks.");
+    }
+    if (spillThreshold != null && spillThreshold > 0 && !isSelect) {
+      throw new BuilderException("The statement '" + id + "' declares a spillThreshold, but only the results of a select can be spilled.");
+    }
 
     MappedStatement.Builder statementBuilder = new MappedStatement.Builder(configuration, id, sqlSource, sqlCommandType)
         .resource(resource)
@@ -287,7 +307,12 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .resultSetType(resultSetType)
         .flushCacheRequired(valueOrDefault(flushCache, !isSelect))
         .useCache(valueOrDefault(useCache, isSelect))
-        .cache(currentCache);
+        .cache(currentCache)
+        .chunkParameter(chunkParameter)
+        .chunkSize(valueOrDefault(chunkSize, 0))
+        .chunkParallelism(valueOrDefault(chunkParallelism, 1))
+        .spillThreshold(valueOrDefault(spillThreshold, 0))
+        .tables(tables);
 
     ParameterMap statementParameterMap = getStatementParameterMap(parameterMap, parameterType, id);
     if (statementParameterMap != null) {
@@ -295,10 +320,73 @@ public class MapperBuilderAssistant extends BaseBuilder {
     }
 
     MappedStatement statement = statementBuilder.build();
+    // unordered parents are stored at their first row, a spilled parent would miss the rows read after it
+    if (statement.getSpillThreshold() > 0 && statement.hasNestedResultMaps() && !statement.isResultOrdered()) {
+      throw new BuilderException("The statement '" + id + "' declares a spillThreshold, but its nested result maps are "
+          + "only complete once all the rows are read. Declare it with resultOrdered=\"true\" and rows ordered by "
+          + "parent, or remove the spillThreshold.");
+    }
     configuration.addMappedStatement(statement);
     return statement;
   }
 
+  /**
+   * Backward compatibility signature 'addMappedStatement'.
+   *
+   * @param id
+   *          the id
+   * @param sqlSource
+   *          the sql source
+   * @param statementType
+   *          the statement type
+   * @param sqlCommandType
+   *          the sql command type
+   * @param fetchSize
+   *          the fetch size
+   * @param timeout
+   *          the timeout
+   * @param parameterMap
+   *          the parameter map
+   * @param parameterType
+   *          the parameter type
+   * @param resultMap
+   *          the result map
+   * @param resultType
+   *          the result type
+   * @param resultSetType
+   *          the result set type
+   * @param flushCache
+   *          the flush cache
+   * @param useCache
+   *          the use cache
+   * @param resultOrdered
+   *          the result ordered
+   * @param keyGenerator
+   *          the key generator
+   * @param keyProperty
+   *          the key property
+   * @param keyColumn
+   *          the key column
+   * @param databaseId
+   *          the database id
+   * @param lang
+   *          the lang
+   * @param resultSets
+   *          the result sets
+   * @return the mapped statement
+   */
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+      SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+      String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+      boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+      LanguageDriver lang, String resultSets) {
+    return addMappedStatement(
+      id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
+      parameterMap, parameterType, resultMap, resultType, resultSetType,
+      flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
+      keyColumn, databaseId, lang, resultSets, null, null, null, null, null);
+  }
+
   /**
    * Backward compatibility signature 'addMappedStatement'.
    *
@@ -424,6 +512,62 @@ public class MapperBuilderAssistant extends BaseBuilder {
       String resultSet,
       String foreignColumn,
       boolean lazy) {
+    return buildResultMapping(resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap,
+        notNullColumn, columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, 0);
+  }
+
+  /**
+   * Builds a result mapping whose nested select may be fetched for several parent rows at once.
+   *
+   * @param resultType
+   *          the result type
+   * @param property
+   *          the property
+   * @param column
+   *          the column
+   * @param javaType
+   *          the java type
+   * @param jdbcType
+   *          the jdbc type
+   * @param nestedSelect
+   *          the nested select
+   * @param nestedResultMap
+   *          the nested result map
+   * @param notNullColumn
+   *          the not null column
+   * @param columnPrefix
+   *          the column prefix
+   * @param typeHandler
+   *          the type handler
+   * @param flags
+   *          the flags
+   * @param resultSet
+   *          the result set
+   * @param foreignColumn
+   *          the foreign column
+   * @param lazy
+   *          the lazy
+   * @param batchSize
+   *          the number of parent rows fetched by a single nested select
+   * @return the result mapping
+   * @since 3.5.8
+   */
+  public ResultMapping buildResultMapping(
+      Class<?> resultType,
+      String property,
+      String column,
+      Class<?> javaType,
+      JdbcType jdbcType,
+      String nestedSelect,
+      String nestedResultMap,
+      String notNullColumn,
+      String columnPrefix,
+      Class<? extends TypeHandler<?>> typeHandler,
+      List<ResultFlag> flags,
+      String resultSet,
+      String foreignColumn,
+      boolean lazy,
+      int batchSize) {
     Class<?> javaTypeClass = resolveResultJavaType(resultType, property, javaType);
     TypeHandler<?> typeHandlerInstance = resolveTypeHandler(javaTypeClass, typeHandler);
     List<ResultMapping> composites;
@@ -444,6 +588,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .columnPrefix(columnPrefix)
         .foreignColumn(foreignColumn)
         .lazy(lazy)
+        .batchSize(batchSize)
         .build();
   }
 
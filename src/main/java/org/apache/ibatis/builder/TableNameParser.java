@@ -0,0 +1,329 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the tables a SQL statement reads or writes, for the table-level invalidation of the second-level cache.
+ * <p>
+ * This is a lightweight scan of the tokens that follow FROM, JOIN, UPDATE, INTO, USING and TABLE, and of the target of
+ * a DELETE, INSERT, MERGE or REPLACE without FROM or INTO (e.g. <code>delete blog where ...</code>); not a SQL parser.
+ * It may report more tables than the statement uses (e.g. the names of common table expressions), which only makes
+ * the invalidation coarser. When it cannot be sure to find them all, the tables are unknown: the statement calls a
+ * procedure, selects from a function, has <code>${}</code> substitutions, or does not reference any table. Tables
+ * used through views or triggers cannot be seen, they must be declared.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public final class TableNameParser {
+
+  private static final char QUOTED = '"';
+  private static final String PARAMETER = "?";
+  private static final String LITERAL = "'";
+  private static final String NUMBER = "0";
+
+  private static final Set<String> TABLE_KEYWORDS = new HashSet<>(
+      Arrays.asList("from", "join", "update", "into", "using", "table", "truncate"));
+  private static final Set<String> TABLE_LIST_KEYWORDS = new HashSet<>(Arrays.asList("from", "update", "using"));
+  private static final Set<String> WRITE_KEYWORDS = new HashSet<>(Arrays.asList("delete", "insert", "merge", "replace"));
+  // the keywords whose table may be followed by a column list
+  private static final Set<String> COLUMN_LIST_KEYWORDS = new HashSet<>(Arrays.asList("into", "insert", "replace"));
+  private static final Set<String> UNKNOWN_KEYWORDS = new HashSet<>(
+      Arrays.asList("call", "exec", "execute", "begin", "declare", "do"));
+  // the keywords that start a subquery in parentheses, any other parenthesized table reference is a join
+  private static final Set<String> SUBQUERY_KEYWORDS = new HashSet<>(Arrays.asList("select", "with", "values", "("));
+  private static final Set<String> MODIFIERS = new HashSet<>(
+      Arrays.asList("only", "lateral", "table", "low_priority", "ignore", "quick"));
+  private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+      "all", "and", "as", "asc", "between", "by", "case", "connect", "cross", "default", "delete", "desc", "distinct",
+      "do", "else", "end", "except", "exists", "fetch", "for", "force", "from", "full", "group", "having", "ignore",
+      "in", "inner", "insert", "intersect", "into", "is", "join", "key", "lateral", "left", "like", "limit", "merge",
+      "minus", "natural", "not", "nowait", "of", "offset", "on", "only", "or", "order", "outer", "partition", "pivot",
+      "qualify", "returning", "right", "sample", "select", "set", "skip", "start", "straight_join", "table",
+      "tablesample", "then", "union", "unpivot", "update", "use", "using", "value", "values", "when", "where",
+      "window", "with"));
+
+  private final List<String> tokens;
+  private final Set<String> tables = new LinkedHashSet<>();
+  private int position;
+
+  private TableNameParser(List<String> tokens) {
+    this.tokens = tokens;
+  }
+
+  /**
+   * Finds the tables of a statement.
+   *
+   * @param sql
+   *          the SQL, possibly with <code>#{}</code> parameters
+   * @return the names of the tables, lower case and without their schema, separated by commas like the
+   *         <code>tables</code> attribute of a statement; or {@code null} if the tables are unknown
+   */
+  public static String parse(String sql) {
+    if (sql == null || sql.contains("${")) {
+      return null;
+    }
+    List<String> tokens = tokenize(sql);
+    if (tokens.isEmpty() || UNKNOWN_KEYWORDS.contains(tokens.get(0))) {
+      return null;
+    }
+    TableNameParser parser = new TableNameParser(tokens);
+    if (!parser.parseTables() || parser.tables.isEmpty()) {
+      return null;
+    }
+    return String.join(",", parser.tables);
+  }
+
+  private boolean parseTables() {
+    while (position < tokens.size()) {
+      String token = tokens.get(position++);
+      if ("call".equals(token)) {
+        return false;
+      }
+      if (TABLE_KEYWORDS.contains(token) && !isLockingOrUpsertClause(token)
+          && !parseTableReferences(token, TABLE_LIST_KEYWORDS.contains(token))) {
+        return false;
+      }
+      // FROM and INTO are optional in some dialects, the target then follows the keyword (or its modifiers)
+      if (WRITE_KEYWORDS.contains(token) && isStatementStart() && !isMultipleTableDelete(token)
+          && !parseTableReferences(token, false)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isLockingOrUpsertClause(String keyword) {
+    if (!"update".equals(keyword) || position < 2) {
+      return false;
+    }
+    // FOR UPDATE, ON DUPLICATE KEY UPDATE, ON CONFLICT DO UPDATE and MERGE's THEN UPDATE do not name a table
+    String previous = tokens.get(position - 2);
+    return "for".equals(previous) || "key".equals(previous) || "do".equals(previous) || "then".equals(previous);
+  }
+
+  private boolean isStatementStart() {
+    if (position < 2) {
+      return true;
+    }
+    // after a common table expression, or after the previous statement
+    String previous = tokens.get(position - 2);
+    return ")".equals(previous) || ";".equals(previous);
+  }
+
+  private boolean isMultipleTableDelete(String keyword) {
+    if (!"delete".equals(keyword)) {
+      return false;
+    }
+    int i = position;
+    while (i < tokens.size() && MODIFIERS.contains(tokens.get(i))) {
+      i++;
+    }
+    // DELETE t1, t2 FROM ... names the aliases of the tables that follow FROM
+    return i + 1 < tokens.size() && isName(tokens.get(i))
+        && ("from".equals(tokens.get(i + 1)) || ",".equals(tokens.get(i + 1)));
+  }
+
+  private boolean parseTableReferences(String keyword, boolean list) {
+    boolean tableFunction = "table".equals(keyword);
+    while (true) {
+      String token = peek();
+      while (token != null && MODIFIERS.contains(token)) {
+        tableFunction |= "table".equals(token);
+        position++;
+        token = peek();
+      }
+      if ("(".equals(token)) {
+        // a table function cannot be scanned, the columns of a join in USING (...) end the clause
+        if (tableFunction) {
+          return false;
+        }
+        int close = findClosingParenthesis(position);
+        if (close < 0) {
+          return false;
+        }
+        boolean subquery = SUBQUERY_KEYWORDS.contains(tokens.get(position + 1));
+        if (!subquery && "using".equals(keyword)) {
+          position = close + 1;
+          return true;
+        }
+        if (!parseNested(position + 1, close, subquery)) {
+          return false;
+        }
+        position = close + 1;
+        skipAlias();
+        // the alias of a derived table may name its columns
+        if ("(".equals(peek())) {
+          int columns = findClosingParenthesis(position);
+          if (columns < 0) {
+            return false;
+          }
+          position = columns + 1;
+        }
+      } else if (isName(token)) {
+        position++;
+        if ("(".equals(peek()) && !COLUMN_LIST_KEYWORDS.contains(keyword)) {
+          return false;
+        }
+        tables.add(token.charAt(0) == QUOTED ? token.substring(1) : token);
+        skipAlias();
+      } else {
+        return true;
+      }
+      if (!list || !",".equals(peek())) {
+        return true;
+      }
+      position++;
+    }
+  }
+
+  private void skipAlias() {
+    if ("as".equals(peek())) {
+      position += 2;
+    } else if (isName(peek())) {
+      position++;
+    }
+  }
+
+  private boolean parseNested(int start, int end, boolean subquery) {
+    TableNameParser nested = new TableNameParser(tokens.subList(start, end));
+    // a parenthesized join starts with its first table reference
+    boolean parsed = (subquery || nested.parseTableReferences("from", true)) && nested.parseTables();
+    tables.addAll(nested.tables);
+    return parsed;
+  }
+
+  private int findClosingParenthesis(int open) {
+    int depth = 0;
+    for (int i = open; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if ("(".equals(token)) {
+        depth++;
+      } else if (")".equals(token) && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String peek() {
+    return position < tokens.size() ? tokens.get(position) : null;
+  }
+
+  private static boolean isName(String token) {
+    if (token == null || RESERVED.contains(token)) {
+      return false;
+    }
+    char first = token.charAt(0);
+    return first == QUOTED ? token.length() > 1 : isNameStart(first);
+  }
+
+  private static List<String> tokenize(String sql) {
+    List<String> tokens = new ArrayList<>();
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '-' && sql.startsWith("--", i)) {
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? length : end + 1;
+      } else if (c == '/' && sql.startsWith("/*", i)) {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (c == '#' && sql.startsWith("#{", i)) {
+        int end = sql.indexOf('}', i);
+        i = end < 0 ? length : end + 1;
+        tokens.add(PARAMETER);
+      } else if (c == '\'') {
+        i = skipQuoted(sql, i, '\'');
+        tokens.add(LITERAL);
+      } else if (isNameStart(c) || isQuote(c)) {
+        // keeps the last part of a qualified name, i.e. the table without its schema
+        String name;
+        boolean quoted;
+        while (true) {
+          int start = i;
+          quoted = isQuote(sql.charAt(i));
+          if (quoted) {
+            i = skipQuoted(sql, i, sql.charAt(i) == '[' ? ']' : sql.charAt(i));
+            name = sql.substring(start + 1, Math.max(start + 1, i - 1));
+          } else {
+            i = skipName(sql, i);
+            name = sql.substring(start, i);
+          }
+          if (i + 1 >= length || sql.charAt(i) != '.'
+              || !isNameStart(sql.charAt(i + 1)) && !isQuote(sql.charAt(i + 1))) {
+            break;
+          }
+          i++;
+        }
+        name = name.toLowerCase(Locale.ENGLISH);
+        // a quoted name is never a keyword
+        tokens.add(quoted ? QUOTED + name : name);
+      } else if (Character.isDigit(c)) {
+        i = skipName(sql, i);
+        tokens.add(NUMBER);
+      } else {
+        tokens.add(String.valueOf(c));
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isNameStart(char c) {
+    return Character.isLetter(c) || c == '_';
+  }
+
+  private static boolean isQuote(char c) {
+    return c == '"' || c == '`' || c == '[';
+  }
+
+  private static int skipName(String sql, int start) {
+    int i = start;
+    while (i < sql.length()
+        && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipQuoted(String sql, int start, char quote) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return i;
+  }
+
+}
@@ -64,6 +64,7 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.TableNameParser;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -379,7 +380,14 @@ public class MapperAnnotationBuilder {
           statementAnnotation.getDatabaseId(),
           languageDriver,
           // ResultSets
-          options != null ? nullOrEmpty(options.resultSets()) : null);
+          options != null ? nullOrEmpty(options.resultSets()) : null,
+          // ChunkParameter, ChunkSize, ChunkParallelism and SpillThreshold are XML only
+          null,
+          null,
+          null,
+          null,
+          // Tables
+          statementType != StatementType.CALLABLE ? parseTables(statementAnnotation.getAnnotation()) : null);
     });
   }
 
@@ -631,6 +639,30 @@ public class MapperAnnotationBuilder {
     return new ProviderSqlSource(assistant.getConfiguration(), annotation, type, method);
   }
 
+  private String parseTables(Annotation annotation) {
+    if (!configuration.isParseStatementTables()) {
+      return null;
+    }
+    String[] strings;
+    if (annotation instanceof Select) {
+      strings = ((Select) annotation).value();
+    } else if (annotation instanceof Update) {
+      strings = ((Update) annotation).value();
+    } else if (annotation instanceof Insert) {
+      strings = ((Insert) annotation).value();
+    } else if (annotation instanceof Delete) {
+      strings = ((Delete) annotation).value();
+    } else {
+      // the SQL of a provider is only known when it is executed
+      return null;
+    }
+    String sql = String.join(" ", strings).trim();
+    if (sql.startsWith("<script>")) {
+      sql = sql.replaceAll("<[^>]*>", " ");
+    }
+    return TableNameParser.parse(sql);
+  }
+
   private SqlSource buildSqlSourceFromStrings(String[] strings, Class<?> parameterTypeClass,
       LanguageDriver languageDriver) {
     return languageDriver.createSqlSource(configuration, String.join(" ", strings).trim(), parameterTypeClass);
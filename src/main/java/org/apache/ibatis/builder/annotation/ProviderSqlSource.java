@@ -19,13 +19,19 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.annotations.Lang;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
 
@@ -36,6 +42,8 @@ import org.apache.ibatis.session.Configuration;
  */
 public class ProviderSqlSource implements SqlSource {
 
+  private static final int MAX_CACHED_SQL_SOURCES = 1024;
+
   private final Configuration configuration;
   private final Class<?> providerType;
   private final LanguageDriver languageDriver;
@@ -45,6 +53,8 @@ public class ProviderSqlSource implements SqlSource {
   private final Class<?>[] providerMethodParameterTypes;
   private final ProviderContext providerContext;
   private final Integer providerContextIndex;
+  private final Method cacheKeyMethod;
+  private final Map<CacheKey, SqlSource> sqlSourceCache;
 
   /**
    * This constructor will remove at a future version.
@@ -96,6 +106,8 @@ public class ProviderSqlSource implements SqlSource {
   public ProviderSqlSource(Configuration configuration, Annotation provider, Class<?> mapperType, Method mapperMethod) {
     String candidateProviderMethodName;
     Method candidateProviderMethod = null;
+    boolean cacheable;
+    String cacheKeyMethodName;
     try {
       this.configuration = configuration;
       this.mapperMethod = mapperMethod;
@@ -103,6 +115,8 @@ public class ProviderSqlSource implements SqlSource {
       this.languageDriver = configuration.getLanguageDriver(lang == null ? null : lang.value());
       this.providerType = getProviderType(configuration, provider, mapperMethod);
       candidateProviderMethodName = (String) provider.annotationType().getMethod("method").invoke(provider);
+      cacheable = (Boolean) provider.annotationType().getMethod("cacheable").invoke(provider);
+      cacheKeyMethodName = (String) provider.annotationType().getMethod("cacheKeyMethod").invoke(provider);
 
       if (candidateProviderMethodName.length() == 0 && ProviderMethodResolver.class.isAssignableFrom(this.providerType)) {
         candidateProviderMethod = ((ProviderMethodResolver) this.providerType.getDeclaredConstructor().newInstance())
@@ -150,6 +164,14 @@ public class ProviderSqlSource implements SqlSource {
     }
     this.providerContext = candidateProviderContext;
     this.providerContextIndex = candidateProviderContextIndex;
+
+    if (cacheKeyMethodName.length() > 0 && !cacheable) {
+      throw new BuilderException("Error creating SqlSource for SqlProvider. The cache key method '" + cacheKeyMethodName
+          + "' is specified on a provider that is not cacheable (" + this.providerType.getName() + "."
+          + providerMethod.getName() + ").");
+    }
+    this.cacheKeyMethod = cacheKeyMethodName.length() == 0 ? null : getCacheKeyMethod(cacheKeyMethodName);
+    this.sqlSourceCache = cacheable ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
@@ -160,34 +182,21 @@ public class ProviderSqlSource implements SqlSource {
 
   private SqlSource createSqlSource(Object parameterObject) {
     try {
-      String sql;
-      if (parameterObject instanceof Map) {
-        int bindParameterCount = providerMethodParameterTypes.length - (providerContext == null ? 0 : 1);
-        if (bindParameterCount == 1
-            && providerMethodParameterTypes[Integer.valueOf(0).equals(providerContextIndex) ? 1 : 0].isAssignableFrom(parameterObject.getClass())) {
-          sql = invokeProviderMethod(extractProviderMethodArguments(parameterObject));
-        } else {
-          @SuppressWarnings("unchecked")
-          Map<String, Object> params = (Map<String, Object>) parameterObject;
-          sql = invokeProviderMethod(extractProviderMethodArguments(params, providerMethodArgumentNames));
-        }
-      } else if (providerMethodParameterTypes.length == 0) {
-        sql = invokeProviderMethod();
-      } else if (providerMethodParameterTypes.length == 1) {
-        if (providerContext == null) {
-          sql = invokeProviderMethod(parameterObject);
-        } else {
-          sql = invokeProviderMethod(providerContext);
+      Object[] args = resolveProviderMethodArguments(parameterObject);
+      Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+      if (sqlSourceCache == null) {
+        return languageDriver.createSqlSource(configuration, invokeProviderMethod(args), parameterType);
+      }
+      CacheKey cacheKey = createCacheKey(args, parameterType);
+      SqlSource sqlSource = sqlSourceCache.get(cacheKey);
+      if (sqlSource == null) {
+        sqlSource = languageDriver.createSqlSource(configuration, invokeProviderMethod(args), parameterType);
+        // the cache stops growing once full, a key method returning unbounded keys must not leak memory
+        if (sqlSourceCache.size() < MAX_CACHED_SQL_SOURCES) {
+          sqlSourceCache.putIfAbsent(cacheKey, sqlSource);
         }
-      } else if (providerMethodParameterTypes.length == 2) {
-        sql = invokeProviderMethod(extractProviderMethodArguments(parameterObject));
-      } else {
-        throw new BuilderException("Cannot invoke SqlProvider method '" + providerMethod
-          + "' with specify parameter '" + (parameterObject == null ? null : parameterObject.getClass())
-          + "' because SqlProvider method arguments for '" + mapperMethod + "' is an invalid combination.");
       }
-      Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-      return languageDriver.createSqlSource(configuration, sql, parameterType);
+      return sqlSource;
     } catch (BuilderException e) {
       throw e;
     } catch (Exception e) {
@@ -196,6 +205,79 @@ public class ProviderSqlSource implements SqlSource {
     }
   }
 
+  private Object[] resolveProviderMethodArguments(Object parameterObject) {
+    if (parameterObject instanceof Map) {
+      int bindParameterCount = providerMethodParameterTypes.length - (providerContext == null ? 0 : 1);
+      if (bindParameterCount == 1
+          && providerMethodParameterTypes[Integer.valueOf(0).equals(providerContextIndex) ? 1 : 0].isAssignableFrom(parameterObject.getClass())) {
+        return extractProviderMethodArguments(parameterObject);
+      } else {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> params = (Map<String, Object>) parameterObject;
+        return extractProviderMethodArguments(params, providerMethodArgumentNames);
+      }
+    } else if (providerMethodParameterTypes.length == 0) {
+      return new Object[0];
+    } else if (providerMethodParameterTypes.length == 1) {
+      if (providerContext == null) {
+        return new Object[] { parameterObject };
+      } else {
+        return new Object[] { providerContext };
+      }
+    } else if (providerMethodParameterTypes.length == 2) {
+      return extractProviderMethodArguments(parameterObject);
+    } else {
+      throw new BuilderException("Cannot invoke SqlProvider method '" + providerMethod
+        + "' with specify parameter '" + (parameterObject == null ? null : parameterObject.getClass())
+        + "' because SqlProvider method arguments for '" + mapperMethod + "' is an invalid combination.");
+    }
+  }
+
+  private CacheKey createCacheKey(Object[] args, Class<?> parameterType) throws Exception {
+    CacheKey cacheKey = new CacheKey();
+    // the parameter type is part of the key, the parsed sql resolves the parameter mappings against it
+    cacheKey.update(parameterType);
+    if (cacheKeyMethod != null) {
+      cacheKey.update(invoke(cacheKeyMethod, args));
+    } else {
+      for (Object arg : args) {
+        updateNullness(cacheKey, arg);
+      }
+    }
+    return cacheKey;
+  }
+
+  private void updateNullness(CacheKey cacheKey, Object arg) throws Exception {
+    cacheKey.update(arg == null);
+    if (arg == null || arg instanceof ProviderContext || arg instanceof Collection || arg.getClass().isArray()
+        || configuration.getTypeHandlerRegistry().hasTypeHandler(arg.getClass())) {
+      return;
+    }
+    // the sql built for a bean or a Map usually depends on which of its properties are null
+    if (arg instanceof Map) {
+      Map<Object, Boolean> nullness = new HashMap<>();
+      ((Map<?, ?>) arg).forEach((key, value) -> nullness.put(key, value == null));
+      cacheKey.update(nullness);
+    } else {
+      Reflector reflector = configuration.getReflectorFactory().findForClass(arg.getClass());
+      cacheKey.update(arg.getClass());
+      for (String property : reflector.getGetablePropertyNames()) {
+        cacheKey.update(reflector.getGetInvoker(property).invoke(arg, null) == null);
+      }
+    }
+  }
+
+  private Method getCacheKeyMethod(String cacheKeyMethodName) {
+    for (Method m : this.providerType.getMethods()) {
+      if (cacheKeyMethodName.equals(m.getName()) && Arrays.equals(m.getParameterTypes(), providerMethodParameterTypes)) {
+        return m;
+      }
+    }
+    throw new BuilderException("Error creating SqlSource for SqlProvider. Cache key method '" + cacheKeyMethodName
+        + "' not found in SqlProvider '" + this.providerType.getName()
+        + "'. It must accept the same arguments as the provider method '" + providerMethod.getName() + "'.");
+  }
+
   private Throwable extractRootCause(Exception e) {
     Throwable cause = e;
     while (cause.getCause() != null) {
@@ -228,12 +310,16 @@ public class ProviderSqlSource implements SqlSource {
   }
 
   private String invokeProviderMethod(Object... args) throws Exception {
+    CharSequence sql = (CharSequence) invoke(providerMethod, args);
+    return sql != null ? sql.toString() : null;
+  }
+
+  private Object invoke(Method method, Object[] args) throws Exception {
     Object targetObject = null;
-    if (!Modifier.isStatic(providerMethod.getModifiers())) {
+    if (!Modifier.isStatic(method.getModifiers())) {
       targetObject = providerType.getDeclaredConstructor().newInstance();
     }
-    CharSequence sql = (CharSequence) providerMethod.invoke(targetObject, args);
-    return sql != null ? sql.toString() : null;
+    return method.invoke(targetObject, args);
   }
 
   private Class<?> getProviderType(Configuration configuration, Annotation providerAnnotation, Method mapperMethod)
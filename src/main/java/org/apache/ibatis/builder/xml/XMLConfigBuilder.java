@@ -271,6 +271,20 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
     configuration.setShrinkWhitespacesInSql(booleanValueOf(props.getProperty("shrinkWhitespacesInSql"), false));
     configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
+    configuration.setDynamicSqlShapeCacheSize(integerValueOf(props.getProperty("dynamicSqlShapeCacheSize"), 0));
+    configuration.setOgnlCompilationEnabled(booleanValueOf(props.getProperty("ognlCompilationEnabled"), false));
+    configuration.setDynamicSqlCompilationEnabled(booleanValueOf(props.getProperty("dynamicSqlCompilationEnabled"), false));
+    configuration.setDefaultForEachPadding(props.getProperty("defaultForEachPadding"));
+    configuration.setPositionalForEachBindings(booleanValueOf(props.getProperty("positionalForEachBindings"), false));
+    configuration.setWarmUpOnBuild(booleanValueOf(props.getProperty("warmUpOnBuild"), false));
+    configuration.setRowMapperGenerationEnabled(booleanValueOf(props.getProperty("rowMapperGenerationEnabled"), false));
+    configuration.setAutoMappingPlanCacheEnabled(booleanValueOf(props.getProperty("autoMappingPlanCacheEnabled"), false));
+    configuration.setColumnIndexAccessEnabled(booleanValueOf(props.getProperty("columnIndexAccessEnabled"), false));
+    configuration.setCompactRowKeysEnabled(booleanValueOf(props.getProperty("compactRowKeysEnabled"), false));
+    configuration.setNestedResultStreamingEnabled(booleanValueOf(props.getProperty("nestedResultStreamingEnabled"), false));
+    configuration.setConstructorBindingEnabled(booleanValueOf(props.getProperty("constructorBindingEnabled"), false));
+    configuration.setCacheSerializer(resolveClass(props.getProperty("cacheSerializer")));
+    configuration.setParseStatementTables(booleanValueOf(props.getProperty("parseStatementTables"), false));
   }
 
   private void environmentsElement(XNode context) throws Exception {
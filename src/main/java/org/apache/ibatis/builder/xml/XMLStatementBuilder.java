@@ -20,6 +20,7 @@ import java.util.Locale;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.TableNameParser;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -32,6 +33,8 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 /**
  * 翻译：https://github.com/g1335333249/mybatis-3
@@ -110,11 +113,37 @@ public class XMLStatementBuilder extends BaseBuilder {
     String keyProperty = context.getStringAttribute("keyProperty");
     String keyColumn = context.getStringAttribute("keyColumn");
     String resultSets = context.getStringAttribute("resultSets");
+    String chunkParameter = context.getStringAttribute("chunkParameter");
+    Integer chunkSize = context.getIntAttribute("chunkSize");
+    Integer chunkParallelism = context.getIntAttribute("chunkParallelism");
+    Integer spillThreshold = context.getIntAttribute("spillThreshold");
+    String tables = context.getStringAttribute("tables");
+    if (tables == null && configuration.isParseStatementTables() && statementType != StatementType.CALLABLE) {
+      StringBuilder sql = new StringBuilder();
+      appendText(context.getNode(), sql);
+      tables = TableNameParser.parse(sql.toString());
+    }
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
         resultSetTypeEnum, flushCache, useCache, resultOrdered,
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets,
+        chunkParameter, chunkSize, chunkParallelism, spillThreshold, tables);
+  }
+
+  /**
+   * Appends the text of every branch of the dynamic SQL, separated by spaces.
+   */
+  private static void appendText(Node node, StringBuilder sql) {
+    NodeList children = node.getChildNodes();
+    for (int i = 0; i < children.getLength(); i++) {
+      Node child = children.item(i);
+      if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+        sql.append(child.getNodeValue()).append(' ');
+      } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+        appendText(child, sql);
+      }
+    }
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Copies the values of the read-write caches, by serializing them when they are put and deserializing them when they
+ * are read.
+ * <p>
+ * A serializer must be thread safe and have a public constructor without parameters. It is set by the
+ * {@code cacheSerializer} setting.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ * @see org.apache.ibatis.cache.decorators.SerializedCache
+ */
+public interface CacheSerializer {
+
+  /**
+   * Serializes a value.
+   *
+   * @param value
+   *          the value, that is {@code null} or {@link java.io.Serializable}
+   * @return the serialized value
+   * @throws CacheException
+   *           if the value cannot be serialized
+   */
+  byte[] serialize(Object value);
+
+  /**
+   * Deserializes a value.
+   *
+   * @param bytes
+   *          a value serialized by this serializer
+   * @return a new copy of the value
+   * @throws CacheException
+   *           if the value cannot be deserialized
+   */
+  Object deserialize(byte[] bytes);
+
+}
@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The versions of what the second-level cache entries depend on: the tables read by the statements that know their
+ * tables, or the cache of the statements that do not.
+ * <p>
+ * The cache key of an entry includes the current versions of its dependencies that were ever written. A committed
+ * write increments the versions of the tables it touches, so the entries cached before it are not found anymore, in
+ * every namespace, while the other entries of the same caches are kept. The entries that are not found anymore are
+ * evicted by the eviction policy of their cache.
+ * <p>
+ * The versions are held by this JVM only, so they are used only for the caches whose entries are held by this JVM as
+ * well, that were declared by {@link #addLocalCache(Cache)}. The entries of any other cache, that may be shared with
+ * other JVMs, are not versioned: a write still clears the cache of its namespace, and only that one.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class TableVersions {
+
+  private final ConcurrentMap<Object, Long> versions = new ConcurrentHashMap<>();
+  private final Set<String> localCacheIds = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Declares a cache whose entries are held by this JVM, and can therefore be invalidated by versions.
+   *
+   * @param cache
+   *          the cache
+   */
+  public void addLocalCache(Cache cache) {
+    localCacheIds.add(cache.getId());
+  }
+
+  /**
+   * Returns whether the entries of a cache are held by this JVM.
+   *
+   * @param cache
+   *          the cache
+   * @return true if the cache was declared by {@link #addLocalCache(Cache)}
+   */
+  public boolean isLocalCache(Cache cache) {
+    return localCacheIds.contains(cache.getId());
+  }
+
+  /**
+   * Returns the cache key of an entry, with the current versions of its dependencies.
+   *
+   * @param key
+   *          the key of the statement execution
+   * @param dependencies
+   *          the tables the entry depends on, or the cache holding it
+   * @return the cache key; the key itself as long as none of the dependencies was written
+   */
+  public CacheKey versionedKey(CacheKey key, Object... dependencies) {
+    CacheKey versionedKey = key;
+    if (versions.isEmpty()) {
+      return versionedKey;
+    }
+    for (Object dependency : dependencies) {
+      Long version = versions.get(dependency);
+      if (version != null) {
+        if (versionedKey == key) {
+          versionedKey = copy(key);
+        }
+        versionedKey.update(dependency instanceof Cache ? ((Cache) dependency).getId() : dependency);
+        versionedKey.update(version);
+      }
+    }
+    return versionedKey;
+  }
+
+  /**
+   * Increments the versions of dependencies, when a write that touches them is committed.
+   *
+   * @param dependencies
+   *          the tables, or the caches, that were written
+   */
+  public void increment(Collection<?> dependencies) {
+    for (Object dependency : dependencies) {
+      versions.merge(dependency, 1L, Long::sum);
+    }
+  }
+
+  private static CacheKey copy(CacheKey key) {
+    try {
+      return key.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new CacheException("Error cloning cache key.  Cause: " + e, e);
+    }
+  }
+
+}
@@ -0,0 +1,31 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Marks the cache decorators that can be used by several threads at the same time, as long as the cache they
+ * decorate can.
+ * <p>
+ * When all the decorators of a {@code PERPETUAL} cache are thread safe, the {@link org.apache.ibatis.mapping.CacheBuilder}
+ * creates a perpetual cache that is thread safe too, and does not wrap the cache in a
+ * {@link org.apache.ibatis.cache.decorators.SynchronizedCache}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public interface ThreadSafeCache extends Cache {
+
+}
@@ -15,8 +15,11 @@
  */
 package org.apache.ibatis.cache;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.ibatis.cache.decorators.TransactionalCache;
 import org.apache.ibatis.util.MapUtil;
@@ -28,6 +31,8 @@ import org.apache.ibatis.util.MapUtil;
 public class TransactionalCacheManager {
 
   private final Map<Cache, TransactionalCache> transactionalCaches = new HashMap<>();
+  private final Set<Object> dependenciesToInvalidateOnCommit = new HashSet<>();
+  private TableVersions tableVersions;
 
   public void clear(Cache cache) {
     getTransactionalCache(cache).clear();
@@ -41,16 +46,55 @@ public class TransactionalCacheManager {
     getTransactionalCache(cache).putObject(key, value);
   }
 
+  /**
+   * Invalidates, when the transaction is committed, the cache entries that depend on tables or caches.
+   *
+   * @param tableVersions
+   *          the versions of the dependencies
+   * @param dependencies
+   *          the tables, or the caches, that were written
+   * @since 3.5.8
+   */
+  public void invalidate(TableVersions tableVersions, Object... dependencies) {
+    this.tableVersions = tableVersions;
+    Collections.addAll(dependenciesToInvalidateOnCommit, dependencies);
+  }
+
+  /**
+   * Returns whether the transaction wrote one of the dependencies of a cache entry. The entry must then not be read
+   * from the cache, nor put in it, until the transaction is committed.
+   *
+   * @param dependencies
+   *          the tables the entry depends on, or the cache holding it
+   * @return {@code true} if one of them is invalidated on commit
+   * @since 3.5.8
+   */
+  public boolean isInvalidated(Object... dependencies) {
+    if (!dependenciesToInvalidateOnCommit.isEmpty()) {
+      for (Object dependency : dependencies) {
+        if (dependenciesToInvalidateOnCommit.contains(dependency)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public void commit() {
     for (TransactionalCache txCache : transactionalCaches.values()) {
       txCache.commit();
     }
+    if (!dependenciesToInvalidateOnCommit.isEmpty()) {
+      tableVersions.increment(dependenciesToInvalidateOnCommit);
+      dependenciesToInvalidateOnCommit.clear();
+    }
   }
 
   public void rollback() {
     for (TransactionalCache txCache : transactionalCaches.values()) {
       txCache.rollback();
     }
+    dependenciesToInvalidateOnCommit.clear();
   }
 
   private TransactionalCache getTransactionalCache(Cache cache) {
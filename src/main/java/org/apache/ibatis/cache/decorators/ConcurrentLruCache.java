@@ -0,0 +1,174 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.ThreadSafeCache;
+
+/**
+ * Lru (least recently used) cache decorator that can be used by several threads at the same time.
+ * <p>
+ * Recency is approximated with the CLOCK algorithm: a read only marks the entry as referenced, without locking, and a
+ * new key replaces the first entry of a ring that was not referenced since the hand last passed over it. Only the
+ * writes of new keys take a lock.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class ConcurrentLruCache implements ThreadSafeCache {
+
+  private final Cache delegate;
+  private final ConcurrentMap<Object, Entry> keyMap = new ConcurrentHashMap<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  // guarded by the eviction lock
+  private Entry[] ring;
+  private int used;
+  private int hand;
+
+  public ConcurrentLruCache(Cache delegate) {
+    this.delegate = delegate;
+    setSize(1024);
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  public void setSize(final int size) {
+    evictionLock.lock();
+    try {
+      Entry[] entries = ring;
+      int count = used;
+      ring = new Entry[size];
+      used = 0;
+      hand = 0;
+      for (int i = 0; i < count; i++) {
+        if (isLive(entries[i])) {
+          add(entries[i]);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, value);
+    Entry entry = keyMap.get(key);
+    if (entry != null) {
+      entry.touch();
+      return;
+    }
+    entry = new Entry(key);
+    if (keyMap.putIfAbsent(key, entry) == null) {
+      evictionLock.lock();
+      try {
+        add(entry);
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Entry entry = keyMap.get(key);
+    if (entry == null) {
+      return null;
+    }
+    entry.touch();
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    keyMap.remove(key);
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      Arrays.fill(ring, null);
+      used = 0;
+      hand = 0;
+      keyMap.clear();
+      delegate.clear();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Places an entry in a free slot of the ring, or in the slot of the entry it evicts.
+   */
+  private void add(Entry entry) {
+    if (used < ring.length) {
+      ring[used++] = entry;
+      return;
+    }
+    for (;;) {
+      Entry current = ring[hand];
+      if (isLive(current) && current.referenced) {
+        current.referenced = false;
+      } else {
+        // the slots of the removed entries are reused as the hand passes over them
+        if (isLive(current) && keyMap.remove(current.key, current)) {
+          delegate.removeObject(current.key);
+        }
+        ring[hand] = entry;
+        hand = (hand + 1) % ring.length;
+        return;
+      }
+      hand = (hand + 1) % ring.length;
+    }
+  }
+
+  private boolean isLive(Entry entry) {
+    return keyMap.get(entry.key) == entry;
+  }
+
+  private static final class Entry {
+    private final Object key;
+    private volatile boolean referenced;
+
+    Entry(Object key) {
+      this.key = key;
+    }
+
+    void touch() {
+      // reading first keeps the reads of a hot entry from invalidating its cache line
+      if (!referenced) {
+        referenced = true;
+      }
+    }
+  }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -29,6 +31,10 @@ public class LoggingCache implements Cache {
   private final Cache delegate;
   protected int requests = 0;
   protected int hits = 0;
+  // the counters are updated concurrently when the cache is not synchronized,
+  // the int fields above only mirror them for subclasses
+  private final LongAdder requestCount = new LongAdder();
+  private final LongAdder hitCount = new LongAdder();
 
   public LoggingCache(Cache delegate) {
     this.delegate = delegate;
@@ -52,10 +58,12 @@ public class LoggingCache implements Cache {
 
   @Override
   public Object getObject(Object key) {
-    requests++;
+    requestCount.increment();
+    requests = requestCount.intValue();
     final Object value = delegate.getObject(key);
     if (value != null) {
-      hits++;
+      hitCount.increment();
+      hits = hitCount.intValue();
     }
     if (log.isDebugEnabled()) {
       log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
@@ -83,8 +91,26 @@ public class LoggingCache implements Cache {
     return delegate.equals(obj);
   }
 
+  /**
+   * Returns the number of lookups counted so far.
+   *
+   * @since 3.5.8
+   */
+  protected long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  /**
+   * Returns the number of lookups that found a cached value.
+   *
+   * @since 3.5.8
+   */
+  protected long getHitCount() {
+    return hitCount.sum();
+  }
+
   private double getHitRatio() {
-    return (double) hits / (double) requests;
+    return (double) getHitCount() / (double) getRequestCount();
   }
 
 }
@@ -27,7 +27,8 @@ public class ScheduledCache implements Cache {
 
   private final Cache delegate;
   protected long clearInterval;
-  protected long lastClear;
+  // read and written concurrently when the cache is not synchronized
+  protected volatile long lastClear;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
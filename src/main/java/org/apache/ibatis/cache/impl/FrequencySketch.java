@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+/**
+ * A count-min sketch that estimates how often the keys of a cache were used, with four 4-bit counters per key.
+ * <p>
+ * The counters are halved once the number of increments reaches ten times the maximum size of the cache, so that the
+ * estimates follow the recent history. It is not thread safe.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private long[] table;
+  private int tableMask;
+  private int sampleSize;
+  private int additions;
+
+  FrequencySketch(int maximumSize) {
+    ensureCapacity(maximumSize);
+  }
+
+  /**
+   * Resizes the sketch for a maximum size. The counters are cleared if the table grows.
+   */
+  void ensureCapacity(int maximumSize) {
+    int capacity = ceilingPowerOfTwo(Math.min(Math.max(maximumSize, 8), MAXIMUM_CAPACITY));
+    sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * maximumSize;
+    if (table == null || table.length < capacity) {
+      table = new long[capacity];
+      tableMask = capacity - 1;
+      additions = 0;
+    }
+  }
+
+  /**
+   * Returns the estimated number of times a key was used, up to 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records a use of a key.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions >>>= 1;
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  static int ceilingPowerOfTwo(int x) {
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+
+}
@@ -0,0 +1,332 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+
+/**
+ * A cache that keeps its values serialized outside of the heap, within a hard limit of bytes.
+ * <p>
+ * The memory is allocated in slabs of direct byte buffers, split in blocks of the same size. A value takes as many
+ * blocks as its serialized form needs, and the least recently used values are evicted when no block is free. Only the
+ * keys and the indexes of their blocks are kept on the heap.
+ * <p>
+ * The values are copied: each read deserializes a new copy, as a read-write cache does. The memory is copied under a
+ * lock, the values are serialized and deserialized outside of it. The {@code maxBytes}, {@code slabSize} and
+ * {@code blockSize} properties size the memory, and the hit, miss, eviction and rejection counts are kept.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class OffHeapCache implements Cache, InitializingObject {
+
+  private final String id;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final CacheSerializer serializer = new JavaSerializer();
+  private long maxBytes = 64L * 1024 * 1024;
+  private int slabSize = 1024 * 1024;
+  private int blockSize = 256;
+
+  // guarded by the lock
+  private final Map<Object, Entry> index = new LinkedHashMap<>(16, .75F, true);
+  private ByteBuffer[] slabs;
+  private int blocksPerSlab;
+  private int blockCount;
+  private int nextBlock;
+  private int[] freeBlocks;
+  private int freeBlockCount;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private long rejectionCount;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+    initialize();
+  }
+
+  /**
+   * Creates the memory of the cache from its properties. The values already stored are cleared.
+   */
+  @Override
+  public void initialize() {
+    if (blockSize <= 0 || slabSize < blockSize || maxBytes < blockSize) {
+      throw new CacheException("Invalid sizes of the off-heap cache '" + id + "': blockSize (" + blockSize
+          + ") must be positive, and not greater than slabSize (" + slabSize + ") and maxBytes (" + maxBytes + ").");
+    }
+    lock.lock();
+    try {
+      index.clear();
+      blocksPerSlab = slabSize / blockSize;
+      blockCount = (int) Math.min(maxBytes / blockSize, Integer.MAX_VALUE);
+      slabs = new ByteBuffer[(blockCount + blocksPerSlab - 1) / blocksPerSlab];
+      nextBlock = 0;
+      freeBlocks = new int[16];
+      freeBlockCount = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    byte[] bytes = serializer.serialize(value);
+    int length = (bytes.length + blockSize - 1) / blockSize;
+    lock.lock();
+    try {
+      Entry previous = index.remove(key);
+      if (previous != null) {
+        release(previous);
+      }
+      if (length > blockCount) {
+        rejectionCount++;
+        return;
+      }
+      while (freeBlockCount + blockCount - nextBlock < length) {
+        Iterator<Entry> eldest = index.values().iterator();
+        release(eldest.next());
+        eldest.remove();
+        evictionCount++;
+      }
+      int[] blocks = new int[length];
+      for (int i = 0; i < length; i++) {
+        blocks[i] = allocate();
+        ByteBuffer slab = slabs[blocks[i] / blocksPerSlab];
+        // ByteBuffer.position(int) does not exist on Java 8, the cast links to Buffer.position(int)
+        ((Buffer) slab).position((blocks[i] % blocksPerSlab) * blockSize);
+        slab.put(bytes, i * blockSize, Math.min(blockSize, bytes.length - i * blockSize));
+      }
+      index.put(key, new Entry(blocks, bytes.length));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    byte[] bytes;
+    lock.lock();
+    try {
+      Entry entry = index.get(key);
+      if (entry == null) {
+        missCount++;
+        return null;
+      }
+      hitCount++;
+      bytes = read(entry);
+    } finally {
+      lock.unlock();
+    }
+    return serializer.deserialize(bytes);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    byte[] bytes;
+    lock.lock();
+    try {
+      Entry entry = index.remove(key);
+      if (entry == null) {
+        return null;
+      }
+      bytes = read(entry);
+      release(entry);
+    } finally {
+      lock.unlock();
+    }
+    return serializer.deserialize(bytes);
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      index.clear();
+      // the slabs are kept, and their blocks allocated again from the first one
+      nextBlock = 0;
+      freeBlockCount = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int allocate() {
+    if (freeBlockCount > 0) {
+      return freeBlocks[--freeBlockCount];
+    }
+    int block = nextBlock++;
+    int slab = block / blocksPerSlab;
+    if (slabs[slab] == null) {
+      int blocks = Math.min(blocksPerSlab, blockCount - slab * blocksPerSlab);
+      slabs[slab] = ByteBuffer.allocateDirect(blocks * blockSize);
+    }
+    return block;
+  }
+
+  private void release(Entry entry) {
+    if (freeBlockCount + entry.blocks.length > freeBlocks.length) {
+      freeBlocks = Arrays.copyOf(freeBlocks, Math.max(freeBlocks.length * 2, freeBlockCount + entry.blocks.length));
+    }
+    for (int block : entry.blocks) {
+      freeBlocks[freeBlockCount++] = block;
+    }
+  }
+
+  private byte[] read(Entry entry) {
+    byte[] bytes = new byte[entry.length];
+    for (int i = 0; i < entry.blocks.length; i++) {
+      ByteBuffer slab = slabs[entry.blocks[i] / blocksPerSlab];
+      ((Buffer) slab).position((entry.blocks[i] % blocksPerSlab) * blockSize);
+      slab.get(bytes, i * blockSize, Math.min(blockSize, entry.length - i * blockSize));
+    }
+    return bytes;
+  }
+
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+  }
+
+  public int getSlabSize() {
+    return slabSize;
+  }
+
+  public void setBlockSize(int blockSize) {
+    this.blockSize = blockSize;
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Returns the number of bytes taken by the blocks of the values.
+   *
+   * @return the used bytes
+   */
+  public long getUsedBytes() {
+    lock.lock();
+    try {
+      return (long) (nextBlock - freeBlockCount) * blockSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated outside of the heap.
+   *
+   * @return the allocated bytes
+   */
+  public long getAllocatedBytes() {
+    lock.lock();
+    try {
+      long allocated = 0;
+      for (ByteBuffer slab : slabs) {
+        allocated += slab == null ? 0 : slab.capacity();
+      }
+      return allocated;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getHitCount() {
+    lock.lock();
+    try {
+      return hitCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getMissCount() {
+    lock.lock();
+    try {
+      return missCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getEvictionCount() {
+    lock.lock();
+    try {
+      return evictionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of values that were not stored because they are larger than the cache.
+   *
+   * @return the rejection count
+   */
+  public long getRejectionCount() {
+    lock.lock();
+    try {
+      return rejectionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class Entry {
+    private final int[] blocks;
+    private final int length;
+
+    Entry(int[] blocks, int length) {
+      this.blocks = blocks;
+      this.length = length;
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.cache.impl;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
@@ -27,12 +28,29 @@ import org.apache.ibatis.cache.CacheException;
  */
 public class PerpetualCache implements Cache {
 
+  // stands for the null values, that a concurrent map cannot hold
+  private static final Object NULL_VALUE = new Object();
+
   private final String id;
 
-  private final Map<Object, Object> cache = new HashMap<>();
+  private final Map<Object, Object> cache;
 
   public PerpetualCache(String id) {
+    this(id, false);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param id
+   *          the id of the cache
+   * @param concurrent
+   *          whether the cache is used by several threads without being synchronized
+   * @since 3.5.8
+   */
+  public PerpetualCache(String id, boolean concurrent) {
     this.id = id;
+    this.cache = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
   }
 
   @Override
@@ -47,17 +65,17 @@ public class PerpetualCache implements Cache {
 
   @Override
   public void putObject(Object key, Object value) {
-    cache.put(key, value);
+    cache.put(key, value == null ? NULL_VALUE : value);
   }
 
   @Override
   public Object getObject(Object key) {
-    return cache.get(key);
+    return unmask(cache.get(key));
   }
 
   @Override
   public Object removeObject(Object key) {
-    return cache.remove(key);
+    return unmask(cache.remove(key));
   }
 
   @Override
@@ -65,6 +83,10 @@ public class PerpetualCache implements Cache {
     cache.clear();
   }
 
+  private static Object unmask(Object value) {
+    return value == NULL_VALUE ? null : value;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (getId() == null) {
@@ -0,0 +1,453 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.ThreadSafeCache;
+
+/**
+ * A size bounded cache with the W-TinyLFU eviction policy.
+ * <p>
+ * New entries enter a small LRU window. An entry leaving the window is admitted to the main space only if it was used
+ * more often than the entry it would evict, so that a scan of entries used once does not flush the entries used
+ * often. The main space is split in a probation and a protected LRU segment, and the frequencies are estimated by a
+ * {@link FrequencySketch}.
+ * <p>
+ * Reads do not lock: they are recorded in lossy, striped buffers and the writes in a queue. The recorded events are
+ * applied to the policy by whichever thread acquires the eviction lock, which is only tried, when a read buffer is full
+ * or after a write.
+ * <p>
+ * Used as the {@code type} of a cache, it stores the values itself, is thread safe, and is not decorated; its size is
+ * set by a {@code size} property. Used as the {@code eviction} of a cache, it decorates the base cache like the
+ * {@link org.apache.ibatis.cache.decorators.LruCache} does, and is thread safe as long as the base cache is.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class TinyLfuCache implements ThreadSafeCache {
+
+  private static final int READ_BUFFER_SIZE = 16;
+  private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+  private static final int READ_BUFFER_STRIPES
+      = FrequencySketch.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+  private static final int NONE = 0;
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private final String id;
+  private final Cache delegate;
+  private final ConcurrentMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+  private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  // guarded by the eviction lock
+  private final AccessOrderDeque windowDeque = new AccessOrderDeque();
+  private final AccessOrderDeque probationDeque = new AccessOrderDeque();
+  private final AccessOrderDeque protectedDeque = new AccessOrderDeque();
+  private FrequencySketch sketch;
+  private int maximumSize;
+  private int windowMaximum;
+  private int protectedMaximum;
+  private int policySize;
+  private int windowSize;
+  private int protectedSize;
+
+  public TinyLfuCache(String id) {
+    this(id, null);
+  }
+
+  public TinyLfuCache(Cache delegate) {
+    this(null, delegate);
+  }
+
+  private TinyLfuCache(String id, Cache delegate) {
+    this.id = id;
+    this.delegate = delegate;
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer();
+    }
+    setSize(1024);
+  }
+
+  @Override
+  public String getId() {
+    return delegate == null ? id : delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate == null ? data.size() : delegate.getSize();
+  }
+
+  /**
+   * Sets the maximum number of entries.
+   *
+   * @param size
+   *          the maximum number of entries
+   */
+  public void setSize(int size) {
+    if (size <= 0) {
+      throw new CacheException("The size of the cache '" + getId() + "' must be positive, but was " + size + ".");
+    }
+    evictionLock.lock();
+    try {
+      maximumSize = size;
+      windowMaximum = Math.max(1, size / 100);
+      protectedMaximum = (int) ((size - windowMaximum) * 4L / 5);
+      if (sketch == null) {
+        sketch = new FrequencySketch(size);
+      } else {
+        sketch.ensureCapacity(size);
+      }
+      maintenance();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    if (delegate != null) {
+      delegate.putObject(key, value);
+    }
+    Node node = data.get(key);
+    if (node == null) {
+      Node added = new Node(key, delegate == null ? value : null);
+      node = data.putIfAbsent(key, added);
+      if (node == null) {
+        afterWrite(() -> onAdd(added));
+        return;
+      }
+    }
+    if (delegate == null) {
+      node.value = value;
+    }
+    afterRead(node);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Node node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    afterRead(node);
+    return delegate == null ? node.value : delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Node node = data.remove(key);
+    Object value = delegate != null ? delegate.removeObject(key) : node == null ? null : node.value;
+    if (node != null) {
+      afterWrite(() -> unlink(node));
+    }
+    return value;
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      data.clear();
+      if (delegate != null) {
+        delegate.clear();
+      }
+      maintenance();
+      for (AccessOrderDeque deque : new AccessOrderDeque[] { windowDeque, probationDeque, protectedDeque }) {
+        for (Node node = deque.peekFirst(); node != null; node = deque.peekFirst()) {
+          unlink(node);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void afterRead(Node node) {
+    ReadBuffer readBuffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+    if (readBuffer.offer(node) && evictionLock.tryLock()) {
+      try {
+        maintenance();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void afterWrite(Runnable task) {
+    writeBuffer.add(task);
+    // a task added while another thread holds the lock is applied by that thread once it released the lock
+    do {
+      if (!evictionLock.tryLock()) {
+        return;
+      }
+      try {
+        maintenance();
+      } finally {
+        evictionLock.unlock();
+      }
+    } while (!writeBuffer.isEmpty());
+  }
+
+  private void maintenance() {
+    for (ReadBuffer readBuffer : readBuffers) {
+      readBuffer.drain(this);
+    }
+    for (Runnable task = writeBuffer.poll(); task != null; task = writeBuffer.poll()) {
+      task.run();
+    }
+    evictEntries();
+  }
+
+  private void onAdd(Node node) {
+    // the entry may have been removed before its addition was applied
+    if (data.get(node.key) != node) {
+      return;
+    }
+    sketch.increment(node.key);
+    node.queue = WINDOW;
+    windowDeque.addLast(node);
+    windowSize++;
+    policySize++;
+  }
+
+  private void onAccess(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        sketch.increment(node.key);
+        windowDeque.moveToBack(node);
+        break;
+      case PROBATION:
+        sketch.increment(node.key);
+        probationDeque.remove(node);
+        node.queue = PROTECTED;
+        protectedDeque.addLast(node);
+        protectedSize++;
+        demoteFromProtected();
+        break;
+      case PROTECTED:
+        sketch.increment(node.key);
+        protectedDeque.moveToBack(node);
+        break;
+      default:
+        // removed, or its addition is not applied yet
+        break;
+    }
+  }
+
+  private void demoteFromProtected() {
+    while (protectedSize > protectedMaximum) {
+      Node node = protectedDeque.pollFirst();
+      protectedSize--;
+      node.queue = PROBATION;
+      probationDeque.addLast(node);
+    }
+  }
+
+  private void evictEntries() {
+    demoteFromProtected();
+    // the entries leaving the window are the candidates for the main space, at the back of the probation segment
+    Node candidate = null;
+    while (windowSize > windowMaximum) {
+      Node node = windowDeque.pollFirst();
+      windowSize--;
+      node.queue = PROBATION;
+      probationDeque.addLast(node);
+      if (candidate == null) {
+        candidate = node;
+      }
+    }
+    while (policySize > maximumSize) {
+      Node victim = probationDeque.peekFirst();
+      if (victim == null) {
+        victim = protectedDeque.peekFirst() != null ? protectedDeque.peekFirst() : windowDeque.peekFirst();
+      }
+      if (candidate == null || candidate == victim) {
+        candidate = candidate == null ? null : candidate.next;
+        evict(victim);
+      } else if (admit(candidate, victim)) {
+        evict(victim);
+      } else {
+        Node rejected = candidate;
+        candidate = candidate.next;
+        evict(rejected);
+      }
+    }
+  }
+
+  private boolean admit(Node candidate, Node victim) {
+    int candidateFrequency = sketch.frequency(candidate.key);
+    int victimFrequency = sketch.frequency(victim.key);
+    if (candidateFrequency > victimFrequency) {
+      return true;
+    }
+    // admitting a warm candidate now and then keeps colliding keys from locking out the new entries
+    return candidateFrequency > 5 && ThreadLocalRandom.current().nextInt(128) == 0;
+  }
+
+  private void evict(Node node) {
+    unlink(node);
+    if (data.remove(node.key, node) && delegate != null) {
+      delegate.removeObject(node.key);
+    }
+  }
+
+  private void unlink(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        windowDeque.remove(node);
+        windowSize--;
+        break;
+      case PROBATION:
+        probationDeque.remove(node);
+        break;
+      case PROTECTED:
+        protectedDeque.remove(node);
+        protectedSize--;
+        break;
+      default:
+        return;
+    }
+    node.queue = NONE;
+    policySize--;
+  }
+
+  private static final class Node {
+    private final Object key;
+    private volatile Object value;
+    // guarded by the eviction lock
+    private int queue;
+    private Node previous;
+    private Node next;
+
+    Node(Object key, Object value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A doubly linked list of nodes, from the least to the most recently used.
+   */
+  private static final class AccessOrderDeque {
+    private Node first;
+    private Node last;
+
+    Node peekFirst() {
+      return first;
+    }
+
+    Node pollFirst() {
+      Node node = first;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    void addLast(Node node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+    }
+
+    void remove(Node node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+    }
+
+    void moveToBack(Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+  }
+
+  /**
+   * A bounded buffer of reads, written by many threads and drained under the eviction lock. Reads are dropped when the
+   * buffer is full or contended.
+   */
+  private static final class ReadBuffer {
+    private final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong writeCount = new AtomicLong();
+    private volatile long readCount;
+
+    /**
+     * Records a read.
+     *
+     * @return whether the buffer is full and should be drained
+     */
+    boolean offer(Node node) {
+      long tail = writeCount.get();
+      long size = tail - readCount;
+      if (size >= READ_BUFFER_SIZE) {
+        return true;
+      }
+      if (writeCount.compareAndSet(tail, tail + 1)) {
+        slots.lazySet((int) (tail & READ_BUFFER_MASK), node);
+        return size + 1 == READ_BUFFER_SIZE;
+      }
+      return false;
+    }
+
+    void drain(TinyLfuCache cache) {
+      long head = readCount;
+      long tail = writeCount.get();
+      for (; head < tail; head++) {
+        int index = (int) (head & READ_BUFFER_MASK);
+        Node node = slots.get(index);
+        if (node == null) {
+          // the write of the slot is not visible yet
+          break;
+        }
+        slots.lazySet(index, null);
+        cache.onAccess(node);
+      }
+      readCount = head;
+    }
+  }
+
+}
@@ -0,0 +1,653 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * A serializer that writes a compact binary form, without the stream headers and class descriptors of the Java
+ * serialization.
+ * <p>
+ * Strings, boxed primitives, big numbers, dates, enums, arrays, and the common lists, sets and maps are written by
+ * dedicated codecs. The other serializable objects are written field by field, from a table of the fields of their
+ * class built once by reflection, and are read back through their constructor without parameters (so, unlike with the
+ * Java serialization, their transient fields keep the values this constructor gives them). Shared references and
+ * cycles are kept.
+ * <p>
+ * The objects that customize their serialization (with {@code writeObject}, {@code writeReplace} and the like, as the
+ * lazy loading proxies do), that have no constructor without parameters, or whose class is part of the JDK and not
+ * listed above, are written with the Java serialization.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class CompactSerializer implements CacheSerializer {
+
+  private static final byte NULL = 0;
+  private static final byte REFERENCE = 1;
+  private static final byte STRING = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte SHORT = 5;
+  private static final byte BYTE = 6;
+  private static final byte BOOLEAN = 7;
+  private static final byte CHARACTER = 8;
+  private static final byte FLOAT = 9;
+  private static final byte DOUBLE = 10;
+  private static final byte BIG_DECIMAL = 11;
+  private static final byte BIG_INTEGER = 12;
+  private static final byte ENUM = 13;
+  private static final byte DATE = 14;
+  private static final byte SQL_DATE = 15;
+  private static final byte SQL_TIME = 16;
+  private static final byte TIMESTAMP = 17;
+  private static final byte BYTE_ARRAY = 18;
+  private static final byte ARRAY = 19;
+  private static final byte COLLECTION = 20;
+  private static final byte MAP = 21;
+  private static final byte OBJECT = 22;
+  private static final byte SERIALIZED = 23;
+
+  private static final Map<String, Class<?>> primitiveTypes = new HashMap<>();
+
+  static {
+    for (Class<?> type : Arrays.asList(boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class)) {
+      primitiveTypes.put(type.getName(), type);
+    }
+  }
+
+  private static final ClassValue<FieldTable> fieldTables = new ClassValue<FieldTable>() {
+    @Override
+    protected FieldTable computeValue(Class<?> type) {
+      return FieldTable.of(type);
+    }
+  };
+
+  private final JavaSerializer javaSerializer = new JavaSerializer();
+  private final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+
+  @Override
+  public byte[] serialize(Object value) {
+    try {
+      Output output = new Output();
+      output.writeObject(value);
+      return output.toByteArray();
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error serializing object.  Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    try {
+      return new Input(bytes).readObject();
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+  }
+
+  private Class<?> classForName(String name) throws ClassNotFoundException {
+    Class<?> type = classes.get(name);
+    if (type == null) {
+      type = primitiveTypes.get(name);
+      if (type == null) {
+        type = Resources.classForName(name);
+      }
+      classes.put(name, type);
+    }
+    return type;
+  }
+
+  private static boolean isCollection(Class<?> type) {
+    return type == ArrayList.class || type == LinkedList.class || type == HashSet.class || type == LinkedHashSet.class;
+  }
+
+  private static boolean isMap(Class<?> type) {
+    return type == HashMap.class || type == LinkedHashMap.class;
+  }
+
+  private static Collection<Object> newCollection(Class<?> type, int size) {
+    if (type == ArrayList.class) {
+      return new ArrayList<>(size);
+    } else if (type == LinkedList.class) {
+      return new LinkedList<>();
+    } else if (type == HashSet.class) {
+      return new HashSet<>(capacity(size));
+    } else {
+      return new LinkedHashSet<>(capacity(size));
+    }
+  }
+
+  private static Map<Object, Object> newMap(Class<?> type, int size) {
+    return type == HashMap.class ? new HashMap<>(capacity(size)) : new LinkedHashMap<>(capacity(size));
+  }
+
+  private static int capacity(int size) {
+    return Math.max(16, (int) (size / .75F) + 1);
+  }
+
+  /**
+   * Writes a value. The objects are numbered in the order they are written, so that the next references to them are
+   * written as their number.
+   */
+  private final class Output {
+    private byte[] buffer = new byte[256];
+    private int position;
+    private final Map<Object, Integer> references = new IdentityHashMap<>();
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    void writeObject(Object value) throws IllegalAccessException {
+      if (value == null) {
+        writeByte(NULL);
+        return;
+      }
+      Class<?> type = value.getClass();
+      if (type == String.class) {
+        writeByte(STRING);
+        writeString((String) value);
+      } else if (type == Integer.class) {
+        writeByte(INTEGER);
+        writeVarLong((Integer) value);
+      } else if (type == Long.class) {
+        writeByte(LONG);
+        writeVarLong((Long) value);
+      } else if (type == Short.class) {
+        writeByte(SHORT);
+        writeVarLong((Short) value);
+      } else if (type == Byte.class) {
+        writeByte(BYTE);
+        writeByte((Byte) value);
+      } else if (type == Boolean.class) {
+        writeByte(BOOLEAN);
+        writeByte((Boolean) value ? 1 : 0);
+      } else if (type == Character.class) {
+        writeByte(CHARACTER);
+        writeVarLong((Character) value);
+      } else if (type == Float.class) {
+        writeByte(FLOAT);
+        writeLong(Float.floatToRawIntBits((Float) value));
+      } else if (type == Double.class) {
+        writeByte(DOUBLE);
+        writeLong(Double.doubleToRawLongBits((Double) value));
+      } else if (type == BigDecimal.class) {
+        writeByte(BIG_DECIMAL);
+        writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+        writeVarLong(((BigDecimal) value).scale());
+      } else if (type == BigInteger.class) {
+        writeByte(BIG_INTEGER);
+        writeBytes(((BigInteger) value).toByteArray());
+      } else if (value instanceof Enum) {
+        writeByte(ENUM);
+        writeClass(((Enum<?>) value).getDeclaringClass());
+        writeString(((Enum<?>) value).name());
+      } else {
+        Integer reference = references.get(value);
+        if (reference != null) {
+          writeByte(REFERENCE);
+          writeVarLong(reference);
+        } else {
+          references.put(value, references.size());
+          writeMutableObject(type, value);
+        }
+      }
+    }
+
+    private void writeMutableObject(Class<?> type, Object value) throws IllegalAccessException {
+      if (type == Date.class || type == java.sql.Date.class || type == Time.class) {
+        writeByte(type == Date.class ? DATE : type == Time.class ? SQL_TIME : SQL_DATE);
+        writeLong(((Date) value).getTime());
+      } else if (type == Timestamp.class) {
+        writeByte(TIMESTAMP);
+        writeLong(((Timestamp) value).getTime());
+        writeVarLong(((Timestamp) value).getNanos());
+      } else if (type == byte[].class) {
+        writeByte(BYTE_ARRAY);
+        writeBytes((byte[]) value);
+      } else if (type.isArray()) {
+        int length = Array.getLength(value);
+        writeByte(ARRAY);
+        writeClass(type.getComponentType());
+        writeVarLong(length);
+        for (int i = 0; i < length; i++) {
+          writeObject(Array.get(value, i));
+        }
+      } else if (isCollection(type)) {
+        Collection<?> collection = (Collection<?>) value;
+        writeByte(COLLECTION);
+        writeClass(type);
+        writeVarLong(collection.size());
+        for (Object element : collection) {
+          writeObject(element);
+        }
+      } else if (isMap(type)) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        writeByte(MAP);
+        writeClass(type);
+        writeVarLong(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          writeObject(entry.getKey());
+          writeObject(entry.getValue());
+        }
+      } else {
+        FieldTable fieldTable = fieldTables.get(type);
+        if (fieldTable.isSupported()) {
+          writeByte(OBJECT);
+          writeClass(type);
+          fieldTable.write(this, value);
+        } else {
+          writeByte(SERIALIZED);
+          writeBytes(javaSerializer.serialize(value));
+        }
+      }
+    }
+
+    void writeClass(Class<?> type) {
+      Integer id = classIds.get(type);
+      if (id != null) {
+        writeVarLong(id + 1L);
+      } else {
+        classIds.put(type, classIds.size());
+        writeVarLong(0);
+        writeString(type.getName());
+      }
+    }
+
+    void writeString(String value) {
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeBytes(byte[] bytes) {
+      writeVarLong(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    /**
+     * Writes a number in 1 to 10 bytes, the fewer the closer it is to zero.
+     */
+    void writeVarLong(long value) {
+      ensureCapacity(10);
+      long zigZag = (value << 1) ^ (value >> 63);
+      while ((zigZag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+        zigZag >>>= 7;
+      }
+      buffer[position++] = (byte) zigZag;
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+      }
+    }
+  }
+
+  /**
+   * Reads a value written by an {@link Output}, numbering the objects in the same order.
+   */
+  private final class Input {
+    private final byte[] buffer;
+    private int position;
+    private final List<Object> references = new ArrayList<>();
+    private final List<Class<?>> classList = new ArrayList<>();
+
+    Input(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    Object readObject() throws ReflectiveOperationException {
+      byte tag = buffer[position++];
+      switch (tag) {
+        case NULL:
+          return null;
+        case REFERENCE:
+          return references.get((int) readVarLong());
+        case STRING:
+          return readString();
+        case INTEGER:
+          return (int) readVarLong();
+        case LONG:
+          return readVarLong();
+        case SHORT:
+          return (short) readVarLong();
+        case BYTE:
+          return buffer[position++];
+        case BOOLEAN:
+          return buffer[position++] != 0;
+        case CHARACTER:
+          return (char) readVarLong();
+        case FLOAT:
+          return Float.intBitsToFloat((int) readLong());
+        case DOUBLE:
+          return Double.longBitsToDouble(readLong());
+        case BIG_DECIMAL:
+          return new BigDecimal(new BigInteger(readBytes()), (int) readVarLong());
+        case BIG_INTEGER:
+          return new BigInteger(readBytes());
+        case ENUM:
+          return readEnum(readClass(), readString());
+        default:
+          return readMutableObject(tag);
+      }
+    }
+
+    private Object readMutableObject(byte tag) throws ReflectiveOperationException {
+      int reference = references.size();
+      references.add(null);
+      Object value;
+      switch (tag) {
+        case DATE:
+          value = new Date(readLong());
+          break;
+        case SQL_DATE:
+          value = new java.sql.Date(readLong());
+          break;
+        case SQL_TIME:
+          value = new Time(readLong());
+          break;
+        case TIMESTAMP:
+          Timestamp timestamp = new Timestamp(readLong());
+          timestamp.setNanos((int) readVarLong());
+          value = timestamp;
+          break;
+        case BYTE_ARRAY:
+          value = readBytes();
+          break;
+        case ARRAY:
+          Class<?> componentType = readClass();
+          int length = (int) readVarLong();
+          value = Array.newInstance(componentType, length);
+          references.set(reference, value);
+          for (int i = 0; i < length; i++) {
+            Array.set(value, i, readObject());
+          }
+          break;
+        case COLLECTION:
+          Class<?> collectionType = readClass();
+          int size = (int) readVarLong();
+          Collection<Object> collection = newCollection(collectionType, size);
+          references.set(reference, collection);
+          for (int i = 0; i < size; i++) {
+            collection.add(readObject());
+          }
+          value = collection;
+          break;
+        case MAP:
+          Class<?> mapType = readClass();
+          int entryCount = (int) readVarLong();
+          Map<Object, Object> map = newMap(mapType, entryCount);
+          references.set(reference, map);
+          for (int i = 0; i < entryCount; i++) {
+            map.put(readObject(), readObject());
+          }
+          value = map;
+          break;
+        case OBJECT:
+          Class<?> type = readClass();
+          FieldTable fieldTable = fieldTables.get(type);
+          if (!fieldTable.isSupported()) {
+            throw new CacheException("The class " + type.getName() + " cannot be read field by field.");
+          }
+          value = fieldTable.newInstance();
+          references.set(reference, value);
+          fieldTable.read(this, value);
+          break;
+        case SERIALIZED:
+          value = javaSerializer.deserialize(readBytes());
+          break;
+        default:
+          throw new CacheException("Invalid serialized value: unknown tag " + tag + " at " + (position - 1) + ".");
+      }
+      references.set(reference, value);
+      return value;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object readEnum(Class<?> type, String name) {
+      return Enum.valueOf((Class) type, name);
+    }
+
+    Class<?> readClass() throws ClassNotFoundException {
+      int id = (int) readVarLong();
+      if (id > 0) {
+        return classList.get(id - 1);
+      }
+      Class<?> type = classForName(readString());
+      classList.add(type);
+      return type;
+    }
+
+    String readString() {
+      int length = (int) readVarLong();
+      String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    byte[] readBytes() {
+      int length = (int) readVarLong();
+      byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return bytes;
+    }
+
+    byte readByte() {
+      return buffer[position++];
+    }
+
+    long readLong() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (buffer[position++] & 0xFFL);
+      }
+      return value;
+    }
+
+    long readVarLong() {
+      long zigZag = 0;
+      for (int shift = 0;; shift += 7) {
+        byte b = buffer[position++];
+        zigZag |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          break;
+        }
+      }
+      return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+  }
+
+  /**
+   * The serializable fields of a class, from its topmost serializable superclass down.
+   */
+  private static final class FieldTable {
+    private static final FieldTable UNSUPPORTED = new FieldTable(null, null);
+
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+
+    private FieldTable(Constructor<?> constructor, Field[] fields) {
+      this.constructor = constructor;
+      this.fields = fields;
+    }
+
+    static FieldTable of(Class<?> type) {
+      if (!Reflector.canControlMemberAccessible() || !Serializable.class.isAssignableFrom(type)
+          || Externalizable.class.isAssignableFrom(type) || type.getClassLoader() == null) {
+        return UNSUPPORTED;
+      }
+      try {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+          if (hasMethod(current, "writeReplace") || hasMethod(current, "readResolve")) {
+            return UNSUPPORTED;
+          }
+          if (!Serializable.class.isAssignableFrom(current)) {
+            // as with the Java serialization, the fields of the superclasses that are not serializable are not copied
+            continue;
+          }
+          if (current.getClassLoader() == null || hasMethod(current, "writeObject", ObjectOutputStream.class)
+              || hasMethod(current, "readObject", ObjectInputStream.class) || hasMethod(current, "readObjectNoData")
+              || hasField(current, "serialPersistentFields")) {
+            return UNSUPPORTED;
+          }
+          List<Field> declaredFields = new ArrayList<>();
+          for (Field field : current.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+              field.setAccessible(true);
+              declaredFields.add(field);
+            }
+          }
+          fields.addAll(0, declaredFields);
+        }
+        Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return new FieldTable(constructor, fields.toArray(new Field[0]));
+      } catch (NoSuchMethodException | RuntimeException e) {
+        // no constructor without parameters, or fields that cannot be made accessible
+        return UNSUPPORTED;
+      }
+    }
+
+    private static boolean hasMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+      try {
+        type.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+
+    private static boolean hasField(Class<?> type, String name) {
+      try {
+        type.getDeclaredField(name);
+        return true;
+      } catch (NoSuchFieldException e) {
+        return false;
+      }
+    }
+
+    boolean isSupported() {
+      return constructor != null;
+    }
+
+    Object newInstance() throws ReflectiveOperationException {
+      return constructor.newInstance();
+    }
+
+    void write(Output output, Object value) throws IllegalAccessException {
+      for (Field field : fields) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+          output.writeObject(field.get(value));
+        } else if (type == int.class) {
+          output.writeVarLong(field.getInt(value));
+        } else if (type == long.class) {
+          output.writeVarLong(field.getLong(value));
+        } else if (type == boolean.class) {
+          output.writeByte(field.getBoolean(value) ? 1 : 0);
+        } else if (type == double.class) {
+          output.writeLong(Double.doubleToRawLongBits(field.getDouble(value)));
+        } else if (type == float.class) {
+          output.writeLong(Float.floatToRawIntBits(field.getFloat(value)));
+        } else if (type == short.class) {
+          output.writeVarLong(field.getShort(value));
+        } else if (type == byte.class) {
+          output.writeByte(field.getByte(value));
+        } else {
+          output.writeVarLong(field.getChar(value));
+        }
+      }
+    }
+
+    void read(Input input, Object value) throws ReflectiveOperationException {
+      for (Field field : fields) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+          field.set(value, input.readObject());
+        } else if (type == int.class) {
+          field.setInt(value, (int) input.readVarLong());
+        } else if (type == long.class) {
+          field.setLong(value, input.readVarLong());
+        } else if (type == boolean.class) {
+          field.setBoolean(value, input.readByte() != 0);
+        } else if (type == double.class) {
+          field.setDouble(value, Double.longBitsToDouble(input.readLong()));
+        } else if (type == float.class) {
+          field.setFloat(value, Float.intBitsToFloat((int) input.readLong()));
+        } else if (type == short.class) {
+          field.setShort(value, (short) input.readVarLong());
+        } else if (type == byte.class) {
+          field.setByte(value, input.readByte());
+        } else {
+          field.setChar(value, (char) input.readVarLong());
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * The values of a column of a {@link ColumnarResult}, indexed by row.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public abstract class Column {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final String name;
+  private final JdbcType jdbcType;
+  private final BitSet nulls = new BitSet();
+  protected int size;
+
+  protected Column(String name, JdbcType jdbcType) {
+    this.name = name;
+    this.jdbcType = jdbcType;
+  }
+
+  /**
+   * Gets the column label.
+   *
+   * @return the column label
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the JDBC type of the column, as reported by the result set metadata.
+   *
+   * @return the JDBC type, or {@code null} if it is unknown
+   */
+  public JdbcType getJdbcType() {
+    return jdbcType;
+  }
+
+  /**
+   * Gets the number of values, i.e. the number of rows.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the value of a row is {@code null}.
+   *
+   * @param row
+   *          the 0-based row index
+   * @return {@code true} if the value is {@code null}
+   */
+  public boolean isNull(int row) {
+    checkRow(row);
+    return nulls.get(row);
+  }
+
+  /**
+   * Gets the value of a row, boxed.
+   *
+   * @param row
+   *          the 0-based row index
+   * @return the value, or {@code null}
+   */
+  public abstract Object getValue(int row);
+
+  /**
+   * Reads the value of the current row of a result set and appends it.
+   */
+  abstract void read(ResultSet rs, int columnIndex) throws SQLException;
+
+  /**
+   * Releases the unused capacity once all the rows were read.
+   */
+  abstract void trim();
+
+  void appendNull() {
+    nulls.set(size);
+  }
+
+  void checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+    }
+  }
+
+  static int newCapacity(int length) {
+    return length == 0 ? INITIAL_CAPACITY : length + (length >> 1) + 1;
+  }
+
+}
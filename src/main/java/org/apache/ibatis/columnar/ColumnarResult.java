@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a select read column by column: each column holds the values of all the rows, in primitive arrays for
+ * integer and floating point columns and dictionary encoded for character columns. No result object is created.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class ColumnarResult {
+
+  private final List<Column> columns;
+  private final List<String> columnNames;
+  private final int rowCount;
+
+  ColumnarResult(List<Column> columns, int rowCount) {
+    this.columns = Collections.unmodifiableList(columns);
+    List<String> names = new ArrayList<>(columns.size());
+    for (Column column : columns) {
+      names.add(column.getName());
+    }
+    this.columnNames = Collections.unmodifiableList(names);
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Gets the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the column labels, in the order of the result set.
+   *
+   * @return the column labels
+   */
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * Gets the columns, in the order of the result set.
+   *
+   * @return the columns
+   */
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets a column by position.
+   *
+   * @param index
+   *          the 0-based column index
+   * @return the column
+   */
+  public Column getColumn(int index) {
+    return columns.get(index);
+  }
+
+  /**
+   * Gets the first column with a label, ignoring case.
+   *
+   * @param name
+   *          the column label
+   * @return the column
+   * @throws IllegalArgumentException
+   *           if there is no such column
+   */
+  public Column getColumn(String name) {
+    for (Column column : columns) {
+      if (column.getName().equalsIgnoreCase(name)) {
+        return column;
+      }
+    }
+    throw new IllegalArgumentException("There is no column '" + name + "' in the result. Available columns are " + columnNames + ".");
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.CollectingResultHandler;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Collects the rows of a select into a {@link ColumnarResult}.
+ * <p>
+ * The {@link org.apache.ibatis.executor.resultset.DefaultResultSetHandler} passes the rows of the result sets to this
+ * handler instead of mapping them, the result maps of the statement are not used. The column types are chosen from
+ * the result set metadata; unsigned {@code INTEGER} columns are read into a {@link LongColumn}, and unsigned
+ * {@code BIGINT} columns into an {@link ObjectColumn}, so that their values do not overflow.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class ColumnarResultHandler implements CollectingResultHandler<Object> {
+
+  private List<Column> columns;
+  private int rowCount;
+
+  /**
+   * Prepares the columns of a result set. The result sets of a statement must all have the same columns.
+   *
+   * @param rsw
+   *          the result set
+   * @throws SQLException
+   *           if the result set metadata cannot be read
+   */
+  public void startResultSet(ResultSetWrapper rsw) throws SQLException {
+    List<String> columnNames = rsw.getColumnNames();
+    if (columns == null) {
+      List<JdbcType> jdbcTypes = rsw.getJdbcTypes();
+      ResultSetMetaData metaData = rsw.getResultSet().getMetaData();
+      columns = new ArrayList<>(columnNames.size());
+      for (int i = 0; i < columnNames.size(); i++) {
+        columns.add(createColumn(rsw, columnNames.get(i), jdbcTypes.get(i), metaData.isSigned(i + 1)));
+      }
+    } else if (!sameColumnNames(columnNames)) {
+      throw new ExecutorException("The result sets of a columnar result must have the same columns, but the columns "
+          + columnNames + " follow the columns " + new ColumnarResult(columns, rowCount).getColumnNames() + ".");
+    }
+  }
+
+  private Column createColumn(ResultSetWrapper rsw, String name, JdbcType jdbcType, boolean signed) {
+    if (jdbcType == null) {
+      return new ObjectColumn(name, null, rsw.getTypeHandler(Object.class, name));
+    }
+    switch (jdbcType) {
+      case TINYINT:
+      case SMALLINT:
+        return new IntColumn(name, jdbcType);
+      case INTEGER:
+        // an unsigned int does not fit in an int
+        return signed ? new IntColumn(name, jdbcType) : new LongColumn(name, jdbcType);
+      case BIGINT:
+        return signed ? new LongColumn(name, jdbcType) : new ObjectColumn(name, jdbcType, rsw.getTypeHandler(Object.class, name));
+      case REAL:
+      case FLOAT:
+      case DOUBLE:
+        return new DoubleColumn(name, jdbcType);
+      case CHAR:
+      case VARCHAR:
+      case LONGVARCHAR:
+      case NCHAR:
+      case NVARCHAR:
+      case LONGNVARCHAR:
+        return new StringColumn(name, jdbcType);
+      default:
+        return new ObjectColumn(name, jdbcType, rsw.getTypeHandler(Object.class, name));
+    }
+  }
+
+  private boolean sameColumnNames(List<String> columnNames) {
+    if (columnNames.size() != columns.size()) {
+      return false;
+    }
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (!columnNames.get(i).equalsIgnoreCase(columns.get(i).getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the current row of the result set.
+   *
+   * @param rs
+   *          the result set, positioned on a row
+   * @throws SQLException
+   *           if a column cannot be read
+   */
+  public void handleRow(ResultSet rs) throws SQLException {
+    for (int i = 0; i < columns.size(); i++) {
+      columns.get(i).read(rs, i + 1);
+    }
+    rowCount++;
+  }
+
+  @Override
+  public void handleResult(ResultContext<?> resultContext) {
+    throw new ExecutorException("A columnar result is read from the result sets directly and cannot collect mapped rows,"
+        + " e.g. the rows of a statement that is split in chunks.");
+  }
+
+  /**
+   * Gets the collected result.
+   *
+   * @return the result, without columns if the statement returned no result set
+   */
+  public ColumnarResult getResult() {
+    if (columns == null) {
+      return new ColumnarResult(new ArrayList<>(), 0);
+    }
+    for (Column column : columns) {
+      column.trim();
+    }
+    return new ColumnarResult(columns, rowCount);
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * A column read into an {@code int[]}. The value of a {@code null} row is {@code 0}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class IntColumn extends Column {
+
+  private int[] values = new int[0];
+
+  IntColumn(String name, JdbcType jdbcType) {
+    super(name, jdbcType);
+  }
+
+  /**
+   * Gets the value of a row.
+   *
+   * @param row
+   *          the 0-based row index
+   * @return the value, {@code 0} if it is {@code null}
+   */
+  public int getInt(int row) {
+    checkRow(row);
+    return values[row];
+  }
+
+  /**
+   * Gets the values of all the rows. The array is the storage of the column, it must not be modified.
+   *
+   * @return the values
+   */
+  public int[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getValue(int row) {
+    return isNull(row) ? null : values[row];
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex) throws SQLException {
+    int value = rs.getInt(columnIndex);
+    if (value == 0 && rs.wasNull()) {
+      appendNull();
+    }
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  void trim() {
+    if (values.length != size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A column of another type, read by the type handler a {@code Map} result would use for it.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class ObjectColumn extends Column {
+
+  private final TypeHandler<?> typeHandler;
+  private Object[] values = new Object[0];
+
+  ObjectColumn(String name, JdbcType jdbcType, TypeHandler<?> typeHandler) {
+    super(name, jdbcType);
+    this.typeHandler = typeHandler;
+  }
+
+  /**
+   * Gets the values of all the rows. The array is the storage of the column, it must not be modified.
+   *
+   * @return the values
+   */
+  public Object[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getValue(int row) {
+    checkRow(row);
+    return values[row];
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex) throws SQLException {
+    Object value = typeHandler.getResult(rs, columnIndex);
+    if (value == null) {
+      appendNull();
+    }
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  void trim() {
+    if (values.length != size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * A character column, dictionary encoded: each distinct value is stored once, and each row holds the code of its
+ * value. The code of a {@code null} row is {@code -1}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class StringColumn extends Column {
+
+  private int[] codes = new int[0];
+  private List<String> dictionary = new ArrayList<>();
+  private Map<String, Integer> codesByValue = new HashMap<>();
+
+  StringColumn(String name, JdbcType jdbcType) {
+    super(name, jdbcType);
+  }
+
+  /**
+   * Gets the value of a row.
+   *
+   * @param row
+   *          the 0-based row index
+   * @return the value, or {@code null}
+   */
+  public String getString(int row) {
+    int code = getCode(row);
+    return code < 0 ? null : dictionary.get(code);
+  }
+
+  /**
+   * Gets the code of the value of a row, i.e. its index in the {@link #getDictionary() dictionary}.
+   *
+   * @param row
+   *          the 0-based row index
+   * @return the code, or {@code -1} if the value is {@code null}
+   */
+  public int getCode(int row) {
+    checkRow(row);
+    return codes[row];
+  }
+
+  /**
+   * Gets the codes of all the rows. The array is the storage of the column, it must not be modified.
+   *
+   * @return the codes
+   */
+  public int[] getCodes() {
+    return codes;
+  }
+
+  /**
+   * Gets the distinct values of the column, in the order they were read.
+   *
+   * @return the distinct values
+   */
+  public List<String> getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public Object getValue(int row) {
+    return getString(row);
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex) throws SQLException {
+    String value = rs.getString(columnIndex);
+    int code;
+    if (value == null) {
+      appendNull();
+      code = -1;
+    } else {
+      Integer existingCode = codesByValue.get(value);
+      if (existingCode == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        codesByValue.put(value, code);
+      } else {
+        code = existingCode;
+      }
+    }
+    if (size == codes.length) {
+      codes = Arrays.copyOf(codes, newCapacity(codes.length));
+    }
+    codes[size++] = code;
+  }
+
+  @Override
+  void trim() {
+    if (codes.length != size) {
+      codes = Arrays.copyOf(codes, size);
+    }
+    dictionary = Collections.unmodifiableList(new ArrayList<>(dictionary));
+    codesByValue = null;
+  }
+
+}
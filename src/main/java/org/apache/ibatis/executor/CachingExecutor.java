@@ -20,12 +20,14 @@ import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.TableVersions;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.ResultHandler;
@@ -98,13 +100,22 @@ public class CachingExecutor implements Executor {
       flushCacheIfRequired(ms);
       if (ms.isUseCache() && resultHandler == null) {
         ensureNoOutParams(ms, boundSql);
-        @SuppressWarnings("unchecked")
-        List<E> list = (List<E>) tcm.getObject(cache, key);
-        if (list == null) {
-          list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
-          tcm.putObject(cache, key, list); // issue #578 and #116
+        TableVersions tableVersions = ms.getConfiguration().getTableVersions();
+        // the versions are held by this JVM, so the entries of a cache that may be shared with other JVMs are not
+        // versioned, and are only cleared with their cache
+        boolean versioned = tableVersions.isLocalCache(cache);
+        Object[] dependencies = ms.getTables() != null ? ms.getTables() : new Object[] { cache };
+        // the entries that depend on uncommitted writes of this session are not cached
+        if (!versioned || !tcm.isInvalidated(dependencies)) {
+          CacheKey cacheKey = versioned ? tableVersions.versionedKey(key, dependencies) : key;
+          @SuppressWarnings("unchecked")
+          List<E> list = (List<E>) tcm.getObject(cache, cacheKey);
+          if (list == null) {
+            list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+            tcm.putObject(cache, cacheKey, list); // issue #578 and #116
+          }
+          return list;
         }
-        return list;
       }
     }
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
@@ -164,7 +175,22 @@ public class CachingExecutor implements Executor {
 
   private void flushCacheIfRequired(MappedStatement ms) {
     Cache cache = ms.getCache();
-    if (cache != null && ms.isFlushCacheRequired()) {
+    if (!ms.isFlushCacheRequired()) {
+      return;
+    }
+    if (ms.getTables() != null && ms.getSqlCommandType() != SqlCommandType.SELECT) {
+      // a write that knows its tables invalidates the entries that depend on them, in every local cache, and only the
+      // entries of its own cache whose tables are unknown; its own cache is cleared if it may be shared with other JVMs
+      TableVersions tableVersions = ms.getConfiguration().getTableVersions();
+      tcm.invalidate(tableVersions, (Object[]) ms.getTables());
+      if (cache != null) {
+        if (tableVersions.isLocalCache(cache)) {
+          tcm.invalidate(tableVersions, cache);
+        } else {
+          tcm.clear(cache);
+        }
+      }
+    } else if (cache != null) {
       tcm.clear(cache);
     }
   }
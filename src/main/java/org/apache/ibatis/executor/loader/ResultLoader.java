@@ -30,6 +30,7 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.TransactionFactory;
@@ -74,16 +75,47 @@ public class ResultLoader {
   }
 
   private <E> List<E> selectList() throws SQLException {
-    Executor localExecutor = executor;
-    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
-    }
+    Executor localExecutor = getLocalExecutor();
     try {
       return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
-      if (localExecutor != executor) {
-        localExecutor.close(false);
-      }
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  /**
+   * Executes the statement of this loader with another parameter, e.g. to load the results of several loaders at once.
+   *
+   * @param <E>
+   *          the element type
+   * @param parameterObject
+   *          the parameter object
+   * @param resultHandler
+   *          the result handler, or {@link Executor#NO_RESULT_HANDLER}
+   * @return the results
+   * @throws SQLException
+   *           if the statement fails
+   * @since 3.5.8
+   */
+  protected <E> List<E> selectList(Object parameterObject, ResultHandler resultHandler) throws SQLException {
+    Executor localExecutor = getLocalExecutor();
+    try {
+      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, resultHandler);
+    } finally {
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  private Executor getLocalExecutor() {
+    if (Thread.currentThread().getId() != this.creatorThreadId || executor.isClosed()) {
+      return newExecutor();
+    }
+    return executor;
+  }
+
+  private void closeLocalExecutor(Executor localExecutor) {
+    if (localExecutor != executor) {
+      localExecutor.close(false);
     }
   }
 
@@ -0,0 +1,30 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * A result handler MyBatis uses to collect the results of a select into a container (a list, a map, an array...).
+ * The rows of a nested result map are merged before their result objects are handled, as when the results are
+ * returned as a list, while the other handlers may have the result objects streamed to them.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public interface CollectingResultHandler<T> extends ResultHandler<T> {
+
+}
@@ -22,13 +22,12 @@ import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.session.ResultContext;
-import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 翻译：https://github.com/g1335333249/mybatis-3
  * @author Clinton Begin
  */
-public class DefaultMapResultHandler<K, V> implements ResultHandler<V> {
+public class DefaultMapResultHandler<K, V> implements CollectingResultHandler<V> {
 
   private final Map<K, V> mappedResults;
   private final String mapKey;
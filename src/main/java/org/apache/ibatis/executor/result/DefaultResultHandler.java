@@ -20,13 +20,12 @@ import java.util.List;
 
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.ResultContext;
-import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 翻译：https://github.com/g1335333249/mybatis-3
  * @author Clinton Begin
  */
-public class DefaultResultHandler implements ResultHandler<Object> {
+public class DefaultResultHandler implements CollectingResultHandler<Object> {
 
   private final List<Object> list;
 
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+
+/**
+ * Collects single column results into an {@code int[]}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class IntArrayResultHandler extends PrimitiveArrayResultHandler<int[]> {
+
+  private int[] values = new int[0];
+
+  public IntArrayResultHandler() {
+    super(int.class, Integer.class, IntegerTypeHandler.class);
+  }
+
+  @Override
+  public void handleRow(ResultSet rs) throws SQLException {
+    int value = rs.getInt(1);
+    if (value == 0 && rs.wasNull()) {
+      throw nullValue();
+    }
+    add(value);
+  }
+
+  @Override
+  protected void add(Object value) {
+    if (!(value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+      throw typeMismatch(value);
+    }
+    add(((Number) value).intValue());
+  }
+
+  private void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  public int[] getResults() {
+    return Arrays.copyOf(values, size);
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.LongTypeHandler;
+
+/**
+ * Collects single column results into an {@code long[]}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class LongArrayResultHandler extends PrimitiveArrayResultHandler<long[]> {
+
+  private long[] values = new long[0];
+
+  public LongArrayResultHandler() {
+    super(long.class, Long.class, LongTypeHandler.class);
+  }
+
+  @Override
+  public void handleRow(ResultSet rs) throws SQLException {
+    long value = rs.getLong(1);
+    if (value == 0 && rs.wasNull()) {
+      throw nullValue();
+    }
+    add(value);
+  }
+
+  @Override
+  protected void add(Object value) {
+    if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+      throw typeMismatch(value);
+    }
+    add(((Number) value).longValue());
+  }
+
+  private void add(long value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  public long[] getResults() {
+    return Arrays.copyOf(values, size);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Collects single column results into a growable primitive array, without boxing them into a list.
+ * <p>
+ * When the statement maps the first column to the wrapper type of the array with the built-in type handler, the
+ * {@link org.apache.ibatis.executor.resultset.DefaultResultSetHandler} lets the result handler read the column with
+ * the primitive getter of the result set ({@link #handleRow(ResultSet)}). Otherwise the rows are mapped as usual and
+ * the mapped values are unboxed ({@link #handleResult(ResultContext)}). A {@code null} value cannot be collected.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @param <A>
+ *          the array type
+ * @since 3.5.8
+ */
+public abstract class PrimitiveArrayResultHandler<A> implements CollectingResultHandler<Object> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Class<?> componentType;
+  private final Class<?> wrapperType;
+  private final Class<? extends TypeHandler<?>> typeHandlerType;
+  protected int size;
+
+  protected PrimitiveArrayResultHandler(Class<?> componentType, Class<?> wrapperType,
+      Class<? extends TypeHandler<?>> typeHandlerType) {
+    this.componentType = componentType;
+    this.wrapperType = wrapperType;
+    this.typeHandlerType = typeHandlerType;
+  }
+
+  /**
+   * Returns whether the rows can be read with {@link #handleRow(ResultSet)}.
+   *
+   * @param resultType
+   *          the result type of the statement
+   * @param typeHandler
+   *          the type handler of the first column
+   * @return {@code true} if the result type is the array component type or its wrapper, read by the built-in type
+   *         handler
+   */
+  public boolean isReadableByRow(Class<?> resultType, TypeHandler<?> typeHandler) {
+    return (resultType == componentType || resultType == wrapperType) && typeHandler != null
+        && typeHandler.getClass() == typeHandlerType;
+  }
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    Object value = context.getResultObject();
+    if (value == null) {
+      throw nullValue();
+    }
+    add(value);
+  }
+
+  /**
+   * Collects the first column of the current row.
+   *
+   * @param rs
+   *          the result set, positioned on a row
+   * @throws SQLException
+   *           if the column cannot be read
+   */
+  public abstract void handleRow(ResultSet rs) throws SQLException;
+
+  /**
+   * Gets the collected values.
+   *
+   * @return an array of the collected values
+   */
+  public abstract A getResults();
+
+  /**
+   * Adds a mapped value.
+   *
+   * @param value
+   *          the value, not {@code null}
+   */
+  protected abstract void add(Object value);
+
+  protected int newCapacity(int length) {
+    return length == 0 ? INITIAL_CAPACITY : length + (length >> 1) + 1;
+  }
+
+  protected ExecutorException nullValue() {
+    return new ExecutorException("A null value cannot be collected into the " + componentType.getName() + "[] result.");
+  }
+
+  protected ExecutorException typeMismatch(Object value) {
+    return new ExecutorException("A value of type " + value.getClass().getName() + " cannot be collected into the "
+        + componentType.getName() + "[] result.");
+  }
+
+}
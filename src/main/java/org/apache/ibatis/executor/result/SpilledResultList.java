@@ -0,0 +1,222 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.io.SerialFilterChecker;
+
+/**
+ * A read-only list of results that keeps at most a page of rows in heap while it is filled, and spills the full pages
+ * to a temporary file. The rows of a page are written with Java serialization, so they must be {@link java.io.Serializable}.
+ * <p>
+ * The rows are read back one page at a time: {@link #get(int)} and the iterators load the page of the row and keep it
+ * until a row of another page is read, so a spilled row is a new instance each time its page is loaded. The list is not
+ * thread-safe, and its file is deleted when it is {@link #close() closed}. A list that spilled rows is also closed with
+ * the session that returned it, so its rows must be read before the session is closed.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class SpilledResultList<E> extends AbstractList<E> implements RandomAccess, Closeable {
+
+  private final int pageSize;
+  private List<E> lastPage;
+  // the file offset of each spilled page, followed by the end of the last one
+  private long[] pageOffsets = new long[16];
+  private int spilledPages;
+  private int size;
+  private File file;
+  private RandomAccessFile data;
+  private int loadedPageIndex = -1;
+  private List<E> loadedPage;
+  private boolean closed;
+
+  /**
+   * Creates an empty list.
+   *
+   * @param pageSize
+   *          the number of rows kept in heap, the rows are spilled by pages of this size
+   */
+  public SpilledResultList(int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("The page size must be positive, but was " + pageSize + ".");
+    }
+    this.pageSize = pageSize;
+    this.lastPage = new ArrayList<>();
+  }
+
+  void addRow(E row) {
+    checkOpen();
+    if (lastPage.size() == pageSize) {
+      spill();
+    }
+    lastPage.add(row);
+    size++;
+  }
+
+  private void spill() {
+    try {
+      if (data == null) {
+        file = File.createTempFile("mybatis-results-", ".ser");
+        data = new RandomAccessFile(file, "rw");
+      }
+      FileChannel channel = data.getChannel();
+      channel.position(pageOffsets[spilledPages]);
+      // the streams are not closed, they would close the file
+      BufferedOutputStream buffer = new BufferedOutputStream(Channels.newOutputStream(channel));
+      ObjectOutputStream out = new ObjectOutputStream(buffer);
+      out.writeObject(lastPage);
+      out.flush();
+      if (spilledPages + 2 > pageOffsets.length) {
+        pageOffsets = Arrays.copyOf(pageOffsets, pageOffsets.length * 2);
+      }
+      pageOffsets[++spilledPages] = channel.position();
+      lastPage = new ArrayList<>(pageSize);
+    } catch (NotSerializableException e) {
+      close();
+      throw new ExecutorException("Error spilling results. The results must be Serializable. Cause: " + e, e);
+    } catch (IOException e) {
+      close();
+      throw new ExecutorException("Error spilling results to " + file + ". Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return getPage(index / pageSize).get(index % pageSize);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of rows of a page.
+   *
+   * @return the page size
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Gets the number of pages, the last one may hold less rows than the page size.
+   *
+   * @return the page count
+   */
+  public int getPageCount() {
+    return size == 0 ? 0 : spilledPages + 1;
+  }
+
+  /**
+   * Gets the rows of a page. A spilled page is read from the file unless it is the last page read.
+   *
+   * @param page
+   *          the index of the page
+   * @return the rows of the page
+   */
+  public List<E> getPage(int page) {
+    checkOpen();
+    if (page < 0 || page >= getPageCount()) {
+      throw new IndexOutOfBoundsException("Page: " + page + ", Page count: " + getPageCount());
+    }
+    if (page == spilledPages) {
+      return Collections.unmodifiableList(lastPage);
+    }
+    if (page != loadedPageIndex) {
+      // the previous page is released before the next one is read
+      loadedPage = null;
+      loadedPage = Collections.unmodifiableList(load(page));
+      loadedPageIndex = page;
+    }
+    return loadedPage;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<E> load(int page) {
+    SerialFilterChecker.check();
+    try {
+      FileChannel channel = data.getChannel();
+      channel.position(pageOffsets[page]);
+      ObjectInputStream in = new CustomObjectInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      return (List<E>) in.readObject();
+    } catch (IOException | ClassNotFoundException e) {
+      throw new ExecutorException("Error reading spilled results from " + file + ". Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Returns whether rows have been spilled to a file.
+   *
+   * @return {@code true} if rows have been spilled
+   */
+  public boolean isSpilled() {
+    return spilledPages > 0;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new ExecutorException("The result list is closed.");
+    }
+  }
+
+  /**
+   * Releases the rows and deletes the file of the spilled rows.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    lastPage = null;
+    loadedPage = null;
+    if (data != null) {
+      try {
+        data.close();
+      } catch (IOException e) {
+        // ignore, the file is deleted anyway
+      }
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+}
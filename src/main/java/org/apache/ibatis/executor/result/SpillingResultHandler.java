@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import org.apache.ibatis.session.ResultContext;
+
+/**
+ * Collects the results of a select into a {@link SpilledResultList}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class SpillingResultHandler implements CollectingResultHandler<Object> {
+
+  private final SpilledResultList<Object> list;
+
+  /**
+   * @param spillThreshold
+   *          the number of rows kept in heap
+   */
+  public SpillingResultHandler(int spillThreshold) {
+    list = new SpilledResultList<>(spillThreshold);
+  }
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    list.addRow(context.getResultObject());
+  }
+
+  public SpilledResultList<Object> getResultList() {
+    return list;
+  }
+
+}
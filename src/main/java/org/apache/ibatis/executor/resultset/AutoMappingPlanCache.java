@@ -0,0 +1,89 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler.UnMappedColumnAutoMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * The automatic mappings resolved by the executions of a mapped statement. A plan is reused by the result sets with
+ * the same column labels, JDBC types and column class names, so that the columns are not matched against the
+ * properties of the result type again.
+ * <p>
+ * The cache holds up to {@value #MAX_PLANS} plans; the plans of further column signatures are not cached.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public final class AutoMappingPlanCache {
+
+  private static final int MAX_PLANS = 256;
+
+  private final ConcurrentMap<CacheKey, List<UnMappedColumnAutoMapping>> plans = new ConcurrentHashMap<>();
+
+  List<UnMappedColumnAutoMapping> get(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) {
+    return plans.get(createKey(rsw, resultMap, columnPrefix));
+  }
+
+  void put(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, List<UnMappedColumnAutoMapping> plan) {
+    if (plans.size() < MAX_PLANS) {
+      plans.putIfAbsent(createKey(rsw, resultMap, columnPrefix), plan);
+    }
+  }
+
+  private CacheKey createKey(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) {
+    CacheKey key = new CacheKey();
+    key.update(resultMap.getId());
+    key.update(columnPrefix);
+    // the column indexes of a plan are resolved against the column labels
+    key.update(rsw.isColumnLabels());
+    // the type handlers depend on the JDBC types and classes of the columns, not only on their labels
+    List<String> columnNames = rsw.getColumnNames();
+    List<JdbcType> jdbcTypes = rsw.getJdbcTypes();
+    List<String> classNames = rsw.getClassNames();
+    for (int i = 0; i < columnNames.size(); i++) {
+      key.update(columnNames.get(i));
+      key.update(jdbcTypes.get(i));
+      key.update(classNames.get(i));
+    }
+    return key;
+  }
+
+  /**
+   * Returns the number of cached plans.
+   *
+   * @return the number of cached plans
+   */
+  public int size() {
+    return plans.size();
+  }
+
+  /**
+   * Removes all the cached plans. It is called when type handlers are registered.
+   *
+   * @see org.apache.ibatis.session.Configuration#clearAutoMappingPlans()
+   */
+  public void clear() {
+    plans.clear();
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The constructor of the result objects of a result map, with the type handlers and columns of its arguments, resolved
+ * for a result set. The result objects are created through a {@link MethodHandle}, like the
+ * {@link org.apache.ibatis.reflection.factory.DefaultObjectFactory} would create them with the same arguments.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class ConstructorBinding {
+
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+  private static final MethodType creatorType = MethodType.methodType(Object.class, Object[].class);
+
+  private final ResultSetWrapper rsw;
+  private final Class<?> type;
+  private final Class<?>[] parameterTypes;
+  private final TypeHandler<?>[] typeHandlers;
+  private final String[] columns;
+  private final int[] columnIndexes;
+  private final ResultMapping[] mappings;
+  private final MethodHandle creator;
+
+  private ConstructorBinding(ResultSetWrapper rsw, Class<?> type, Class<?>[] parameterTypes, TypeHandler<?>[] typeHandlers,
+      String[] columns, int[] columnIndexes, ResultMapping[] mappings, MethodHandle creator) {
+    this.rsw = rsw;
+    this.type = type;
+    this.parameterTypes = parameterTypes;
+    this.typeHandlers = typeHandlers;
+    this.columns = columns;
+    this.columnIndexes = columnIndexes;
+    this.mappings = mappings;
+    this.creator = creator;
+  }
+
+  /**
+   * Returns a binding which is not bound, the result objects are created by the object factory.
+   */
+  static ConstructorBinding unbound(ResultSetWrapper rsw) {
+    return new ConstructorBinding(rsw, null, null, null, null, null, null, null);
+  }
+
+  /**
+   * Binds a constructor.
+   *
+   * @param mappings
+   *          the constructor mappings of the arguments, or {@code null} if the arguments are mapped automatically
+   * @param columnIndexAccess
+   *          whether the columns are read by index
+   * @return the binding, which is not bound if the constructor cannot be accessed through a method handle
+   */
+  static ConstructorBinding bind(ResultSetWrapper rsw, Constructor<?> constructor, TypeHandler<?>[] typeHandlers,
+      String[] columns, ResultMapping[] mappings, boolean columnIndexAccess) {
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+    if (parameterTypes.length == 0) {
+      return unbound(rsw);
+    }
+    MethodHandle creator;
+    try {
+      creator = unreflectConstructor(constructor);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return unbound(rsw);
+    }
+    creator = creator.asSpreader(Object[].class, parameterTypes.length).asType(creatorType);
+    int[] columnIndexes = new int[columns.length];
+    if (columnIndexAccess) {
+      for (int i = 0; i < columns.length; i++) {
+        columnIndexes[i] = rsw.getColumnIndex(columns[i]);
+      }
+    }
+    return new ConstructorBinding(rsw, constructor.getDeclaringClass(), parameterTypes, typeHandlers, columns,
+        columnIndexes, mappings, creator);
+  }
+
+  private static MethodHandle unreflectConstructor(Constructor<?> constructor) throws IllegalAccessException {
+    try {
+      return lookup.unreflectConstructor(constructor);
+    } catch (IllegalAccessException e) {
+      if (!Reflector.canControlMemberAccessible()) {
+        throw e;
+      }
+      constructor.setAccessible(true);
+      return lookup.unreflectConstructor(constructor);
+    }
+  }
+
+  boolean isFor(ResultSetWrapper rsw) {
+    return this.rsw == rsw;
+  }
+
+  boolean isBound() {
+    return creator != null;
+  }
+
+  /**
+   * Creates the result object of the current row.
+   *
+   * @return the result object, or {@code null} if no argument has a value
+   */
+  @UsesJava7
+  Object newInstance() throws SQLException {
+    ResultSet rs = rsw.getResultSet();
+    Object[] args = new Object[typeHandlers.length];
+    boolean foundValues = false;
+    for (int i = 0; i < args.length; i++) {
+      try {
+        args[i] = columnIndexes[i] > 0 ? typeHandlers[i].getResult(rs, columnIndexes[i]) : typeHandlers[i].getResult(rs, columns[i]);
+      } catch (ResultMapException | SQLException e) {
+        if (mappings == null) {
+          throw e;
+        }
+        throw new ExecutorException("Could not process result for mapping: " + mappings[i], e);
+      }
+      foundValues = args[i] != null || foundValues;
+    }
+    if (!foundValues) {
+      return null;
+    }
+    try {
+      return (Object) creator.invokeExact(args);
+    } catch (Throwable t) {
+      String argTypes = Arrays.stream(parameterTypes).map(Class::getSimpleName).collect(Collectors.joining(","));
+      String argValues = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(","));
+      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + t, t);
+    }
+  }
+
+}
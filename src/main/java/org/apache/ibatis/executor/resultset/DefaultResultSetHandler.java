@@ -16,21 +16,26 @@
 package org.apache.ibatis.executor.resultset;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.columnar.ColumnarResultHandler;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
@@ -39,8 +44,10 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.CollectingResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
+import org.apache.ibatis.executor.result.PrimitiveArrayResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
@@ -51,7 +58,9 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
@@ -86,7 +95,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final Map<Object, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -96,6 +105,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  // the result set the cached automappings resolved their column indexes against
+  private ResultSetWrapper autoMappingsResultSet;
+  private final Map<ResultMap, Map<String, PropertyMappingPlan>> propertyMappingPlans = new IdentityHashMap<>();
+  private final Map<String, GeneratedRowMapperEntry> generatedRowMappers = new HashMap<>();
+
+  // batch fetched nested queries, only while the results are collected before they are returned
+  private Map<ResultMapping, NestedQueryBatch> nestedQueryBatches;
+  private final Map<ResultMapping, LazyNestedQueryBatch> lazyNestedQueryBatches = new IdentityHashMap<>();
+  private final Map<ResultMap, Map<String, Optional<RowKey.Plan>>> rowKeyPlans = new IdentityHashMap<>();
+  private final Map<ResultMap, Map<String, ConstructorBinding>> constructorBindings = new IdentityHashMap<>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
@@ -105,20 +124,50 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
+  static class UnMappedColumnAutoMapping {
     private final String column;
+    private final int columnIndex;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
     }
   }
 
+  /**
+   * The columns the property mappings of a result map read from a result set, resolved once per result set.
+   */
+  private static class PropertyMappingPlan {
+    private final ResultSetWrapper rsw;
+    // per property mapping, whether it is applied, and the column it reads and its index (0 to read it by label)
+    private final boolean[] applied;
+    private final String[] columns;
+    private final int[] columnIndexes;
+
+    PropertyMappingPlan(ResultSetWrapper rsw, int size) {
+      this.rsw = rsw;
+      this.applied = new boolean[size];
+      this.columns = new String[size];
+      this.columnIndexes = new int[size];
+    }
+  }
+
+  private static class GeneratedRowMapperEntry {
+    private final ResultSetWrapper rsw;
+    private final GeneratedRowMapper rowMapper;
+
+    GeneratedRowMapperEntry(ResultSetWrapper rsw, GeneratedRowMapper rowMapper) {
+      this.rsw = rsw;
+      this.rowMapper = rowMapper;
+    }
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -184,6 +233,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    if (resultHandler == null || resultHandler instanceof NestedQueryBatch.ResultCollector) {
+      nestedQueryBatches = new IdentityHashMap<>();
+    }
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -214,6 +266,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadNestedQueryBatches();
     return collapseSingleResultList(multipleResults);
   }
 
@@ -302,6 +355,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           multipleResults.add(defaultResultHandler.getResultList());
+        } else if (resultHandler instanceof NestedQueryBatch.ResultCollector) {
+          NestedQueryBatch.ResultCollector collector = (NestedQueryBatch.ResultCollector) resultHandler;
+          collector.startResultSet(objectFactory);
+          handleRowValues(rsw, resultMap, collector, rowBounds, null);
+          multipleResults.add(collector.getResultList());
+        } else if (resultHandler instanceof ColumnarResultHandler) {
+          handleColumnarRowValues(rsw, (ColumnarResultHandler) resultHandler, rowBounds);
+        } else if (resultHandler instanceof PrimitiveArrayResultHandler && isReadableByRow(rsw, resultMap, (PrimitiveArrayResultHandler<?>) resultHandler)) {
+          handlePrimitiveRowValues(rsw, (PrimitiveArrayResultHandler<?>) resultHandler, rowBounds);
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
@@ -312,6 +374,36 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private boolean isReadableByRow(ResultSetWrapper rsw, ResultMap resultMap, PrimitiveArrayResultHandler<?> resultHandler) {
+    if (!resultMap.getResultMappings().isEmpty() || resultMap.getDiscriminator() != null || rsw.getColumnNames().isEmpty()) {
+      return false;
+    }
+    // the type handler that would map the first column, see createPrimitiveResultObject
+    TypeHandler<?> typeHandler = rsw.getTypeHandler(resultMap.getType(), rsw.getColumnNames().get(0));
+    return resultHandler.isReadableByRow(resultMap.getType(), typeHandler);
+  }
+
+  private void handlePrimitiveRowValues(ResultSetWrapper rsw, PrimitiveArrayResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    ResultSet resultSet = rsw.getResultSet();
+    skipRows(resultSet, rowBounds);
+    int rowCount = 0;
+    while (rowCount < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      resultHandler.handleRow(resultSet);
+      rowCount++;
+    }
+  }
+
+  private void handleColumnarRowValues(ResultSetWrapper rsw, ColumnarResultHandler resultHandler, RowBounds rowBounds) throws SQLException {
+    ResultSet resultSet = rsw.getResultSet();
+    resultHandler.startResultSet(rsw);
+    skipRows(resultSet, rowBounds);
+    int rowCount = 0;
+    while (rowCount < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      resultHandler.handleRow(resultSet);
+      rowCount++;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -339,7 +431,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   protected void checkResultHandler() {
-    if (resultHandler != null && configuration.isSafeResultHandlerEnabled() && !mappedStatement.isResultOrdered()) {
+    if (resultHandler != null && !(resultHandler instanceof NestedQueryBatch.ResultCollector)
+        && configuration.isSafeResultHandlerEnabled() && !isResultOrdered(resultHandler)) {
       throw new ExecutorException("Mapped Statements with nested result mappings cannot be safely used with a custom ResultHandler. "
           + "Use safeResultHandlerEnabled=false setting to bypass this check "
           + "or ensure your statement returns ordered data and set resultOrdered=true on it.");
@@ -354,6 +447,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      startResultObject(resultHandler, resultSet);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
@@ -366,6 +460,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private void startResultObject(ResultHandler<?> resultHandler, ResultSet rs) throws SQLException {
+    if (resultHandler instanceof NestedQueryBatch.ResultCollector) {
+      ((NestedQueryBatch.ResultCollector) resultHandler).startResultObject(rs);
+    }
+  }
+
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
     resultContext.nextResultObject(rowValue);
@@ -395,6 +495,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (columnPrefix == null && configuration.isRowMapperGenerationEnabled()) {
+      GeneratedRowMapper rowMapper = getGeneratedRowMapper(rsw, resultMap);
+      if (rowMapper != null) {
+        return rowMapper.map(rsw.getResultSet());
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -410,11 +516,44 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  private GeneratedRowMapper getGeneratedRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    GeneratedRowMapperEntry entry = generatedRowMappers.get(resultMap.getId());
+    if (entry != null && entry.rsw == rsw) {
+      return entry.rowMapper;
+    }
+    GeneratedRowMapper rowMapper = null;
+    if (RowMapperGenerator.isGeneratable(configuration, resultMap)) {
+      List<RowMapperGenerator.Mapping> mappings = new ArrayList<>();
+      if (shouldApplyAutomaticMappings(resultMap, false)) {
+        List<UnMappedColumnAutoMapping> autoMapping = autoMappingsResultSet == rsw
+            ? autoMappingsCache.get(resultMap.getId() + ":" + null) : null;
+        if (autoMapping == null) {
+          // the automatic mappings are resolved while the first row is mapped reflectively
+          return null;
+        }
+        for (UnMappedColumnAutoMapping mapping : autoMapping) {
+          mappings.add(new RowMapperGenerator.Mapping(mapping.column, mapping.property, mapping.typeHandler));
+        }
+      }
+      final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+      for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+        String column = propertyMapping.getColumn();
+        if (propertyMapping.getProperty() != null && column != null
+            && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          mappings.add(new RowMapperGenerator.Mapping(column, propertyMapping.getProperty(), propertyMapping.getTypeHandler()));
+        }
+      }
+      rowMapper = RowMapperGenerator.create(configuration, rsw, resultMap.getType(), mappings);
+    }
+    generatedRowMappers.put(resultMap.getId(), new GeneratedRowMapperEntry(rsw, rowMapper));
+    return rowMapper;
+  }
+
   //
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, Object combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
@@ -467,19 +606,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    final PropertyMappingPlan plan = getPropertyMappingPlan(rsw, resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
-      if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
-          || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      if (plan.applied[i]) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix,
+            plan.columns[i], plan.columnIndexes[i]);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -500,24 +634,76 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private PropertyMappingPlan getPropertyMappingPlan(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Map<String, PropertyMappingPlan> plans = MapUtil.computeIfAbsent(propertyMappingPlans, resultMap, k -> new HashMap<>());
+    PropertyMappingPlan plan = plans.get(columnPrefix);
+    if (plan != null && plan.rsw == rsw) {
+      return plan;
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+    plan = new PropertyMappingPlan(rsw, propertyMappings.size());
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      if (propertyMapping.getNestedResultMapId() != null) {
+        // the user added a column attribute to a nested result map, ignore it
+        column = null;
+      }
+      plan.applied[i] = propertyMapping.isCompositeResult()
+          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || propertyMapping.getResultSet() != null;
+      plan.columns[i] = column;
+      plan.columnIndexes[i] = column == null ? 0 : rsw.getColumnIndex(column);
+    }
+    plans.put(columnPrefix, plan);
+    return plan;
+  }
+
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+      String column, int columnIndex) throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
       addPendingChildRelation(rs, metaResultObject, propertyMapping);   // TODO is that OK?
       return DEFERRED;
     } else {
-      final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
-      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rsw, propertyMapping.getTypeHandler(), column, columnIndex);
     }
   }
 
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column) throws SQLException {
+    return getColumnValue(rsw, typeHandler, column, configuration.isColumnIndexAccessEnabled() ? rsw.getColumnIndex(column) : 0);
+  }
+
+  /**
+   * Reads a column by its index when it is resolved and the column index access is enabled, by its label otherwise.
+   */
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column, int columnIndex) throws SQLException {
+    if (columnIndex > 0 && configuration.isColumnIndexAccessEnabled()) {
+      return typeHandler.getResult(rsw.getResultSet(), columnIndex);
+    }
+    return typeHandler.getResult(rsw.getResultSet(), column);
+  }
+
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    if (autoMappingsResultSet != rsw) {
+      // the column indexes of the automappings are only valid for the result set they were resolved against
+      autoMappingsCache.clear();
+      autoMappingsResultSet = rsw;
+    }
     final String mapKey = resultMap.getId() + ":" + columnPrefix;
     List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
     if (autoMapping == null) {
+      AutoMappingPlanCache planCache = configuration.isAutoMappingPlanCacheEnabled() ? mappedStatement.getAutoMappingPlanCache() : null;
+      if (planCache != null) {
+        autoMapping = planCache.get(rsw, resultMap, columnPrefix);
+        if (autoMapping != null) {
+          autoMappingsCache.put(mapKey, autoMapping);
+          return autoMapping;
+        }
+      }
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
       for (String columnName : unmappedColumnNames) {
@@ -539,7 +725,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler,
+                propertyType.isPrimitive()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -550,6 +737,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       autoMappingsCache.put(mapKey, autoMapping);
+      if (planCache != null) {
+        planCache.put(rsw, resultMap, columnPrefix, autoMapping);
+      }
     }
     return autoMapping;
   }
@@ -559,7 +749,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(rsw, mapping.typeHandler, mapping.column, mapping.columnIndex);
         if (value != null) {
           foundValues = true;
         }
@@ -627,6 +817,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
     this.useConstructorMappings = false; // reset previous mapping result
+    if (configuration.isConstructorBindingEnabled()) {
+      final ConstructorBinding constructorBinding = getConstructorBinding(rsw, resultMap, columnPrefix);
+      if (constructorBinding != null) {
+        final Object resultObject = constructorBinding.newInstance();
+        this.useConstructorMappings = resultObject != null; // set current mapping result
+        return resultObject;
+      }
+    }
     final List<Class<?>> constructorArgTypes = new ArrayList<>();
     final List<Object> constructorArgs = new ArrayList<>();
     Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
@@ -676,7 +874,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -689,18 +887,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    final Constructor<?> constructor = findConstructorForAutomapping(rsw, resultType);
+    if (constructor != null) {
+      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+    }
+    throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
+  }
+
+  private Constructor<?> findConstructorForAutomapping(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
     final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
-    } else {
-      for (Constructor<?> constructor : constructors) {
-        if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
-        }
+      return defaultConstructor;
+    }
+    for (Constructor<?> constructor : constructors) {
+      if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
+        return constructor;
       }
     }
-    throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
+    return null;
   }
 
   private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
@@ -709,7 +914,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = getColumnValue(rsw, typeHandler, columnName);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -743,6 +948,73 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return true;
   }
 
+  private ConstructorBinding getConstructorBinding(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Map<String, ConstructorBinding> bindings = MapUtil.computeIfAbsent(constructorBindings, resultMap, k -> new HashMap<>());
+    ConstructorBinding binding = bindings.get(columnPrefix);
+    if (binding == null || !binding.isFor(rsw)) {
+      binding = bindConstructor(rsw, resultMap, columnPrefix);
+      bindings.put(columnPrefix, binding);
+    }
+    return binding.isBound() ? binding : null;
+  }
+
+  private ConstructorBinding bindConstructor(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    // custom factories must create the objects, and lazy loading proxies need the argument lists
+    if (configuration.getObjectFactory().getClass() != DefaultObjectFactory.class || resultType.isInterface()
+        || Modifier.isAbstract(resultType.getModifiers()) || hasTypeHandlerForResultObject(rsw, resultType)
+        || hasLazyNestedQueries(resultMap)) {
+      return ConstructorBinding.unbound(rsw);
+    }
+    final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
+    if (!constructorMappings.isEmpty()) {
+      final int size = constructorMappings.size();
+      final Class<?>[] parameterTypes = new Class<?>[size];
+      final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[size];
+      final String[] columns = new String[size];
+      for (int i = 0; i < size; i++) {
+        final ResultMapping constructorMapping = constructorMappings.get(i);
+        if (constructorMapping.getNestedQueryId() != null || constructorMapping.getNestedResultMapId() != null
+            || constructorMapping.getColumn() == null) {
+          return ConstructorBinding.unbound(rsw);
+        }
+        parameterTypes[i] = constructorMapping.getJavaType();
+        typeHandlers[i] = constructorMapping.getTypeHandler();
+        columns[i] = prependPrefix(constructorMapping.getColumn(), columnPrefix);
+      }
+      try {
+        return ConstructorBinding.bind(rsw, resultType.getDeclaredConstructor(parameterTypes), typeHandlers, columns,
+            constructorMappings.toArray(new ResultMapping[0]), configuration.isColumnIndexAccessEnabled());
+      } catch (NoSuchMethodException e) {
+        return ConstructorBinding.unbound(rsw);
+      }
+    }
+    if (MetaClass.forClass(resultType, reflectorFactory).hasDefaultConstructor() || !shouldApplyAutomaticMappings(resultMap, false)) {
+      return ConstructorBinding.unbound(rsw);
+    }
+    final Constructor<?> constructor = findConstructorForAutomapping(rsw, resultType);
+    if (constructor == null || constructor.getParameterCount() > rsw.getColumnNames().size()) {
+      return ConstructorBinding.unbound(rsw);
+    }
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[parameterTypes.length];
+    final String[] columns = new String[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      columns[i] = rsw.getColumnNames().get(i);
+      typeHandlers[i] = rsw.getTypeHandler(parameterTypes[i], columns[i]);
+    }
+    return ConstructorBinding.bind(rsw, constructor, typeHandlers, columns, null, configuration.isColumnIndexAccessEnabled());
+  }
+
+  private boolean hasLazyNestedQueries(ResultMap resultMap) {
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Object createPrimitiveResultObject(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
     final String columnName;
@@ -754,7 +1026,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw, typeHandler, columnName);
   }
 
   //
@@ -783,7 +1055,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String property = propertyMapping.getProperty();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject;
+    Object keyParameterObject = null;
+    if (propertyMapping.isBatchFetched()) {
+      if (nestedQueryBatches != null && !propertyMapping.isLazy()) {
+        return addToNestedQueryBatch(rs, metaResultObject, propertyMapping, nestedQuery, columnPrefix);
+      }
+      // the row cannot wait for the batch, or is loaded lazily: its own loader passes its key alone
+      keyParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, getBatchKeyType(nestedQuery), columnPrefix);
+      nestedQueryParameterObject = keyParameterObject == null ? null
+          : ParamNameResolver.wrapToMapIfCollection(new ArrayList<>(Collections.singletonList(keyParameterObject)), null);
+    } else {
+      nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
+    }
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -793,7 +1077,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final ResultLoader resultLoader;
+        if (propertyMapping.isBatchFetched() && propertyMapping.isLazy()) {
+          // the first lazy load loads the property of the other rows of this result as well
+          LazyNestedQueryBatch batch = MapUtil.computeIfAbsent(lazyNestedQueryBatches, propertyMapping, k -> new LazyNestedQueryBatch(propertyMapping));
+          resultLoader = batch.newResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql,
+              createKeyForNestedQueryBatch(rs, propertyMapping, columnPrefix), keyParameterObject);
+        } else {
+          resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        }
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
@@ -805,6 +1097,53 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private Object addToNestedQueryBatch(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, MappedStatement nestedQuery,
+      String columnPrefix) throws SQLException {
+    final Object keyParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, getBatchKeyType(nestedQuery), columnPrefix);
+    if (keyParameterObject == null) {
+      return null;
+    }
+    NestedQueryBatch batch = MapUtil.computeIfAbsent(nestedQueryBatches, propertyMapping,
+        k -> new NestedQueryBatch(configuration, executor, propertyMapping, nestedQuery));
+    batch.add(createKeyForNestedQueryBatch(rs, propertyMapping, columnPrefix), keyParameterObject, metaResultObject);
+    if (batch.isFull()) {
+      batch.load();
+    }
+    return DEFERRED;
+  }
+
+  private Class<?> getBatchKeyType(MappedStatement nestedQuery) {
+    // the nested select takes the list of the keys, a key is prepared like the parameter of a single row
+    Class<?> keyType = nestedQuery.getParameterMap().getType();
+    if (keyType != null && (Iterable.class.isAssignableFrom(keyType) || keyType.isArray() || Map.class.isAssignableFrom(keyType))) {
+      return null;
+    }
+    return keyType;
+  }
+
+  private CacheKey createKeyForNestedQueryBatch(ResultSet rs, ResultMapping propertyMapping, String columnPrefix) throws SQLException {
+    CacheKey key = new CacheKey();
+    if (propertyMapping.isCompositeResult()) {
+      for (ResultMapping innerResultMapping : propertyMapping.getComposites()) {
+        key.update(rs.getString(prependPrefix(innerResultMapping.getColumn(), columnPrefix)));
+      }
+    } else {
+      key.update(rs.getString(prependPrefix(propertyMapping.getColumn(), columnPrefix)));
+    }
+    return key;
+  }
+
+  private void loadNestedQueryBatches() throws SQLException {
+    if (nestedQueryBatches != null) {
+      for (NestedQueryBatch batch : nestedQueryBatches.values()) {
+        if (!batch.isEmpty()) {
+          batch.load();
+        }
+      }
+      nestedQueryBatches = null;
+    }
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
@@ -896,25 +1235,30 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
+    final boolean resultOrdered = isResultOrdered(resultHandler);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final Object rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
-      if (mappedStatement.isResultOrdered()) {
+      if (resultOrdered) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
+        if (partialObject == null) {
+          startResultObject(resultHandler, resultSet);
+        }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
         if (partialObject == null) {
+          startResultObject(resultHandler, resultSet);
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
       }
     }
-    if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+    if (rowValue != null && resultOrdered && shouldProcessMoreRows(resultContext, rowBounds)) {
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
     } else if (rowValue != null) {
@@ -922,11 +1266,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  /**
+   * Returns whether the rows of a result object are adjacent, so that each result object is passed to the result
+   * handler once its last row is read and is forgotten afterwards.
+   */
+  private boolean isResultOrdered(ResultHandler<?> resultHandler) {
+    return mappedStatement.isResultOrdered()
+        || configuration.isNestedResultStreamingEnabled() && isStreamed(resultHandler);
+  }
+
+  private boolean isStreamed(ResultHandler<?> resultHandler) {
+    // the handlers MyBatis collects results with get the same results as a list, only the handlers passed by the
+    // application and the ones of cursors are streamed
+    return resultHandler != null && !(resultHandler instanceof CollectingResultHandler);
+  }
+
   //
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, Object parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -945,8 +1304,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final Object rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
+          final Object combinedKey = combineKeys(rowKey, parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -1007,7 +1366,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+  private Object createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    if (configuration.isCompactRowKeysEnabled()) {
+      final RowKey.Plan plan = getRowKeyPlan(rsw, resultMap, columnPrefix);
+      if (plan != null) {
+        return plan.createKey(rsw.getResultSet(), configuration.isReturnInstanceForEmptyRow());
+      }
+    }
     final CacheKey cacheKey = new CacheKey();
     cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
@@ -1026,11 +1391,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return cacheKey;
   }
 
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
+  private RowKey.Plan getRowKeyPlan(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Map<String, Optional<RowKey.Plan>> plans = MapUtil.computeIfAbsent(rowKeyPlans, resultMap, k -> new HashMap<>());
+    Optional<RowKey.Plan> plan = plans.get(columnPrefix);
+    if (plan == null || plan.isPresent() && !plan.get().isFor(rsw)) {
+      plan = Optional.ofNullable(RowKey.Plan.create(rsw, resultMap, columnPrefix, configuration.isColumnIndexAccessEnabled()));
+      plans.put(columnPrefix, plan);
+    }
+    return plan.orElse(null);
+  }
+
+  private Object combineKeys(Object rowKey, Object parentRowKey) {
+    if (hasValues(rowKey) && hasValues(parentRowKey)) {
+      if (rowKey instanceof RowKey) {
+        return ((RowKey) rowKey).combine(parentRowKey);
+      }
       CacheKey combinedKey;
       try {
-        combinedKey = rowKey.clone();
+        combinedKey = ((CacheKey) rowKey).clone();
       } catch (CloneNotSupportedException e) {
         throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
       }
@@ -1040,6 +1418,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return CacheKey.NULL_CACHE_KEY;
   }
 
+  private boolean hasValues(Object rowKey) {
+    return rowKey instanceof RowKey || ((CacheKey) rowKey).getUpdateCount() > 1;
+  }
+
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
     List<ResultMapping> resultMappings = resultMap.getIdResultMappings();
     if (resultMappings.isEmpty()) {
@@ -1056,7 +1438,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+          final Object value = getColumnValue(rsw, th, column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
             cacheKey.update(value);
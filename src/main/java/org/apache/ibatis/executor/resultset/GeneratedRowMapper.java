@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The base class of the row mappers generated by the {@link RowMapperGenerator}. A generated row mapper creates the
+ * result object of a flat result map and calls its setters directly, with the values read by the type handlers of the
+ * mappings.
+ * <p>
+ * It is public because the generated classes are defined in the package of the result type; it is not meant to be
+ * extended otherwise.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public abstract class GeneratedRowMapper {
+
+  /**
+   * The type handler of each mapping.
+   */
+  @SuppressWarnings("rawtypes")
+  protected TypeHandler[] typeHandlers;
+  /**
+   * The column index of each mapping.
+   */
+  protected int[] columns;
+  /**
+   * Whether the setter of each mapping is called with {@code null} values.
+   */
+  protected boolean[] callSettersOnNulls;
+  /**
+   * Whether the result object is returned when no column has a value.
+   */
+  protected boolean returnInstanceForEmptyRow;
+
+  private Configuration configuration;
+  private String[] properties;
+
+  void init(Configuration configuration, String[] properties, TypeHandler<?>[] typeHandlers, int[] columns,
+      boolean[] callSettersOnNulls) {
+    this.configuration = configuration;
+    this.properties = properties;
+    this.typeHandlers = typeHandlers;
+    this.columns = columns;
+    this.callSettersOnNulls = callSettersOnNulls;
+    this.returnInstanceForEmptyRow = configuration.isReturnInstanceForEmptyRow();
+  }
+
+  /**
+   * Maps the current row.
+   *
+   * @param rs
+   *          the result set
+   * @return the result object, or {@code null} if no column has a value
+   * @throws SQLException
+   *           if a column cannot be read
+   */
+  public abstract Object map(ResultSet rs) throws SQLException;
+
+  /**
+   * Sets a value that is not an instance of the setter parameter type, through the reflective path. It reports the
+   * error the reflective mapping would report.
+   *
+   * @param target
+   *          the result object
+   * @param mapping
+   *          the index of the mapping
+   * @param value
+   *          the value
+   */
+  protected void set(Object target, int mapping, Object value) {
+    configuration.newMetaObject(target).setValue(properties[mapping], value);
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * The lazy loads of a nested select with a {@link ResultMapping#getBatchSize() batch size}, for the rows of a result.
+ * <p>
+ * The first lazy load of the property executes the nested select for its key and for the keys of the other rows that
+ * are not loaded yet, up to the batch size. The rows of the other keys are kept until their property is loaded, so
+ * that loading it does not execute any statement.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class LazyNestedQueryBatch {
+
+  private final ResultMapping propertyMapping;
+  private final Map<CacheKey, PendingKey> pendingKeys = new LinkedHashMap<>();
+
+  LazyNestedQueryBatch(ResultMapping propertyMapping) {
+    this.propertyMapping = propertyMapping;
+  }
+
+  /**
+   * Creates the loader of a row.
+   *
+   * @param parameterObject
+   *          the parameter of the nested select for the key of the row alone, it is used once the result object is
+   *          deserialized
+   * @param key
+   *          the values of the columns of the mapping
+   * @param keyParameterObject
+   *          the key of the row, as an item of the list parameter of the nested select
+   */
+  synchronized ResultLoader newResultLoader(Configuration configuration, Executor executor, MappedStatement nestedQuery,
+      Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, CacheKey key, Object keyParameterObject) {
+    pendingKeys.computeIfAbsent(key, k -> new PendingKey(keyParameterObject)).loaders++;
+    return new BatchResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, cacheKey, boundSql, key);
+  }
+
+  private synchronized List<Object> load(BatchResultLoader loader) throws SQLException {
+    PendingKey pendingKey = pendingKeys.get(loader.key);
+    if (pendingKey == null) {
+      // all the loaders of the key have already been used
+      return loader.select(null, Executor.NO_RESULT_HANDLER);
+    }
+    if (pendingKey.children == null) {
+      fetch(loader, pendingKey);
+    }
+    List<Object> children = pendingKey.children;
+    if (--pendingKey.loaders == 0) {
+      pendingKeys.remove(loader.key);
+    }
+    return children;
+  }
+
+  private void fetch(BatchResultLoader loader, PendingKey pendingKey) throws SQLException {
+    Map<CacheKey, PendingKey> fetchedKeys = new LinkedHashMap<>();
+    fetchedKeys.put(loader.key, pendingKey);
+    Iterator<Map.Entry<CacheKey, PendingKey>> iterator = pendingKeys.entrySet().iterator();
+    while (fetchedKeys.size() < propertyMapping.getBatchSize() && iterator.hasNext()) {
+      Map.Entry<CacheKey, PendingKey> entry = iterator.next();
+      if (entry.getValue().children == null) {
+        fetchedKeys.put(entry.getKey(), entry.getValue());
+      }
+    }
+    List<Object> keyParameterObjects = new ArrayList<>(fetchedKeys.size());
+    for (PendingKey fetchedKey : fetchedKeys.values()) {
+      keyParameterObjects.add(fetchedKey.keyParameterObject);
+    }
+    NestedQueryBatch.ResultCollector collector = new NestedQueryBatch.ResultCollector(propertyMapping.getForeignColumn().split(","));
+    loader.select(ParamNameResolver.wrapToMapIfCollection(keyParameterObjects, null), collector);
+    for (Map.Entry<CacheKey, PendingKey> entry : fetchedKeys.entrySet()) {
+      entry.getValue().children = collector.getChildren(entry.getKey());
+    }
+  }
+
+  private static final class PendingKey {
+    private final Object keyParameterObject;
+    private int loaders;
+    private List<Object> children;
+
+    PendingKey(Object keyParameterObject) {
+      this.keyParameterObject = keyParameterObject;
+    }
+  }
+
+  private final class BatchResultLoader extends ResultLoader {
+    private final CacheKey key;
+
+    BatchResultLoader(Configuration configuration, Executor executor, MappedStatement nestedQuery, Object parameterObject,
+        Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, CacheKey key) {
+      super(configuration, executor, nestedQuery, parameterObject, targetType, cacheKey, boundSql);
+      this.key = key;
+    }
+
+
+    @Override
+    public Object loadResult() throws SQLException {
+      resultObject = resultExtractor.extractObjectFromList(new ArrayList<>(load(this)), targetType);
+      return resultObject;
+    }
+
+    /**
+     * Executes the nested select with a list of keys, or with the parameter of this loader if it is {@code null}.
+     */
+    List<Object> select(Object keysParameterObject, ResultHandler<?> resultHandler) throws SQLException {
+      return selectList(keysParameterObject == null ? parameterObject : keysParameterObject, resultHandler);
+    }
+  }
+
+}
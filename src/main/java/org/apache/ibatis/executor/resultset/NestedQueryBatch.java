@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.executor.result.CollectingResultHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.util.MapUtil;
+
+/**
+ * The pending loads of a nested select with a {@link ResultMapping#getBatchSize() batch size}.
+ * <p>
+ * The keys of the parent rows are collected until the batch is full or the results are complete, then the nested
+ * select is executed once with the list of keys as parameter, and the rows it returns are distributed to the parents
+ * by the values of the {@link ResultMapping#getForeignColumn() foreign columns}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class NestedQueryBatch {
+
+  private final Executor executor;
+  private final ResultMapping propertyMapping;
+  private final MappedStatement nestedQuery;
+  private final ResultExtractor resultExtractor;
+  private final Map<CacheKey, PendingKey> pendingKeys = new LinkedHashMap<>();
+
+  NestedQueryBatch(Configuration configuration, Executor executor, ResultMapping propertyMapping, MappedStatement nestedQuery) {
+    this.executor = executor;
+    this.propertyMapping = propertyMapping;
+    this.nestedQuery = nestedQuery;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
+  /**
+   * Adds a result object whose property is set when the batch is loaded.
+   *
+   * @param key
+   *          the values of the columns of the mapping, as read by {@link ResultSet#getString(String)}
+   * @param parameterObject
+   *          the parameter of the nested select for a single parent row
+   * @param resultObject
+   *          the result object
+   */
+  void add(CacheKey key, Object parameterObject, MetaObject resultObject) {
+    MapUtil.computeIfAbsent(pendingKeys, key, k -> new PendingKey(parameterObject)).resultObjects.add(resultObject);
+  }
+
+  boolean isFull() {
+    return pendingKeys.size() >= propertyMapping.getBatchSize();
+  }
+
+  boolean isEmpty() {
+    return pendingKeys.isEmpty();
+  }
+
+  /**
+   * Executes the nested select for the pending keys and sets the property of their result objects.
+   */
+  void load() throws SQLException {
+    List<Object> parameterObjects = new ArrayList<>(pendingKeys.size());
+    for (PendingKey pendingKey : pendingKeys.values()) {
+      parameterObjects.add(pendingKey.parameterObject);
+    }
+    ResultCollector collector = new ResultCollector(propertyMapping.getForeignColumn().split(","));
+    executor.query(nestedQuery, ParamNameResolver.wrapToMapIfCollection(parameterObjects, null), RowBounds.DEFAULT, collector);
+    Class<?> targetType = propertyMapping.getJavaType();
+    for (Map.Entry<CacheKey, PendingKey> entry : pendingKeys.entrySet()) {
+      List<Object> children = collector.getChildren(entry.getKey());
+      for (MetaObject resultObject : entry.getValue().resultObjects) {
+        resultObject.setValue(propertyMapping.getProperty(), resultExtractor.extractObjectFromList(new ArrayList<>(children), targetType));
+      }
+    }
+    pendingKeys.clear();
+  }
+
+  private static final class PendingKey {
+    private final Object parameterObject;
+    private final List<MetaObject> resultObjects = new ArrayList<>();
+
+    PendingKey(Object parameterObject) {
+      this.parameterObject = parameterObject;
+    }
+  }
+
+  /**
+   * Groups the rows of the nested select by the values of the foreign columns. The rows are also returned as the
+   * results of the nested select, so that the local cache holds its complete results.
+   */
+  static final class ResultCollector implements CollectingResultHandler<Object> {
+    private final String[] foreignColumns;
+    private final Map<CacheKey, List<Object>> children = new HashMap<>();
+    private List<Object> resultList;
+    private CacheKey currentKey;
+
+    ResultCollector(String[] foreignColumns) {
+      this.foreignColumns = foreignColumns;
+    }
+
+    @SuppressWarnings("unchecked")
+    void startResultSet(ObjectFactory objectFactory) {
+      resultList = objectFactory.create(List.class);
+    }
+
+    /**
+     * Reads the foreign columns of the first row of the next result object.
+     */
+    void startResultObject(ResultSet rs) throws SQLException {
+      currentKey = new CacheKey();
+      for (String foreignColumn : foreignColumns) {
+        currentKey.update(rs.getString(foreignColumn.trim()));
+      }
+    }
+
+    @Override
+    public void handleResult(ResultContext<?> context) {
+      Object resultObject = context.getResultObject();
+      resultList.add(resultObject);
+      if (resultObject != null) {
+        MapUtil.computeIfAbsent(children, currentKey, k -> new ArrayList<>()).add(resultObject);
+      }
+    }
+
+    List<Object> getResultList() {
+      return resultList;
+    }
+
+    /**
+     * Gets the result objects of the rows whose foreign columns hold a key.
+     */
+    List<Object> getChildren(CacheKey key) {
+      return children.getOrDefault(key, Collections.emptyList());
+    }
+  }
+
+}
@@ -50,11 +50,14 @@ public class ResultSetWrapper {
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, Integer> columnIndexMap = new HashMap<>();
+  private final boolean columnLabels;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
+    this.columnLabels = configuration.isUseColumnLabel();
     final ResultSetMetaData metaData = rs.getMetaData();
     final int columnCount = metaData.getColumnCount();
     for (int i = 1; i <= columnCount; i++) {
@@ -89,6 +92,40 @@ public class ResultSetWrapper {
     return null;
   }
 
+  /**
+   * Returns whether the column names are the column labels, which the column indexes are resolved against.
+   */
+  boolean isColumnLabels() {
+    return columnLabels;
+  }
+
+  /**
+   * Gets the index of a column, as the result set resolves the label of a column. The index of each column name is
+   * only resolved once.
+   *
+   * @param columnName
+   *          the column label
+   * @return the 1-based column index, or 0 if the column is not found or the column names are not the column labels
+   * @since 3.5.8
+   */
+  public int getColumnIndex(String columnName) {
+    Integer columnIndex = columnIndexMap.get(columnName);
+    if (columnIndex == null) {
+      columnIndex = 0;
+      // the result set reads columns by label, the column names can only be used when they are the labels
+      if (columnLabels) {
+        for (int i = 0; i < columnNames.size(); i++) {
+          if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+            columnIndex = i + 1;
+            break;
+          }
+        }
+      }
+      columnIndexMap.put(columnName, columnIndex);
+    }
+    return columnIndex;
+  }
+
   /**
    * Gets the type handler to use when reading the result set.
    * Tries to get from the TypeHandlerRegistry by searching for the property type.
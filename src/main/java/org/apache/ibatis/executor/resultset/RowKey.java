@@ -0,0 +1,241 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.type.ByteTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.ShortTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Identifies a row of a nested result map whose id is made of one or two columns. It is used instead of a
+ * {@link CacheKey}, which keeps a list of the column names and values of each row.
+ * <p>
+ * Integer columns read by the built-in type handlers are kept as {@code long} values, the other columns as the value
+ * returned by their type handler. A key combined with the key of its parent row holds the parent key, which may be
+ * a {@link CacheKey}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class RowKey {
+
+  private static final int ABSENT = 0;
+  private static final int VALUE = 1;
+  private static final int NULL_VALUE = 2;
+
+  private final ResultMap resultMap;
+  private final String columnPrefix;
+  // the state of each column, 2 bits per column
+  private final int states;
+  private final long first;
+  private final long second;
+  private final Object firstObject;
+  private final Object secondObject;
+  private final Object parentKey;
+  private final int hashCode;
+
+  private RowKey(ResultMap resultMap, String columnPrefix, int states, long first, long second, Object firstObject,
+      Object secondObject, Object parentKey) {
+    this.resultMap = resultMap;
+    this.columnPrefix = columnPrefix;
+    this.states = states;
+    this.first = first;
+    this.second = second;
+    this.firstObject = firstObject;
+    this.secondObject = secondObject;
+    this.parentKey = parentKey;
+    int hash = resultMap.getId().hashCode();
+    hash = 31 * hash + Objects.hashCode(columnPrefix);
+    hash = 31 * hash + states;
+    hash = 31 * hash + Long.hashCode(first);
+    hash = 31 * hash + Long.hashCode(second);
+    hash = 31 * hash + (firstObject == null ? 0 : ArrayUtil.hashCode(firstObject));
+    hash = 31 * hash + (secondObject == null ? 0 : ArrayUtil.hashCode(secondObject));
+    this.hashCode = 31 * hash + Objects.hashCode(parentKey);
+  }
+
+  /**
+   * Returns the key of this row combined with the key of its parent row.
+   */
+  RowKey combine(Object parentKey) {
+    return new RowKey(resultMap, columnPrefix, states, first, second, firstObject, secondObject, parentKey);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey)) {
+      return false;
+    }
+    RowKey that = (RowKey) object;
+    return hashCode == that.hashCode
+        && resultMap == that.resultMap
+        && states == that.states
+        && first == that.first
+        && second == that.second
+        && Objects.equals(columnPrefix, that.columnPrefix)
+        && ArrayUtil.equals(firstObject, that.firstObject)
+        && ArrayUtil.equals(secondObject, that.secondObject)
+        && Objects.equals(parentKey, that.parentKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "RowKey{" + resultMap.getId() + ", " + columnPrefix + ", " + states + ", " + first + ", " + second + ", "
+        + ArrayUtil.toString(firstObject) + ", " + ArrayUtil.toString(secondObject) + ", " + parentKey + "}";
+  }
+
+  /**
+   * How the id columns of a result map are read from a result set.
+   */
+  static final class Plan {
+    private final ResultSetWrapper rsw;
+    private final ResultMap resultMap;
+    private final String columnPrefix;
+    private final String[] columns;
+    private final int[] columnIndexes;
+    private final boolean[] primitives;
+    private final TypeHandler<?>[] typeHandlers;
+
+    private Plan(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, String[] columns, int[] columnIndexes,
+        boolean[] primitives, TypeHandler<?>[] typeHandlers) {
+      this.rsw = rsw;
+      this.resultMap = resultMap;
+      this.columnPrefix = columnPrefix;
+      this.columns = columns;
+      this.columnIndexes = columnIndexes;
+      this.primitives = primitives;
+      this.typeHandlers = typeHandlers;
+    }
+
+    /**
+     * Creates the plan of a result map.
+     *
+     * @param columnIndexAccess
+     *          whether the type handlers read the other columns by index
+     * @return the plan, or {@code null} if the result map does not have one or two simple id mappings
+     */
+    static Plan create(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, boolean columnIndexAccess) throws SQLException {
+      List<ResultMapping> idMappings = resultMap.getIdResultMappings();
+      if (idMappings.isEmpty() || idMappings.size() > 2) {
+        return null;
+      }
+      int size = idMappings.size();
+      String[] columns = new String[size];
+      int[] columnIndexes = new int[size];
+      boolean[] primitives = new boolean[size];
+      TypeHandler<?>[] typeHandlers = new TypeHandler<?>[size];
+      List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+      for (int i = 0; i < size; i++) {
+        ResultMapping idMapping = idMappings.get(i);
+        if (!idMapping.isSimple() || idMapping.getColumn() == null) {
+          return null;
+        }
+        String column = columnPrefix == null || columnPrefix.isEmpty() ? idMapping.getColumn() : columnPrefix + idMapping.getColumn();
+        if (mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          columns[i] = column;
+          typeHandlers[i] = idMapping.getTypeHandler();
+          int columnIndex = rsw.getColumnIndex(column);
+          primitives[i] = columnIndex > 0 && isIntegral(typeHandlers[i], rsw.getJdbcType(column));
+          columnIndexes[i] = primitives[i] || columnIndexAccess ? columnIndex : 0;
+        }
+      }
+      return new Plan(rsw, resultMap, columnPrefix, columns, columnIndexes, primitives, typeHandlers);
+    }
+
+    private static boolean isIntegral(TypeHandler<?> typeHandler, JdbcType jdbcType) {
+      Class<?> type = typeHandler == null ? null : typeHandler.getClass();
+      return (type == IntegerTypeHandler.class || type == LongTypeHandler.class || type == ShortTypeHandler.class
+          || type == ByteTypeHandler.class)
+          && (jdbcType == JdbcType.INTEGER || jdbcType == JdbcType.BIGINT || jdbcType == JdbcType.SMALLINT
+              || jdbcType == JdbcType.TINYINT);
+    }
+
+    boolean isFor(ResultSetWrapper rsw) {
+      return this.rsw == rsw;
+    }
+
+    /**
+     * Creates the key of the current row.
+     *
+     * @param returnInstanceForEmptyRow
+     *          whether a {@code null} id is part of the key
+     * @return the key, or {@link CacheKey#NULL_CACHE_KEY} if no id column has a value
+     */
+    Object createKey(ResultSet rs, boolean returnInstanceForEmptyRow) throws SQLException {
+      long first = 0;
+      long second = 0;
+      Object firstObject = null;
+      Object secondObject = null;
+      int states = ABSENT;
+      if (columns[0] != null) {
+        if (primitives[0]) {
+          first = rs.getLong(columnIndexes[0]);
+          states = state(first == 0 && rs.wasNull(), returnInstanceForEmptyRow);
+        } else {
+          firstObject = getObject(rs, 0);
+          states = state(firstObject == null, returnInstanceForEmptyRow);
+        }
+      }
+      if (columns.length > 1 && columns[1] != null) {
+        if (primitives[1]) {
+          second = rs.getLong(columnIndexes[1]);
+          states |= state(second == 0 && rs.wasNull(), returnInstanceForEmptyRow) << 2;
+        } else {
+          secondObject = getObject(rs, 1);
+          states |= state(secondObject == null, returnInstanceForEmptyRow) << 2;
+        }
+      }
+      if (states == ABSENT) {
+        return CacheKey.NULL_CACHE_KEY;
+      }
+      return new RowKey(resultMap, columnPrefix, states, first, second, firstObject, secondObject, null);
+    }
+
+    private Object getObject(ResultSet rs, int i) throws SQLException {
+      return columnIndexes[i] > 0 ? typeHandlers[i].getResult(rs, columnIndexes[i]) : typeHandlers[i].getResult(rs, columns[i]);
+    }
+
+    private static int state(boolean nullValue, boolean returnInstanceForEmptyRow) {
+      if (!nullValue) {
+        return VALUE;
+      }
+      // like a CacheKey, a null id is only part of the key when empty rows create an instance
+      return returnInstanceForEmptyRow ? NULL_VALUE : ABSENT;
+    }
+  }
+
+}
@@ -0,0 +1,261 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Generates the {@link GeneratedRowMapper row mappers} of flat result maps.
+ * <p>
+ * A row mapper class is generated per result type and sequence of mapped properties, and is shared by the result
+ * sets that map the same properties. Result maps with nested mappings, discriminators or constructor mappings, and
+ * properties without a plain setter are left to the reflective mapping.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class RowMapperGenerator {
+
+  private static final Log log = LogFactory.getLog(RowMapperGenerator.class);
+  private static final AtomicInteger classNumber = new AtomicInteger();
+  private static final ClassValue<Map<String, Optional<Constructor<?>>>> rowMapperClasses
+      = new ClassValue<Map<String, Optional<Constructor<?>>>>() {
+    @Override
+    protected Map<String, Optional<Constructor<?>>> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private RowMapperGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns whether the rows of a result map can be mapped by a generated row mapper.
+   */
+  static boolean isGeneratable(Configuration configuration, ResultMap resultMap) {
+    if (resultMap.getDiscriminator() != null || resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()) {
+      return false;
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+        return false;
+      }
+    }
+    // custom factories may create or wrap the result objects differently
+    if (configuration.getObjectFactory().getClass() != DefaultObjectFactory.class
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+      return false;
+    }
+    Class<?> type = resultMap.getType();
+    if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())
+        || type.getClassLoader() == null || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+        || configuration.getTypeHandlerRegistry().hasTypeHandler(type)) {
+      return false;
+    }
+    try {
+      return !Modifier.isPrivate(type.getDeclaredConstructor().getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates a row mapper.
+   *
+   * @param mappings
+   *          the mappings, in the order the values are set
+   * @return the row mapper, or {@code null} if one of the properties cannot be set directly
+   */
+  static GeneratedRowMapper create(Configuration configuration, ResultSetWrapper rsw, Class<?> type,
+      List<Mapping> mappings) {
+    Reflector reflector = configuration.getReflectorFactory().findForClass(type);
+    int size = mappings.size();
+    Method[] setters = new Method[size];
+    String[] properties = new String[size];
+    TypeHandler<?>[] typeHandlers = new TypeHandler<?>[size];
+    int[] columns = new int[size];
+    boolean[] callSettersOnNulls = new boolean[size];
+    StringBuilder key = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      Mapping mapping = mappings.get(i);
+      setters[i] = findSetter(reflector, type, mapping.property);
+      columns[i] = rsw.getColumnIndex(mapping.column);
+      if (setters[i] == null || columns[i] == 0) {
+        return null;
+      }
+      properties[i] = mapping.property;
+      typeHandlers[i] = mapping.typeHandler;
+      callSettersOnNulls[i] = configuration.isCallSettersOnNulls() && !reflector.getSetterType(mapping.property).isPrimitive();
+      key.append(setters[i].getName()).append('(').append(setters[i].getParameterTypes()[0].getName()).append(')');
+    }
+    Optional<Constructor<?>> constructor = rowMapperClasses.get(type).computeIfAbsent(key.toString(), k -> generate(type, setters));
+    if (!constructor.isPresent()) {
+      return null;
+    }
+    try {
+      GeneratedRowMapper rowMapper = (GeneratedRowMapper) constructor.get().newInstance();
+      rowMapper.init(configuration, properties, typeHandlers, columns, callSettersOnNulls);
+      return rowMapper;
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static Method findSetter(Reflector reflector, Class<?> type, String property) {
+    if (property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || !reflector.hasSetter(property)
+        || !(reflector.getSetInvoker(property) instanceof MethodInvoker)) {
+      return null;
+    }
+    Method setter = null;
+    for (Method method : type.getMethods()) {
+      if (method.getParameterCount() == 1 && !method.isBridge() && !Modifier.isStatic(method.getModifiers())
+          && method.getName().length() > 3 && method.getName().startsWith("set")
+          && property.equals(PropertyNamer.methodToProperty(method.getName()))) {
+        if (setter != null) {
+          // overloaded setters are resolved by the reflector
+          return null;
+        }
+        setter = method;
+      }
+    }
+    return setter;
+  }
+
+  private static Optional<Constructor<?>> generate(Class<?> type, Method[] setters) {
+    String typeName = sourceName(type);
+    StringBuilder source = new StringBuilder();
+    source.append("public Object map(java.sql.ResultSet rs) throws java.sql.SQLException {\n");
+    source.append(typeName).append(" target = new ").append(typeName).append("();\n");
+    source.append("boolean found = false;\n");
+    source.append("Object value;\n");
+    for (int i = 0; i < setters.length; i++) {
+      String setter = "target." + setters[i].getName();
+      Class<?> parameterType = setters[i].getParameterTypes()[0];
+      source.append("value = typeHandlers[").append(i).append("].getResult(rs, columns[").append(i).append("]);\n");
+      source.append("if (value != null) {\n");
+      source.append("found = true;\n");
+      if (parameterType.isPrimitive()) {
+        String wrapperName = sourceName(wrapper(parameterType));
+        source.append("if (value instanceof ").append(wrapperName).append(") {\n");
+        source.append(setter).append("(((").append(wrapperName).append(") value).").append(parameterType.getName())
+            .append("Value());\n");
+      } else {
+        String parameterTypeName = sourceName(parameterType);
+        source.append("if (value instanceof ").append(parameterTypeName).append(") {\n");
+        source.append(setter).append("((").append(parameterTypeName).append(") value);\n");
+      }
+      source.append("} else {\n");
+      source.append("set(target, ").append(i).append(", value);\n");
+      source.append("}\n");
+      source.append("}");
+      if (!parameterType.isPrimitive()) {
+        source.append(" else if (callSettersOnNulls[").append(i).append("]) {\n");
+        source.append(setter).append("((").append(sourceName(parameterType)).append(") null);\n");
+        source.append("}");
+      }
+      source.append("\n");
+    }
+    source.append("if (found || returnInstanceForEmptyRow) {\n");
+    source.append("return target;\n");
+    source.append("}\n");
+    source.append("return null;\n");
+    source.append("}");
+    try {
+      ClassPool pool = new ClassPool(true);
+      pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+      pool.appendClassPath(new ClassClassPath(GeneratedRowMapper.class));
+      CtClass ctClass = pool.makeClass(type.getName() + "$$RowMapper$" + classNumber.incrementAndGet(),
+          pool.get(GeneratedRowMapper.class.getName()));
+      ctClass.addMethod(CtNewMethod.make(source.toString(), ctClass));
+      Class<?> generated = ctClass.toClass(type);
+      ctClass.detach();
+      return Optional.of(generated.getConstructor());
+    } catch (Exception | LinkageError e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Could not generate a row mapper for " + type.getName() + ", its rows are mapped reflectively. Cause: " + e);
+      }
+      return Optional.empty();
+    }
+  }
+
+  private static String sourceName(Class<?> type) {
+    return type.isArray() ? sourceName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  private static Class<?> wrapper(Class<?> primitive) {
+    if (primitive == boolean.class) {
+      return Boolean.class;
+    } else if (primitive == byte.class) {
+      return Byte.class;
+    } else if (primitive == char.class) {
+      return Character.class;
+    } else if (primitive == short.class) {
+      return Short.class;
+    } else if (primitive == int.class) {
+      return Integer.class;
+    } else if (primitive == long.class) {
+      return Long.class;
+    } else if (primitive == float.class) {
+      return Float.class;
+    } else {
+      return Double.class;
+    }
+  }
+
+  /**
+   * A column mapped to a property.
+   */
+  static final class Mapping {
+    private final String column;
+    private final String property;
+    private final TypeHandler<?> typeHandler;
+
+    Mapping(String column, String property, TypeHandler<?> typeHandler) {
+      this.column = column;
+      this.property = property;
+      this.typeHandler = typeHandler;
+    }
+  }
+
+}
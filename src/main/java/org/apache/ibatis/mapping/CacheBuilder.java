@@ -24,6 +24,8 @@ import java.util.Properties;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.ThreadSafeCache;
 import org.apache.ibatis.cache.decorators.BlockingCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
@@ -47,6 +49,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private Class<? extends CacheSerializer> serializer;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -85,6 +88,11 @@ public class CacheBuilder {
     return this;
   }
 
+  public CacheBuilder serializer(Class<? extends CacheSerializer> serializer) {
+    this.serializer = serializer;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -92,7 +100,8 @@ public class CacheBuilder {
 
   public Cache build() {
     setDefaultImplementations();
-    Cache cache = newBaseCacheInstance(implementation, id);
+    boolean threadSafe = isThreadSafe();
+    Cache cache = threadSafe ? new PerpetualCache(id, true) : newBaseCacheInstance(implementation, id);
     setCacheProperties(cache);
     // issue #352, do not apply decorators to custom caches
     if (PerpetualCache.class.equals(cache.getClass())) {
@@ -100,7 +109,7 @@ public class CacheBuilder {
         cache = newCacheDecoratorInstance(decorator, cache);
         setCacheProperties(cache);
       }
-      cache = setStandardDecorators(cache);
+      cache = setStandardDecorators(cache, threadSafe);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
       cache = new LoggingCache(cache);
     }
@@ -116,7 +125,23 @@ public class CacheBuilder {
     }
   }
 
-  private Cache setStandardDecorators(Cache cache) {
+  /**
+   * Returns whether the cache can be used without being synchronized: it is a perpetual cache whose decorators are all
+   * {@link ThreadSafeCache thread safe}.
+   */
+  private boolean isThreadSafe() {
+    if (!PerpetualCache.class.equals(implementation) || decorators.isEmpty()) {
+      return false;
+    }
+    for (Class<? extends Cache> decorator : decorators) {
+      if (!ThreadSafeCache.class.isAssignableFrom(decorator)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Cache setStandardDecorators(Cache cache, boolean threadSafe) {
     try {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
       if (size != null && metaCache.hasSetter("size")) {
@@ -127,10 +152,12 @@ public class CacheBuilder {
         ((ScheduledCache) cache).setClearInterval(clearInterval);
       }
       if (readWrite) {
-        cache = new SerializedCache(cache);
+        cache = serializer == null ? new SerializedCache(cache) : new SerializedCache(cache, newSerializerInstance(serializer));
       }
       cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
+      if (!threadSafe) {
+        cache = new SynchronizedCache(cache);
+      }
       if (blocking) {
         cache = new BlockingCache(cache);
       }
@@ -205,6 +232,14 @@ public class CacheBuilder {
     }
   }
 
+  private CacheSerializer newSerializerInstance(Class<? extends CacheSerializer> serializerClass) {
+    try {
+      return serializerClass.getConstructor().newInstance();
+    } catch (Exception e) {
+      throw new CacheException("Could not instantiate cache serializer (" + serializerClass + "). Cause: " + e, e);
+    }
+  }
+
   private Cache newCacheDecoratorInstance(Class<? extends Cache> cacheClass, Cache base) {
     Constructor<? extends Cache> cacheConstructor = getCacheDecoratorConstructor(cacheClass);
     try {
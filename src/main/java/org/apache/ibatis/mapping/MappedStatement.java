@@ -17,9 +17,13 @@ package org.apache.ibatis.mapping;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.resultset.AutoMappingPlanCache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -57,6 +61,12 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private String chunkParameter;
+  private int chunkSize;
+  private int chunkParallelism;
+  private int spillThreshold;
+  private String[] tables;
+  private final AutoMappingPlanCache autoMappingPlanCache = new AutoMappingPlanCache();
 
   MappedStatement() {
     // constructor disabled
@@ -189,6 +199,66 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * Sets the parameter holding the collection a select is split on.
+     *
+     * @param chunkParameter the name of the parameter
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder chunkParameter(String chunkParameter) {
+      mappedStatement.chunkParameter = chunkParameter;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of collection items a single execution of a select receives.
+     *
+     * @param chunkSize the chunk size, {@code 0} means the select is not split
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder chunkSize(int chunkSize) {
+      mappedStatement.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of chunks of a select executed at the same time.
+     *
+     * @param chunkParallelism the chunk parallelism, {@code 1} or less means the chunks are executed one by one
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder chunkParallelism(int chunkParallelism) {
+      mappedStatement.chunkParallelism = chunkParallelism;
+      return this;
+    }
+
+    /**
+     * Sets the number of rows of a select kept in heap before they are spilled to a temporary file.
+     *
+     * @param spillThreshold the spill threshold, {@code 0} means the rows are not spilled
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder spillThreshold(int spillThreshold) {
+      mappedStatement.spillThreshold = spillThreshold;
+      return this;
+    }
+
+    /**
+     * Sets the tables the statement reads or writes, for the table-level invalidation of the second-level cache.
+     *
+     * @param tables the names of the tables separated by commas, {@code null} if they are unknown
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder tables(String tables) {
+      mappedStatement.tables = tableNames(tables);
+      return this;
+    }
+
     public MappedStatement build() {
       assert mappedStatement.configuration != null;
       assert mappedStatement.id != null;
@@ -302,6 +372,70 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Gets the name of the parameter holding the collection this select is split on.
+   *
+   * @return the chunk parameter
+   * @since 3.5.8
+   */
+  public String getChunkParameter() {
+    return chunkParameter;
+  }
+
+  /**
+   * Gets the maximum number of collection items a single execution of this select receives.
+   *
+   * @return the chunk size, {@code 0} if the select is not split
+   * @since 3.5.8
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Gets the maximum number of chunks executed at the same time, each on its own connection.
+   *
+   * @return the chunk parallelism
+   * @since 3.5.8
+   */
+  public int getChunkParallelism() {
+    return chunkParallelism;
+  }
+
+  /**
+   * Gets the number of rows of this select kept in heap before they are spilled to a temporary file.
+   *
+   * @return the spill threshold, {@code 0} if the rows are not spilled
+   * @since 3.5.8
+   */
+  public int getSpillThreshold() {
+    return spillThreshold;
+  }
+
+  /**
+   * Gets the tables this statement reads or writes. The names are lower case and without their schema.
+   * <p>
+   * The second-level cache entries of a select depend on its tables: a write to one of them invalidates the entries,
+   * in every namespace. When a write declares its tables, its own cache is not cleared anymore, only the entries of
+   * the selects whose tables are unknown are invalidated.
+   *
+   * @return the tables, or {@code null} if they are unknown
+   * @since 3.5.8
+   */
+  public String[] getTables() {
+    return tables;
+  }
+
+  /**
+   * Gets the automatic mappings resolved by the executions of this statement.
+   *
+   * @return the auto-mapping plan cache
+   * @since 3.5.8
+   */
+  public AutoMappingPlanCache getAutoMappingPlanCache() {
+    return autoMappingPlanCache;
+  }
+
   public BoundSql getBoundSql(Object parameterObject) {
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
@@ -323,6 +457,22 @@ public final class MappedStatement {
     return boundSql;
   }
 
+  private static String[] tableNames(String in) {
+    String[] names = delimitedStringToArray(in);
+    if (names == null) {
+      return null;
+    }
+    Set<String> tables = new LinkedHashSet<>();
+    for (String name : names) {
+      String table = name.trim().toLowerCase(Locale.ENGLISH);
+      table = table.substring(table.lastIndexOf('.') + 1);
+      if (!table.isEmpty()) {
+        tables.add(table);
+      }
+    }
+    return tables.isEmpty() ? null : tables.toArray(new String[0]);
+  }
+
   private static String[] delimitedStringToArray(String in) {
     if (in == null || in.trim().length() == 0) {
       return null;
@@ -46,6 +46,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
 
   ResultMapping() {
   }
@@ -133,6 +134,19 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * Sets the number of parent rows whose nested select is fetched by a single query.
+     *
+     * @param batchSize
+     *          the batch size, {@code 0} or {@code 1} to run the nested select once per parent row
+     * @return the builder
+     * @since 3.5.8
+     */
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -168,6 +182,15 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize > 1) {
+        if (resultMapping.nestedQueryId == null || resultMapping.foreignColumn == null) {
+          throw new IllegalStateException("A batchSize requires a nested select and a foreignColumn in property " + resultMapping.property);
+        }
+        int numColumns = resultMapping.composites.isEmpty() ? 1 : resultMapping.composites.size();
+        if (numColumns != resultMapping.foreignColumn.split(",").length) {
+          throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
+        }
+      }
     }
 
     private void resolveTypeHandler() {
@@ -252,6 +275,26 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Gets the number of parent rows whose nested select is fetched by a single query.
+   *
+   * @return the batch size, {@code 0} if the nested select runs once per parent row
+   * @since 3.5.8
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Returns whether the nested select is fetched for several parent rows at once.
+   *
+   * @return {@code true} if the batch size is greater than {@code 1}
+   * @since 3.5.8
+   */
+  public boolean isBatchFetched() {
+    return batchSize > 1;
+  }
+
   public boolean isSimple() {
     return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
   }
@@ -299,6 +342,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
     sb.append('}');
     return sb.toString();
   }
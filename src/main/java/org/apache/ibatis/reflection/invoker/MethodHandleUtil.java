@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * Utilities of the method handle based invokers.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class MethodHandleUtil {
+
+  private static final Lookup lookup = MethodHandles.lookup();
+  private static final Map<Class<?>, Class<?>> primitiveTypes = new HashMap<>();
+  private static final Map<Class<?>, Set<Class<?>>> wideningConversions = new HashMap<>();
+
+  static {
+    primitiveTypes.put(Boolean.class, boolean.class);
+    primitiveTypes.put(Byte.class, byte.class);
+    primitiveTypes.put(Character.class, char.class);
+    primitiveTypes.put(Short.class, short.class);
+    primitiveTypes.put(Integer.class, int.class);
+    primitiveTypes.put(Long.class, long.class);
+    primitiveTypes.put(Float.class, float.class);
+    primitiveTypes.put(Double.class, double.class);
+    // the primitive types each primitive type widens to (JLS 5.1.2)
+    wideningConversions.put(byte.class, types(short.class, int.class, long.class, float.class, double.class));
+    wideningConversions.put(short.class, types(int.class, long.class, float.class, double.class));
+    wideningConversions.put(char.class, types(int.class, long.class, float.class, double.class));
+    wideningConversions.put(int.class, types(long.class, float.class, double.class));
+    wideningConversions.put(long.class, types(float.class, double.class));
+    wideningConversions.put(float.class, types(double.class));
+  }
+
+  private static Set<Class<?>> types(Class<?>... types) {
+    return new HashSet<>(Arrays.asList(types));
+  }
+
+  private MethodHandleUtil() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return lookup.unreflect(method);
+    } catch (IllegalAccessException e) {
+      return lookup.unreflect(makeAccessible(method, e));
+    }
+  }
+
+  static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+    try {
+      return lookup.unreflectGetter(field);
+    } catch (IllegalAccessException e) {
+      return lookup.unreflectGetter(makeAccessible(field, e));
+    }
+  }
+
+  static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+    try {
+      return lookup.unreflectSetter(field);
+    } catch (IllegalAccessException e) {
+      return lookup.unreflectSetter(makeAccessible(field, e));
+    }
+  }
+
+  private static <T extends AccessibleObject> T makeAccessible(T member, IllegalAccessException e)
+      throws IllegalAccessException {
+    if (!Reflector.canControlMemberAccessible()) {
+      throw e;
+    }
+    member.setAccessible(true);
+    return member;
+  }
+
+  /**
+   * Checks that a value can be passed as an argument of a type, as core reflection does; a method handle would throw a
+   * {@link ClassCastException} or a {@link NullPointerException} instead. The class of the value is first compared
+   * with the boxed type of the argument, which matches for most calls.
+   */
+  static void checkArgument(Class<?> type, Class<?> boxedType, Object value) {
+    if (value != null && value.getClass() == boxedType) {
+      return;
+    }
+    if (value == null ? type.isPrimitive() : !isAssignable(type, value.getClass())) {
+      throw new IllegalArgumentException("argument type mismatch");
+    }
+  }
+
+  static Class<?> boxedType(Class<?> type) {
+    for (Map.Entry<Class<?>, Class<?>> entry : primitiveTypes.entrySet()) {
+      if (entry.getValue() == type) {
+        return entry.getKey();
+      }
+    }
+    return type;
+  }
+
+  private static boolean isAssignable(Class<?> type, Class<?> valueType) {
+    if (!type.isPrimitive()) {
+      return type.isAssignableFrom(valueType);
+    }
+    Class<?> primitiveType = primitiveTypes.get(valueType);
+    if (primitiveType == null) {
+      return false;
+    }
+    if (primitiveType == type) {
+      return true;
+    }
+    Set<Class<?>> conversions = wideningConversions.get(primitiveType);
+    return conversions != null && conversions.contains(type);
+  }
+
+}
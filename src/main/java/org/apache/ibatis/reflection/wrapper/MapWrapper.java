@@ -30,6 +30,12 @@ import org.apache.ibatis.reflection.property.PropertyTokenizer;
  */
 public class MapWrapper extends BaseWrapper {
 
+  /**
+   * The binding holding the foreach items by position (see ForEachSqlNode#POSITIONAL_ITEMS), the only one whose
+   * indexed names are resolved through the indexed value.
+   */
+  private static final String POSITIONAL_ITEMS = "__frch";
+
   private final Map<String, Object> map;
 
   public MapWrapper(MetaObject metaObject, Map<String, Object> map) {
@@ -101,6 +107,9 @@ public class MapWrapper extends BaseWrapper {
       } else {
         return metaValue.getGetterType(prop.getChildren());
       }
+    } else if (isPositionalItem(prop)) {
+      Object value = metaObject.getValue(name);
+      return value != null ? value.getClass() : Object.class;
     } else {
       if (map.get(name) != null) {
         return map.get(name).getClass();
@@ -119,7 +128,7 @@ public class MapWrapper extends BaseWrapper {
   public boolean hasGetter(String name) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
-      if (map.containsKey(prop.getIndexedName())) {
+      if (map.containsKey(prop.getIndexedName()) || isPositionalItem(prop) && map.containsKey(prop.getName())) {
         MetaObject metaValue = metaObject.metaObjectForProperty(prop.getIndexedName());
         if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
           return true;
@@ -156,4 +165,8 @@ public class MapWrapper extends BaseWrapper {
     throw new UnsupportedOperationException();
   }
 
+  private static boolean isPositionalItem(PropertyTokenizer prop) {
+    return prop.getIndex() != null && POSITIONAL_ITEMS.equals(prop.getName());
+  }
+
 }
@@ -43,4 +43,12 @@ public class ChooseSqlNode implements SqlNode {
     }
     return false;
   }
+
+  List<SqlNode> getIfSqlNodes() {
+    return ifSqlNodes;
+  }
+
+  SqlNode getDefaultSqlNode() {
+    return defaultSqlNode;
+  }
 }
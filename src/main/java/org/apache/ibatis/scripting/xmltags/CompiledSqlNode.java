@@ -0,0 +1,561 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A {@link SqlNode} tree flattened into a list of instructions.
+ * <p>
+ * The tree is walked once when the statement is built: <code>&lt;if&gt;</code> and <code>&lt;choose&gt;</code> become
+ * conditional jumps, <code>&lt;foreach&gt;</code> becomes a loop, and trimmed bodies that contain no dynamic part are
+ * trimmed in advance. Applying the program runs a single loop over the instructions, without the intermediate
+ * {@link DynamicContext} instances the node tree creates for every <code>&lt;trim&gt;</code> and every foreach item.
+ * Nodes the compiler does not know (e.g. custom subclasses) are kept as they are and applied to the running program.
+ * <p>
+ * The generated SQL and bindings are the same as the ones of the original tree.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class CompiledSqlNode implements SqlNode {
+
+  private final Instruction[] program;
+
+  private CompiledSqlNode(Instruction[] program) {
+    this.program = program;
+  }
+
+  /**
+   * Compiles a sql node tree.
+   *
+   * @param configuration the configuration
+   * @param rootSqlNode the root of the tree
+   * @return the compiled node
+   */
+  public static CompiledSqlNode compile(Configuration configuration, SqlNode rootSqlNode) {
+    if (rootSqlNode instanceof CompiledSqlNode) {
+      return (CompiledSqlNode) rootSqlNode;
+    }
+    Compiler compiler = new Compiler();
+    compiler.compile(rootSqlNode, false);
+    return new CompiledSqlNode(compiler.program.toArray(new Instruction[0]));
+  }
+
+  int getInstructionCount() {
+    return program.length;
+  }
+
+  void collectExpressions(Set<String> expressions) {
+    for (Instruction instruction : program) {
+      instruction.collectExpressions(expressions);
+    }
+  }
+
+  void collectForEachNodes(List<ForEachSqlNode> forEachSqlNodes) {
+    for (Instruction instruction : program) {
+      instruction.collectForEachNodes(forEachSqlNodes);
+    }
+  }
+
+  @Override
+  public boolean apply(DynamicContext context) {
+    Run run = new Run(context);
+    int pc = 0;
+    while (pc < program.length) {
+      pc = program[pc].execute(run, pc);
+    }
+    return true;
+  }
+
+  private static final class Compiler {
+    private final List<Instruction> program = new ArrayList<>();
+    // no text is merged into an instruction placed before a jump target
+    private int barrier;
+
+    void compile(SqlNode node, boolean concat) {
+      Class<?> type = node.getClass();
+      if (type == MixedSqlNode.class) {
+        for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+          compile(child, concat);
+        }
+      } else if (type == StaticTextSqlNode.class) {
+        addText(((StaticTextSqlNode) node).getText(), concat);
+      } else if (type == TextSqlNode.class) {
+        program.add(new DynamicText((TextSqlNode) node));
+      } else if (type == IfSqlNode.class) {
+        IfSqlNode ifSqlNode = (IfSqlNode) node;
+        JumpIfFalse jump = new JumpIfFalse(ifSqlNode.getTest());
+        program.add(jump);
+        compile(ifSqlNode.getContents(), concat);
+        jump.target = label();
+      } else if (type == ChooseSqlNode.class && onlyIfSqlNodes((ChooseSqlNode) node)) {
+        compileChoose((ChooseSqlNode) node, concat);
+      } else if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+        compileTrim((TrimSqlNode) node, concat);
+      } else if (type == ForEachSqlNode.class) {
+        compileForEach((ForEachSqlNode) node);
+      } else if (type == VarDeclSqlNode.class) {
+        VarDeclSqlNode varDeclSqlNode = (VarDeclSqlNode) node;
+        program.add(new Bind(varDeclSqlNode.getName(), varDeclSqlNode.getExpression()));
+      } else {
+        program.add(new Apply(node));
+      }
+    }
+
+    private boolean onlyIfSqlNodes(ChooseSqlNode node) {
+      for (SqlNode when : node.getIfSqlNodes()) {
+        if (when.getClass() != IfSqlNode.class) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void compileChoose(ChooseSqlNode node, boolean concat) {
+      List<Jump> exits = new ArrayList<>();
+      for (SqlNode when : node.getIfSqlNodes()) {
+        IfSqlNode ifSqlNode = (IfSqlNode) when;
+        JumpIfFalse next = new JumpIfFalse(ifSqlNode.getTest());
+        program.add(next);
+        compile(ifSqlNode.getContents(), concat);
+        Jump exit = new Jump();
+        program.add(exit);
+        exits.add(exit);
+        next.target = label();
+      }
+      if (node.getDefaultSqlNode() != null) {
+        compile(node.getDefaultSqlNode(), concat);
+      }
+      int end = label();
+      for (Jump exit : exits) {
+        exit.target = end;
+      }
+    }
+
+    private void compileTrim(TrimSqlNode node, boolean concat) {
+      int outerBarrier = barrier;
+      int start = program.size();
+      program.add(new TrimBegin());
+      barrier = program.size();
+      compile(node.getContents(), true);
+      if (program.size() == start + 1) {
+        program.remove(start);
+        barrier = outerBarrier;
+        addText(node.trim(""), concat);
+      } else if (program.size() == start + 2 && program.get(start + 1) instanceof Text) {
+        String text = ((Text) program.get(start + 1)).text;
+        program.remove(start + 1);
+        program.remove(start);
+        barrier = outerBarrier;
+        addText(node.trim(text), concat);
+      } else {
+        program.add(new TrimEnd(node));
+        barrier = program.size();
+      }
+    }
+
+    private void compileForEach(ForEachSqlNode node) {
+      ForEachBegin begin = new ForEachBegin(node);
+      program.add(begin);
+      int body = label();
+      compile(node.getContents(), false);
+      program.add(new ForEachNext(body));
+      begin.target = label();
+    }
+
+    private void addText(String text, boolean concat) {
+      int last = program.size() - 1;
+      if (concat && last >= barrier && program.get(last) instanceof Text) {
+        program.set(last, new Text(((Text) program.get(last)).text + text));
+      } else {
+        program.add(new Text(text));
+      }
+    }
+
+    private int label() {
+      barrier = program.size();
+      return barrier;
+    }
+  }
+
+  /**
+   * The state of one application of the program.
+   */
+  private static final class Run {
+    private final DynamicContext context;
+    private final Map<String, Object> bindings;
+    private Frame frame;
+    private Loop loop;
+    private DynamicContext adapter;
+
+    Run(DynamicContext context) {
+      this.context = context;
+      this.bindings = context.getBindings();
+      this.frame = new RootFrame(context);
+    }
+
+    DynamicContext adapter() {
+      if (adapter == null) {
+        adapter = new RunContext(this);
+      }
+      return adapter;
+    }
+  }
+
+  /**
+   * Receives the sql generated by the instructions, as the {@link DynamicContext} would.
+   */
+  private abstract static class Frame {
+    final Frame parent;
+
+    Frame(Frame parent) {
+      this.parent = parent;
+    }
+
+    abstract void append(String sql);
+  }
+
+  private static final class RootFrame extends Frame {
+    private final DynamicContext context;
+
+    RootFrame(DynamicContext context) {
+      super(null);
+      this.context = context;
+    }
+
+    @Override
+    void append(String sql) {
+      context.appendSql(sql);
+    }
+  }
+
+  private static final class TrimFrame extends Frame {
+    private final StringBuilder sqlBuffer = new StringBuilder();
+
+    TrimFrame(Frame parent) {
+      super(parent);
+    }
+
+    @Override
+    void append(String sql) {
+      sqlBuffer.append(sql);
+    }
+  }
+
+  private static final class ItemFrame extends Frame {
+    private final ForEachSqlNode node;
+    private String prefix;
+    private boolean prefixApplied;
+    private int itemNumber;
+
+    ItemFrame(Frame parent, ForEachSqlNode node) {
+      super(parent);
+      this.node = node;
+    }
+
+    void reset(String prefix, int itemNumber) {
+      this.prefix = prefix;
+      this.prefixApplied = false;
+      this.itemNumber = itemNumber;
+    }
+
+    @Override
+    void append(String sql) {
+      String itemized = node.itemizeParameters(sql, itemNumber);
+      if (!prefixApplied && itemized != null && itemized.trim().length() > 0) {
+        parent.append(prefix);
+        prefixApplied = true;
+      }
+      parent.append(itemized);
+    }
+  }
+
+  private static final class Loop {
+    private final Loop outer;
+    private final ForEachSqlNode node;
+    private final Iterator<?> iterator;
+    private final ItemFrame frame;
+    private boolean first = true;
+    private int index;
+
+    Loop(Loop outer, ForEachSqlNode node, Iterator<?> iterator, ItemFrame frame) {
+      this.outer = outer;
+      this.node = node;
+      this.iterator = iterator;
+      this.frame = frame;
+    }
+
+    void next(Run run) {
+      String separator = node.getSeparator();
+      frame.reset(first || separator == null ? "" : separator, node.bindItem(run.context, iterator.next(), index));
+    }
+  }
+
+  private abstract static class Instruction {
+    /**
+     * Executes the instruction.
+     *
+     * @return the index of the next instruction
+     */
+    abstract int execute(Run run, int pc);
+
+    void collectExpressions(Set<String> expressions) {
+      // most instructions evaluate no expression
+    }
+
+    void collectForEachNodes(List<ForEachSqlNode> forEachSqlNodes) {
+      // only the loops and the nodes that were not compiled hold foreach nodes
+    }
+  }
+
+  private static final class Text extends Instruction {
+    private final String text;
+
+    Text(String text) {
+      this.text = text;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      run.frame.append(text);
+      return pc + 1;
+    }
+  }
+
+  private static final class DynamicText extends Instruction {
+    private final TextSqlNode node;
+
+    DynamicText(TextSqlNode node) {
+      this.node = node;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      run.frame.append(node.evaluate(run.bindings));
+      return pc + 1;
+    }
+
+    @Override
+    void collectExpressions(Set<String> expressions) {
+      node.collectExpressions(expressions);
+    }
+  }
+
+  private static final class Jump extends Instruction {
+    private int target;
+
+    @Override
+    int execute(Run run, int pc) {
+      return target;
+    }
+  }
+
+  private static final class JumpIfFalse extends Instruction {
+    private final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+    private final String test;
+    private int target;
+
+    JumpIfFalse(String test) {
+      this.test = test;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      return evaluator.evaluateBoolean(test, run.bindings) ? pc + 1 : target;
+    }
+
+    @Override
+    void collectExpressions(Set<String> expressions) {
+      expressions.add(test);
+    }
+  }
+
+  private static final class Bind extends Instruction {
+    private final String name;
+    private final String expression;
+
+    Bind(String name, String expression) {
+      this.name = name;
+      this.expression = expression;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      run.context.bind(name, OgnlCache.getValue(expression, run.bindings));
+      return pc + 1;
+    }
+
+    @Override
+    void collectExpressions(Set<String> expressions) {
+      expressions.add(expression);
+    }
+  }
+
+  private static final class TrimBegin extends Instruction {
+    @Override
+    int execute(Run run, int pc) {
+      run.frame = new TrimFrame(run.frame);
+      return pc + 1;
+    }
+  }
+
+  private static final class TrimEnd extends Instruction {
+    private final TrimSqlNode node;
+
+    TrimEnd(TrimSqlNode node) {
+      this.node = node;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      TrimFrame frame = (TrimFrame) run.frame;
+      run.frame = frame.parent;
+      run.frame.append(node.trim(frame.sqlBuffer));
+      return pc + 1;
+    }
+  }
+
+  private static final class ForEachBegin extends Instruction {
+    private final ForEachSqlNode node;
+    private int target;
+
+    ForEachBegin(ForEachSqlNode node) {
+      this.node = node;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      Iterator<?> iterator = node.evaluateIterable(run.bindings).iterator();
+      if (!iterator.hasNext()) {
+        return target;
+      }
+      if (node.getOpen() != null) {
+        run.frame.append(node.getOpen());
+      }
+      Loop loop = new Loop(run.loop, node, iterator, new ItemFrame(run.frame, node));
+      loop.next(run);
+      run.loop = loop;
+      run.frame = loop.frame;
+      return pc + 1;
+    }
+
+    @Override
+    void collectExpressions(Set<String> expressions) {
+      expressions.add(node.getCollectionExpression());
+    }
+
+    @Override
+    void collectForEachNodes(List<ForEachSqlNode> forEachSqlNodes) {
+      forEachSqlNodes.add(node);
+    }
+  }
+
+  private static final class ForEachNext extends Instruction {
+    private final int body;
+
+    ForEachNext(int body) {
+      this.body = body;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      Loop loop = run.loop;
+      if (loop.first) {
+        loop.first = !loop.frame.prefixApplied;
+      }
+      if (loop.iterator.hasNext()) {
+        loop.index++;
+        loop.next(run);
+        return body;
+      }
+      run.loop = loop.outer;
+      run.frame = loop.frame.parent;
+      if (loop.node.getClose() != null) {
+        run.frame.append(loop.node.getClose());
+      }
+      loop.node.unbindItem(run.bindings);
+      return pc + 1;
+    }
+  }
+
+  private static final class Apply extends Instruction {
+    private final SqlNode node;
+
+    Apply(SqlNode node) {
+      this.node = node;
+    }
+
+    @Override
+    int execute(Run run, int pc) {
+      node.apply(run.adapter());
+      return pc + 1;
+    }
+
+    @Override
+    void collectExpressions(Set<String> expressions) {
+      SqlNodeExpressions.collect(node, expressions);
+    }
+
+    @Override
+    void collectForEachNodes(List<ForEachSqlNode> forEachSqlNodes) {
+      SqlNodeExpressions.collectForEachNodes(node, forEachSqlNodes);
+    }
+  }
+
+  /**
+   * Lets a node that was not compiled write to the running program.
+   */
+  private static final class RunContext extends DynamicContext {
+    private final Run run;
+
+    RunContext(Run run) {
+      this.run = run;
+    }
+
+    @Override
+    public Map<String, Object> getBindings() {
+      return run.context.getBindings();
+    }
+
+    @Override
+    public void bind(String name, Object value) {
+      run.context.bind(name, value);
+    }
+
+    @Override
+    public void appendSql(String sql) {
+      run.frame.append(sql);
+    }
+
+    @Override
+    public String getSql() {
+      return run.context.getSql();
+    }
+
+    @Override
+    public int getUniqueNumber() {
+      return run.context.getUniqueNumber();
+    }
+  }
+
+}
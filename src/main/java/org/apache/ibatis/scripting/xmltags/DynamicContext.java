@@ -22,6 +22,7 @@ import java.util.StringJoiner;
 import ognl.OgnlContext;
 import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
+import ognl.enhance.UnsupportedCompilationException;
 
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
@@ -40,16 +41,25 @@ public class DynamicContext {
   }
 
   private final ContextMap bindings;
-  private final StringJoiner sqlBuilder = new StringJoiner(" ");
+  private final StringJoiner sqlBuilder;
   private int uniqueNumber = 0;
 
+  /**
+   * Constructor for the contexts that delegate to another one, they hold neither bindings nor sql.
+   */
+  DynamicContext() {
+    bindings = null;
+    sqlBuilder = null;
+  }
+
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    sqlBuilder = new StringJoiner(" ");
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-      bindings = new ContextMap(metaObject, existsTypeHandler);
+      bindings = new ContextMap(metaObject, existsTypeHandler, configuration.isOgnlCompilationEnabled());
     } else {
-      bindings = new ContextMap(null, false);
+      bindings = new ContextMap(null, false, configuration.isOgnlCompilationEnabled());
     }
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
@@ -79,10 +89,28 @@ public class DynamicContext {
     private static final long serialVersionUID = 2977601501966151582L;
     private final MetaObject parameterMetaObject;
     private final boolean fallbackParameterObject;
+    private final boolean ognlCompilationEnabled;
 
     public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
+      this(parameterMetaObject, fallbackParameterObject, false);
+    }
+
+    public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject, boolean ognlCompilationEnabled) {
       this.parameterMetaObject = parameterMetaObject;
       this.fallbackParameterObject = fallbackParameterObject;
+      this.ognlCompilationEnabled = ognlCompilationEnabled;
+    }
+
+    public boolean isOgnlCompilationEnabled() {
+      return ognlCompilationEnabled;
+    }
+
+    /**
+     * Returns the type of the parameter object, the compiled expressions are specialized to it.
+     */
+    Class<?> getParameterType() {
+      Object parameterObject = super.get(PARAMETER_OBJECT_KEY);
+      return parameterObject == null ? Void.class : parameterObject.getClass();
     }
 
     @Override
@@ -93,6 +121,11 @@ public class DynamicContext {
       }
 
       if (parameterMetaObject == null) {
+        // the compiled expressions call this method instead of ContextAccessor, that falls back to the Map parameter
+        Object parameterObject = super.get(PARAMETER_OBJECT_KEY);
+        if (ognlCompilationEnabled && parameterObject instanceof Map) {
+          return ((Map) parameterObject).get(strKey);
+        }
         return null;
       }
 
@@ -131,13 +164,19 @@ public class DynamicContext {
     }
 
     @Override
-    public String getSourceAccessor(OgnlContext arg0, Object arg1, Object arg2) {
-      return null;
+    public String getSourceAccessor(OgnlContext context, Object target, Object index) {
+      // the compiled accessor calls ContextMap#get so it resolves names exactly like getProperty
+      if (!(index instanceof String)) {
+        throw new UnsupportedCompilationException("Only string keys can be compiled for the context map.");
+      }
+      context.setCurrentAccessor(Map.class);
+      context.setCurrentType(Object.class);
+      return ".get(" + index + ")";
     }
 
     @Override
-    public String getSourceSetter(OgnlContext arg0, Object arg1, Object arg2) {
-      return null;
+    public String getSourceSetter(OgnlContext context, Object target, Object index) {
+      throw new UnsupportedCompilationException("Assignments to the context map are not compiled.");
     }
   }
 }
@@ -15,9 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -28,22 +39,188 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final List<ForEachSqlNode> forEachSqlNodes = new ArrayList<>();
+  private final Map<ShapeKey, SqlShape> shapeCache = new ConcurrentHashMap<>();
+  private final LongAdder shapeCacheHits = new LongAdder();
+  private final LongAdder shapeCacheMisses = new LongAdder();
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    SqlNodeExpressions.collectForEachNodes(rootSqlNode, forEachSqlNodes);
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql boundSql;
+    int shapeCacheSize = configuration.getDynamicSqlShapeCacheSize();
+    if (shapeCacheSize > 0) {
+      boundSql = getCachedShape(context, parameterType, shapeCacheSize).getBoundSql(parameterObject);
+    } else {
+      SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+      SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+      boundSql = sqlSource.getBoundSql(parameterObject);
+    }
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     return boundSql;
   }
 
+  /**
+   * Gets the number of calls that reused a cached SQL shape.
+   *
+   * @return the shape cache hit count
+   * @since 3.5.8
+   */
+  public long getShapeCacheHits() {
+    return shapeCacheHits.sum();
+  }
+
+  /**
+   * Gets the number of calls that had to parse the generated SQL.
+   *
+   * @return the shape cache miss count
+   * @since 3.5.8
+   */
+  public long getShapeCacheMisses() {
+    return shapeCacheMisses.sum();
+  }
+
+  /**
+   * Gets the number of distinct SQL shapes held by this source.
+   *
+   * @return the shape cache size
+   * @since 3.5.8
+   */
+  public int getShapeCacheSize() {
+    return shapeCache.size();
+  }
+
+  /**
+   * Gets the number of distinct collection sizes the <code>&lt;foreach&gt;</code> elements of this source iterated
+   * over, summed over the elements. It is only counted for the elements that are padded.
+   *
+   * @return the distinct foreach size count
+   * @since 3.5.8
+   */
+  public int getDistinctForEachSizeCount() {
+    return forEachSqlNodes.stream().mapToInt(ForEachSqlNode::getDistinctSizeCount).sum();
+  }
+
+  /**
+   * Gets the number of distinct sizes the collections of the <code>&lt;foreach&gt;</code> elements of this source were
+   * padded to, summed over the elements. It is only counted for the elements that are padded.
+   *
+   * @return the distinct padded foreach size count
+   * @since 3.5.8
+   */
+  public int getDistinctForEachPaddedSizeCount() {
+    return forEachSqlNodes.stream().mapToInt(ForEachSqlNode::getDistinctPaddedSizeCount).sum();
+  }
+
+  /**
+   * Gets the OGNL expressions the sql node tree may evaluate.
+   *
+   * @return the expressions, in the order they appear
+   * @since 3.5.8
+   */
+  public Set<String> getExpressions() {
+    Set<String> expressions = new LinkedHashSet<>();
+    SqlNodeExpressions.collect(rootSqlNode, expressions);
+    return expressions;
+  }
+
+  private SqlShape getCachedShape(DynamicContext context, Class<?> parameterType, int shapeCacheSize) {
+    String sql = context.getSql();
+    ShapeKey key = new ShapeKey(sql, parameterType);
+    MetaObject metaBindings = configuration.newMetaObject(context.getBindings());
+    SqlShape shape = shapeCache.get(key);
+    if (shape != null && shape.matches(metaBindings)) {
+      shapeCacheHits.increment();
+      return shape;
+    }
+    shapeCacheMisses.increment();
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    SqlSource sqlSource = sqlSourceParser.parse(sql, parameterType, context.getBindings());
+    shape = new SqlShape(sqlSource.getBoundSql(null), metaBindings);
+    // the cache stops growing once full, a statement producing unbounded shapes must not leak memory
+    if (shapeCache.size() < shapeCacheSize || shapeCache.containsKey(key)) {
+      shapeCache.put(key, shape);
+    }
+    return shape;
+  }
+
+  private static final class ShapeKey {
+    private final String sql;
+    private final Class<?> parameterType;
+    private final int hashCode;
+
+    ShapeKey(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+      this.hashCode = 31 * sql.hashCode() + parameterType.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ShapeKey)) {
+        return false;
+      }
+      ShapeKey other = (ShapeKey) o;
+      return parameterType == other.parameterType && sql.equals(other.sql);
+    }
+  }
+
+  /**
+   * The parsed form of one generated SQL text: the final SQL and its parameter mappings.
+   * <p>
+   * Parameter mappings that point to additional bindings (e.g. foreach items) got their java type from the
+   * binding value, so which properties were bound and their types are recorded and checked before the shape is reused.
+   */
+  private final class SqlShape {
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+    private final String[] properties;
+    private final Class<?>[] boundTypes;
+
+    SqlShape(BoundSql parsed, MetaObject metaBindings) {
+      this.sql = parsed.getSql();
+      this.parameterMappings = Collections.unmodifiableList(new ArrayList<>(parsed.getParameterMappings()));
+      this.properties = new String[parameterMappings.size()];
+      this.boundTypes = new Class<?>[parameterMappings.size()];
+      for (int i = 0; i < properties.length; i++) {
+        String property = parameterMappings.get(i).getProperty();
+        properties[i] = property;
+        if (property != null && metaBindings.hasGetter(property)) {
+          boundTypes[i] = metaBindings.getGetterType(property);
+        }
+      }
+    }
+
+    boolean matches(MetaObject metaBindings) {
+      for (int i = 0; i < properties.length; i++) {
+        String property = properties[i];
+        boolean bound = property != null && metaBindings.hasGetter(property);
+        if (bound != (boundTypes[i] != null) || bound && metaBindings.getGetterType(property) != boundTypes[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    BoundSql getBoundSql(Object parameterObject) {
+      return new BoundSql(configuration, sql, parameterMappings, parameterObject);
+    }
+  }
+
 }
@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.builder.BuilderException;
+
+/**
+ * The size a <code>&lt;foreach&gt;</code> collection is padded to: <code>none</code>, <code>pow2</code> (the next
+ * power of two) or a comma separated list of bucket sizes. Sizes above the largest bucket are rounded up to a multiple
+ * of it.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class ForEachPadding {
+
+  static final ForEachPadding NONE = new ForEachPadding(false, null);
+  private static final ForEachPadding POWER_OF_TWO = new ForEachPadding(true, null);
+
+  private final boolean powerOfTwo;
+  private final int[] buckets;
+
+  private ForEachPadding(boolean powerOfTwo, int[] buckets) {
+    this.powerOfTwo = powerOfTwo;
+    this.buckets = buckets;
+  }
+
+  static ForEachPadding parse(String padding) {
+    if (padding == null || padding.trim().isEmpty() || "none".equalsIgnoreCase(padding.trim())) {
+      return NONE;
+    }
+    if ("pow2".equalsIgnoreCase(padding.trim())) {
+      return POWER_OF_TWO;
+    }
+    try {
+      int[] buckets = Arrays.stream(padding.split(",")).map(String::trim).mapToInt(Integer::parseInt).sorted().toArray();
+      if (buckets[0] <= 0) {
+        throw new NumberFormatException();
+      }
+      return new ForEachPadding(false, buckets);
+    } catch (NumberFormatException e) {
+      throw new BuilderException("Invalid foreach padding '" + padding
+          + "'. It must be 'none', 'pow2' or a comma separated list of positive bucket sizes.");
+    }
+  }
+
+  boolean isEnabled() {
+    return this != NONE;
+  }
+
+  int pad(int size) {
+    if (size == 0 || !isEnabled()) {
+      return size;
+    }
+    if (powerOfTwo) {
+      return size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+    for (int bucket : buckets) {
+      if (size <= bucket) {
+        return bucket;
+      }
+    }
+    int largest = buckets[buckets.length - 1];
+    return (size + largest - 1) / largest * largest;
+  }
+
+}
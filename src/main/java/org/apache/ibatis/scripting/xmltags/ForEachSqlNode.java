@@ -15,7 +15,12 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
@@ -26,6 +31,13 @@ import org.apache.ibatis.session.Configuration;
  */
 public class ForEachSqlNode implements SqlNode {
   public static final String ITEM_PREFIX = "__frch_";
+  /**
+   * The binding holding the items (and indexes) of all the foreach elements of a statement, when the positional
+   * bindings are enabled.
+   *
+   * @since 3.5.8
+   */
+  public static final String POSITIONAL_ITEMS = "__frch";
 
   private final ExpressionEvaluator evaluator;
   private final String collectionExpression;
@@ -36,8 +48,33 @@ public class ForEachSqlNode implements SqlNode {
   private final String item;
   private final String index;
   private final Configuration configuration;
+  private final Pattern itemPattern;
+  private final Pattern indexPattern;
+  private final ForEachPadding padding;
+  private final boolean positionalBindings;
+  private final Set<Integer> sizes = ConcurrentHashMap.newKeySet();
+  private final Set<Integer> paddedSizes = ConcurrentHashMap.newKeySet();
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, null);
+  }
+
+  /**
+   * Instantiates a new for each sql node.
+   *
+   * @param configuration the configuration
+   * @param contents the contents
+   * @param collectionExpression the collection expression
+   * @param index the index
+   * @param item the item
+   * @param open the open
+   * @param close the close
+   * @param separator the separator
+   * @param padding the padding: {@code none}, {@code pow2} or a comma separated list of bucket sizes, {@code null} for
+   *          none
+   * @since 3.5.8
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, String padding) {
     this.evaluator = new ExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
@@ -47,12 +84,37 @@ public class ForEachSqlNode implements SqlNode {
     this.index = index;
     this.item = item;
     this.configuration = configuration;
+    this.itemPattern = Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+    this.indexPattern = index == null ? null : Pattern.compile("^\\s*" + index + "(?![^.,:\\s])");
+    this.padding = ForEachPadding.parse(padding);
+    this.positionalBindings = configuration.isPositionalForEachBindings();
+  }
+
+  /**
+   * Gets the number of distinct collection sizes this node iterated over. It is only counted when padding is enabled.
+   *
+   * @return the distinct collection size count
+   * @since 3.5.8
+   */
+  public int getDistinctSizeCount() {
+    return sizes.size();
+  }
+
+  /**
+   * Gets the number of distinct sizes the collections were padded to, i.e. the number of distinct SQL shapes this node
+   * produced. It is only counted when padding is enabled.
+   *
+   * @return the distinct padded size count
+   * @since 3.5.8
+   */
+  public int getDistinctPaddedSizeCount() {
+    return paddedSizes.size();
   }
 
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
-    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    final Iterable<?> iterable = evaluateIterable(bindings);
     if (!iterable.iterator().hasNext()) {
       return true;
     }
@@ -66,18 +128,8 @@ public class ForEachSqlNode implements SqlNode {
       } else {
         context = new PrefixedContext(context, separator);
       }
-      int uniqueNumber = context.getUniqueNumber();
-      // Issue #709
-      if (o instanceof Map.Entry) {
-        @SuppressWarnings("unchecked")
-        Map.Entry<Object, Object> mapEntry = (Map.Entry<Object, Object>) o;
-        applyIndex(context, mapEntry.getKey(), uniqueNumber);
-        applyItem(context, mapEntry.getValue(), uniqueNumber);
-      } else {
-        applyIndex(context, i, uniqueNumber);
-        applyItem(context, o, uniqueNumber);
-      }
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
+      int itemNumber = bindItem(context, o, i);
+      contents.apply(new FilteredDynamicContext(context, itemNumber));
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
       }
@@ -85,25 +137,10 @@ public class ForEachSqlNode implements SqlNode {
       i++;
     }
     applyClose(context);
-    context.getBindings().remove(item);
-    context.getBindings().remove(index);
+    unbindItem(context.getBindings());
     return true;
   }
 
-  private void applyIndex(DynamicContext context, Object o, int i) {
-    if (index != null) {
-      context.bind(index, o);
-      context.bind(itemizeItem(index, i), o);
-    }
-  }
-
-  private void applyItem(DynamicContext context, Object o, int i) {
-    if (item != null) {
-      context.bind(item, o);
-      context.bind(itemizeItem(item, i), o);
-    }
-  }
-
   private void applyOpen(DynamicContext context) {
     if (open != null) {
       context.appendSql(open);
@@ -116,22 +153,143 @@ public class ForEachSqlNode implements SqlNode {
     }
   }
 
-  private static String itemizeItem(String item, int i) {
+  Iterable<?> evaluateIterable(Map<String, Object> bindings) {
+    Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    return padding.isEnabled() ? pad(iterable) : iterable;
+  }
+
+  private Iterable<?> pad(Iterable<?> iterable) {
+    List<Object> items;
+    if (iterable instanceof List) {
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) iterable;
+      items = list;
+    } else {
+      items = new ArrayList<>();
+      iterable.forEach(items::add);
+    }
+    int size = items.size();
+    if (size == 0) {
+      return items;
+    }
+    int paddedSize = padding.pad(size);
+    sizes.add(size);
+    paddedSizes.add(paddedSize);
+    if (paddedSize == size) {
+      return items;
+    }
+    List<Object> padded = new ArrayList<>(paddedSize);
+    padded.addAll(items);
+    Object last = items.get(size - 1);
+    while (padded.size() < paddedSize) {
+      padded.add(last);
+    }
+    return padded;
+  }
+
+  /**
+   * Binds one item of the collection.
+   *
+   * @return the number the placeholders of this item are rewritten with
+   */
+  int bindItem(DynamicContext context, Object o, int i) {
+    Object indexValue = i;
+    Object itemValue = o;
+    // Issue #709
+    if (o instanceof Map.Entry) {
+      Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+      indexValue = mapEntry.getKey();
+      itemValue = mapEntry.getValue();
+    }
+    if (positionalBindings) {
+      // the item and the index are only kept in one list, instead of a binding per item
+      @SuppressWarnings("unchecked")
+      List<Object> items = (List<Object>) context.getBindings().computeIfAbsent(POSITIONAL_ITEMS, key -> new ArrayList<>());
+      int position = items.size();
+      items.add(itemValue);
+      if (index != null) {
+        items.add(indexValue);
+        context.bind(index, indexValue);
+      }
+      if (item != null) {
+        context.bind(item, itemValue);
+      }
+      return position;
+    }
+    int uniqueNumber = context.getUniqueNumber();
+    if (index != null) {
+      context.bind(index, indexValue);
+      context.bind(itemizeItem(index, uniqueNumber), indexValue);
+    }
+    if (item != null) {
+      context.bind(item, itemValue);
+      context.bind(itemizeItem(item, uniqueNumber), itemValue);
+    }
+    return uniqueNumber;
+  }
+
+  void unbindItem(Map<String, Object> bindings) {
+    bindings.remove(item);
+    bindings.remove(index);
+  }
+
+  /**
+   * Rewrites the <code>#{item}</code> and <code>#{index}</code> placeholders in the sql generated for one item so
+   * that they refer to the item's own bindings.
+   */
+  String itemizeParameters(String sql, int itemNumber) {
+    if (sql != null && sql.indexOf("#{") < 0) {
+      return sql;
+    }
+    GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
+      String newContent = itemPattern.matcher(content).replaceFirst(itemReference(itemNumber));
+      if (indexPattern != null && newContent.equals(content)) {
+        newContent = indexPattern.matcher(content).replaceFirst(indexReference(itemNumber));
+      }
+      return "#{" + newContent + "}";
+    });
+    return parser.parse(sql);
+  }
+
+  private String itemReference(int itemNumber) {
+    return positionalBindings ? POSITIONAL_ITEMS + "[" + itemNumber + "]" : itemizeItem(item, itemNumber);
+  }
+
+  private String indexReference(int itemNumber) {
+    return positionalBindings ? POSITIONAL_ITEMS + "[" + (itemNumber + 1) + "]" : itemizeItem(index, itemNumber);
+  }
+
+  String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  String getOpen() {
+    return open;
+  }
+
+  String getClose() {
+    return close;
+  }
+
+  String getSeparator() {
+    return separator;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
+  static String itemizeItem(String item, int i) {
     return ITEM_PREFIX + item + "_" + i;
   }
 
-  private static class FilteredDynamicContext extends DynamicContext {
+  private class FilteredDynamicContext extends DynamicContext {
     private final DynamicContext delegate;
     private final int index;
-    private final String itemIndex;
-    private final String item;
 
-    public FilteredDynamicContext(Configuration configuration,DynamicContext delegate, String itemIndex, String item, int i) {
-      super(configuration, null);
+    public FilteredDynamicContext(DynamicContext delegate, int i) {
       this.delegate = delegate;
       this.index = i;
-      this.itemIndex = itemIndex;
-      this.item = item;
     }
 
     @Override
@@ -151,15 +309,7 @@ public class ForEachSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
-      GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
-        String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizeItem(item, index));
-        if (itemIndex != null && newContent.equals(content)) {
-          newContent = content.replaceFirst("^\\s*" + itemIndex + "(?![^.,:\\s])", itemizeItem(itemIndex, index));
-        }
-        return "#{" + newContent + "}";
-      });
-
-      delegate.appendSql(parser.parse(sql));
+      delegate.appendSql(itemizeParameters(sql, index));
     }
 
     @Override
@@ -176,7 +326,6 @@ public class ForEachSqlNode implements SqlNode {
     private boolean prefixApplied;
 
     public PrefixedContext(DynamicContext delegate, String prefix) {
-      super(configuration, null);
       this.delegate = delegate;
       this.prefix = prefix;
       this.prefixApplied = false;
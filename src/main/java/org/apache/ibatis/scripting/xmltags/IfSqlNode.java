@@ -39,4 +39,12 @@ public class IfSqlNode implements SqlNode {
     return false;
   }
 
+  String getTest() {
+    return test;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
 }
@@ -16,15 +16,30 @@
 package org.apache.ibatis.scripting.xmltags;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import ognl.Node;
 import ognl.Ognl;
+import ognl.OgnlContext;
 import ognl.OgnlException;
+import ognl.enhance.ExpressionAccessor;
 
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.util.MapUtil;
 
 /**
  * Caches OGNL parsed expressions.
+ * <p>
+ * When the OGNL compilation is enabled on the {@link org.apache.ibatis.session.Configuration}, expressions evaluated
+ * more than {@link #COMPILE_THRESHOLD} times are also compiled to bytecode, and the evaluation context is reused per
+ * thread. The compiled code is specialized to the types seen while compiling, so an expression is compiled per type
+ * of parameter object. When the compiled code fails, the evaluation fails and the expression is interpreted for that
+ * type from now on; it is not evaluated again by the interpreter as it may have side effects. On Java 9 or later,
+ * expressions are compiled only if {@code java.base/java.lang} is opened to Javassist, they are interpreted otherwise.
  *
  * 翻译：https://github.com/g1335333249/mybatis-3
  * @author Eduardo Macarron
@@ -33,9 +48,14 @@ import org.apache.ibatis.builder.BuilderException;
  */
 public final class OgnlCache {
 
+  static final int COMPILE_THRESHOLD = 16;
+
+  private static final Log log = LogFactory.getLog(OgnlCache.class);
   private static final OgnlMemberAccess MEMBER_ACCESS = new OgnlMemberAccess();
   private static final OgnlClassResolver CLASS_RESOLVER = new OgnlClassResolver();
   private static final Map<String, Object> expressionCache = new ConcurrentHashMap<>();
+  private static final Map<String, Map<Class<?>, CompilableExpression>> compilableExpressionCache = new ConcurrentHashMap<>();
+  private static final ThreadLocal<ReusableContext> reusableContext = ThreadLocal.withInitial(ReusableContext::new);
 
   private OgnlCache() {
     // Prevent Instantiation of Static Class
@@ -43,6 +63,9 @@ public final class OgnlCache {
 
   public static Object getValue(String expression, Object root) {
     try {
+      if (root instanceof DynamicContext.ContextMap && ((DynamicContext.ContextMap) root).isOgnlCompilationEnabled()) {
+        return getCompiledValue(expression, (DynamicContext.ContextMap) root);
+      }
       Map context = Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
       return Ognl.getValue(parseExpression(expression), context, root);
     } catch (OgnlException e) {
@@ -50,6 +73,39 @@ public final class OgnlCache {
     }
   }
 
+  /**
+   * Returns whether the expression has been compiled to bytecode.
+   *
+   * @param expression the OGNL expression
+   * @return {@code true} if the compiled form is used to evaluate the expression
+   * @since 3.5.8
+   */
+  public static boolean isCompiled(String expression) {
+    Map<Class<?>, CompilableExpression> compilables = compilableExpressionCache.get(expression);
+    return compilables != null && compilables.values().stream().anyMatch(compilable -> compilable.accessor != null);
+  }
+
+  static boolean isCompiled(String expression, Class<?> parameterType) {
+    Map<Class<?>, CompilableExpression> compilables = compilableExpressionCache.get(expression);
+    CompilableExpression compilable = compilables == null ? null : compilables.get(parameterType);
+    return compilable != null && compilable.accessor != null;
+  }
+
+  /**
+   * Parses an expression ahead of its first evaluation.
+   *
+   * @param expression the OGNL expression
+   * @throws BuilderException if the expression is invalid
+   * @since 3.5.8
+   */
+  public static void parse(String expression) {
+    try {
+      parseExpression(expression);
+    } catch (OgnlException e) {
+      throw new BuilderException("Error parsing expression '" + expression + "'. Cause: " + e, e);
+    }
+  }
+
   private static Object parseExpression(String expression) throws OgnlException {
     Object node = expressionCache.get(expression);
     if (node == null) {
@@ -59,4 +115,119 @@ public final class OgnlCache {
     return node;
   }
 
+  private static Object getCompiledValue(String expression, DynamicContext.ContextMap root) throws OgnlException {
+    Map<Class<?>, CompilableExpression> compilables = MapUtil.computeIfAbsent(compilableExpressionCache, expression,
+        k -> new ConcurrentHashMap<>());
+    Class<?> parameterType = root.getParameterType();
+    CompilableExpression compilable = compilables.get(parameterType);
+    if (compilable == null) {
+      compilable = new CompilableExpression(expression, parseExpression(expression));
+      compilables.put(parameterType, compilable);
+    }
+    ExpressionAccessor accessor = compilable.getAccessor(root);
+    ReusableContext holder = reusableContext.get();
+    OgnlContext context = holder.acquire(root);
+    try {
+      if (accessor != null) {
+        try {
+          return Ognl.getValue(accessor, context, root);
+        } catch (RuntimeException e) {
+          // the compiled code is specialized to the types seen while compiling, interpret this parameter type from now
+          // on; the expression is not evaluated again as it may have side effects
+          compilable.deoptimize();
+          throw new BuilderException("Error evaluating compiled expression '" + expression
+              + "', it is interpreted from now on. Cause: " + e, e);
+        }
+      }
+      return Ognl.getValue(compilable.node, context, root);
+    } finally {
+      holder.release(context);
+    }
+  }
+
+  private static OgnlContext createContext(Object root) {
+    return (OgnlContext) Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
+  }
+
+  private static final class CompilableExpression {
+    private final String expression;
+    private final Object node;
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private volatile ExpressionAccessor accessor;
+    private volatile boolean compilable = true;
+
+    CompilableExpression(String expression, Object node) {
+      this.expression = expression;
+      this.node = node;
+    }
+
+    ExpressionAccessor getAccessor(Object root) {
+      ExpressionAccessor current = accessor;
+      if (current != null || !compilable || evaluations.incrementAndGet() < COMPILE_THRESHOLD) {
+        return current;
+      }
+      synchronized (this) {
+        if (accessor == null && compilable) {
+          compile(root);
+        }
+      }
+      return accessor;
+    }
+
+    void deoptimize() {
+      compilable = false;
+      accessor = null;
+    }
+
+    private void compile(Object root) {
+      try {
+        Node compiled = Ognl.compileExpression(createContext(root), root, expression);
+        ExpressionAccessor candidate = compiled.getAccessor();
+        // the compiler silently keeps interpreting some nodes, and may disagree with the interpreter on conversions
+        if (candidate != null && Objects.equals(Ognl.getValue(candidate, createContext(root), root),
+            Ognl.getValue(node, createContext(root), root))) {
+          accessor = candidate;
+        } else {
+          compilable = false;
+        }
+      } catch (Exception | LinkageError e) {
+        // e.g. on Java 9 or later, Javassist cannot define classes unless java.base/java.lang is opened
+        if (log.isDebugEnabled()) {
+          log.debug("Expression '" + expression + "' could not be compiled, it keeps being interpreted. Cause: " + e);
+        }
+        compilable = false;
+      }
+    }
+  }
+
+  /**
+   * Evaluation context kept per thread. A nested evaluation on the same thread (e.g. a method called from an
+   * expression that runs another statement) gets a fresh context.
+   */
+  private static final class ReusableContext {
+    private OgnlContext context;
+    private boolean inUse;
+
+    OgnlContext acquire(Object root) {
+      if (inUse) {
+        return createContext(root);
+      }
+      inUse = true;
+      if (context == null) {
+        context = createContext(root);
+      } else {
+        context.setRoot(root);
+      }
+      return context;
+    }
+
+    void release(OgnlContext released) {
+      if (released == context) {
+        // do not retain the parameter object, nor variables assigned by the expression
+        context.clear();
+        inUse = false;
+      }
+    }
+  }
+
 }
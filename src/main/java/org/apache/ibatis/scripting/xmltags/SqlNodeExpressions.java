@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the OGNL expressions a sql node tree evaluates: <code>test</code>, <code>bind</code> and
+ * <code>collection</code> attributes, and <code>${}</code> tokens. Nodes of other types are skipped. Also collects
+ * the <code>&lt;foreach&gt;</code> nodes of a tree.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class SqlNodeExpressions {
+
+  private SqlNodeExpressions() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static void collect(SqlNode node, Set<String> expressions) {
+    if (node instanceof MixedSqlNode) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        collect(child, expressions);
+      }
+    } else if (node instanceof IfSqlNode) {
+      IfSqlNode ifSqlNode = (IfSqlNode) node;
+      expressions.add(ifSqlNode.getTest());
+      collect(ifSqlNode.getContents(), expressions);
+    } else if (node instanceof ChooseSqlNode) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      for (SqlNode ifSqlNode : chooseSqlNode.getIfSqlNodes()) {
+        collect(ifSqlNode, expressions);
+      }
+      if (chooseSqlNode.getDefaultSqlNode() != null) {
+        collect(chooseSqlNode.getDefaultSqlNode(), expressions);
+      }
+    } else if (node instanceof TrimSqlNode) {
+      collect(((TrimSqlNode) node).getContents(), expressions);
+    } else if (node instanceof ForEachSqlNode) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      expressions.add(forEachSqlNode.getCollectionExpression());
+      collect(forEachSqlNode.getContents(), expressions);
+    } else if (node instanceof VarDeclSqlNode) {
+      expressions.add(((VarDeclSqlNode) node).getExpression());
+    } else if (node instanceof TextSqlNode) {
+      ((TextSqlNode) node).collectExpressions(expressions);
+    } else if (node instanceof CompiledSqlNode) {
+      ((CompiledSqlNode) node).collectExpressions(expressions);
+    }
+  }
+
+  static void collectForEachNodes(SqlNode node, List<ForEachSqlNode> forEachSqlNodes) {
+    if (node instanceof MixedSqlNode) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        collectForEachNodes(child, forEachSqlNodes);
+      }
+    } else if (node instanceof IfSqlNode) {
+      collectForEachNodes(((IfSqlNode) node).getContents(), forEachSqlNodes);
+    } else if (node instanceof ChooseSqlNode) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      for (SqlNode ifSqlNode : chooseSqlNode.getIfSqlNodes()) {
+        collectForEachNodes(ifSqlNode, forEachSqlNodes);
+      }
+      if (chooseSqlNode.getDefaultSqlNode() != null) {
+        collectForEachNodes(chooseSqlNode.getDefaultSqlNode(), forEachSqlNodes);
+      }
+    } else if (node instanceof TrimSqlNode) {
+      collectForEachNodes(((TrimSqlNode) node).getContents(), forEachSqlNodes);
+    } else if (node instanceof ForEachSqlNode) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      forEachSqlNodes.add(forEachSqlNode);
+      collectForEachNodes(forEachSqlNode.getContents(), forEachSqlNodes);
+    } else if (node instanceof CompiledSqlNode) {
+      ((CompiledSqlNode) node).collectForEachNodes(forEachSqlNodes);
+    }
+  }
+
+}
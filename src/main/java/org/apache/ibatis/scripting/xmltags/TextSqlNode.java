@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
@@ -48,34 +50,45 @@ public class TextSqlNode implements SqlNode {
 
   @Override
   public boolean apply(DynamicContext context) {
-    GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
-    context.appendSql(parser.parse(text));
+    context.appendSql(evaluate(context.getBindings()));
     return true;
   }
 
+  void collectExpressions(Set<String> expressions) {
+    createParser(content -> {
+      expressions.add(content);
+      return "";
+    }).parse(text);
+  }
+
+  String evaluate(Map<String, Object> bindings) {
+    GenericTokenParser parser = createParser(new BindingTokenParser(bindings, injectionFilter));
+    return parser.parse(text);
+  }
+
   private GenericTokenParser createParser(TokenHandler handler) {
     return new GenericTokenParser("${", "}", handler);
   }
 
   private static class BindingTokenParser implements TokenHandler {
 
-    private DynamicContext context;
+    private Map<String, Object> bindings;
     private Pattern injectionFilter;
 
-    public BindingTokenParser(DynamicContext context, Pattern injectionFilter) {
-      this.context = context;
+    public BindingTokenParser(Map<String, Object> bindings, Pattern injectionFilter) {
+      this.bindings = bindings;
       this.injectionFilter = injectionFilter;
     }
 
     @Override
     public String handleToken(String content) {
-      Object parameter = context.getBindings().get("_parameter");
+      Object parameter = bindings.get("_parameter");
       if (parameter == null) {
-        context.getBindings().put("value", null);
+        bindings.put("value", null);
       } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
-        context.getBindings().put("value", parameter);
+        bindings.put("value", parameter);
       }
-      Object value = OgnlCache.getValue(content, context.getBindings());
+      Object value = OgnlCache.getValue(content, bindings);
       String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
       checkInjection(srtValue);
       return srtValue;
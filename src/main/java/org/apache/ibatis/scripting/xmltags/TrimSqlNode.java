@@ -70,28 +70,63 @@ public class TrimSqlNode implements SqlNode {
     return Collections.emptyList();
   }
 
+  String trim(CharSequence sql) {
+    StringBuilder sqlBuffer = new StringBuilder(sql.toString().trim());
+    String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
+    if (trimmedUppercaseSql.length() > 0) {
+      applyPrefix(sqlBuffer, trimmedUppercaseSql);
+      applySuffix(sqlBuffer, trimmedUppercaseSql);
+    }
+    return sqlBuffer.toString();
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
+  private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
+    if (prefixesToOverride != null) {
+      for (String toRemove : prefixesToOverride) {
+        if (trimmedUppercaseSql.startsWith(toRemove)) {
+          sql.delete(0, toRemove.trim().length());
+          break;
+        }
+      }
+    }
+    if (prefix != null) {
+      sql.insert(0, " ");
+      sql.insert(0, prefix);
+    }
+  }
+
+  private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
+    if (suffixesToOverride != null) {
+      for (String toRemove : suffixesToOverride) {
+        if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
+          int start = sql.length() - toRemove.trim().length();
+          int end = sql.length();
+          sql.delete(start, end);
+          break;
+        }
+      }
+    }
+    if (suffix != null) {
+      sql.append(" ");
+      sql.append(suffix);
+    }
+  }
+
   private class FilteredDynamicContext extends DynamicContext {
     private DynamicContext delegate;
-    private boolean prefixApplied;
-    private boolean suffixApplied;
     private StringBuilder sqlBuffer;
 
     public FilteredDynamicContext(DynamicContext delegate) {
-      super(configuration, null);
       this.delegate = delegate;
-      this.prefixApplied = false;
-      this.suffixApplied = false;
       this.sqlBuffer = new StringBuilder();
     }
 
     public void applyAll() {
-      sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
-      String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
-      if (trimmedUppercaseSql.length() > 0) {
-        applyPrefix(sqlBuffer, trimmedUppercaseSql);
-        applySuffix(sqlBuffer, trimmedUppercaseSql);
-      }
-      delegate.appendSql(sqlBuffer.toString());
+      delegate.appendSql(trim(sqlBuffer));
     }
 
     @Override
@@ -119,44 +154,6 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getSql();
     }
 
-    private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!prefixApplied) {
-        prefixApplied = true;
-        if (prefixesToOverride != null) {
-          for (String toRemove : prefixesToOverride) {
-            if (trimmedUppercaseSql.startsWith(toRemove)) {
-              sql.delete(0, toRemove.trim().length());
-              break;
-            }
-          }
-        }
-        if (prefix != null) {
-          sql.insert(0, " ");
-          sql.insert(0, prefix);
-        }
-      }
-    }
-
-    private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!suffixApplied) {
-        suffixApplied = true;
-        if (suffixesToOverride != null) {
-          for (String toRemove : suffixesToOverride) {
-            if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
-              int start = sql.length() - toRemove.trim().length();
-              int end = sql.length();
-              sql.delete(start, end);
-              break;
-            }
-          }
-        }
-        if (suffix != null) {
-          sql.append(" ");
-          sql.append(suffix);
-        }
-      }
-    }
-
   }
 
 }
@@ -36,4 +36,12 @@ public class VarDeclSqlNode implements SqlNode {
     return true;
   }
 
+  String getName() {
+    return name;
+  }
+
+  String getExpression() {
+    return expression;
+  }
+
 }
@@ -36,6 +36,7 @@ import org.w3c.dom.NodeList;
 public class XMLScriptBuilder extends BaseBuilder {
 
   private final XNode context;
+  private final boolean select;
   private boolean isDynamic;
   private final Class<?> parameterType;
   private final Map<String, NodeHandler> nodeHandlerMap = new HashMap<>();
@@ -47,6 +48,7 @@ public class XMLScriptBuilder extends BaseBuilder {
   public XMLScriptBuilder(Configuration configuration, XNode context, Class<?> parameterType) {
     super(configuration);
     this.context = context;
+    this.select = "select".equals(context.getName());
     this.parameterType = parameterType;
     initNodeHandlerMap();
   }
@@ -68,7 +70,9 @@ public class XMLScriptBuilder extends BaseBuilder {
     MixedSqlNode rootSqlNode = parseDynamicTags(context);
     SqlSource sqlSource;
     if (isDynamic) {
-      sqlSource = new DynamicSqlSource(configuration, rootSqlNode);
+      SqlNode sqlNode = configuration.isDynamicSqlCompilationEnabled()
+          ? CompiledSqlNode.compile(configuration, rootSqlNode) : rootSqlNode;
+      sqlSource = new DynamicSqlSource(configuration, sqlNode);
     } else {
       sqlSource = new RawSqlSource(configuration, rootSqlNode, parameterType);
     }
@@ -177,7 +181,9 @@ public class XMLScriptBuilder extends BaseBuilder {
       String open = nodeToHandle.getStringAttribute("open");
       String close = nodeToHandle.getStringAttribute("close");
       String separator = nodeToHandle.getStringAttribute("separator");
-      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+      // padding repeats the last item, the default padding is only applied to selects, e.g. not to multi-row inserts
+      String padding = nodeToHandle.getStringAttribute("padding", select ? configuration.getDefaultForEachPadding() : null);
+      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, padding);
       targetContents.add(forEachSqlNode);
     }
   }
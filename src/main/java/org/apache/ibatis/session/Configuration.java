@@ -25,20 +25,32 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.TableVersions;
+import org.apache.ibatis.cache.decorators.ConcurrentLruCache;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
@@ -72,6 +84,7 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
@@ -86,6 +99,9 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.OgnlCache;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -192,6 +208,104 @@ public class Configuration {
    */
   protected boolean shrinkWhitespacesInSql;
 
+  /**
+   * 每个动态 SQL 语句缓存的 SQL 形状（生成的 SQL 文本及其参数映射）的最大数量。 设置为 0 时不缓存，每次执行都会重新解析生成的 SQL。(新增于 3.5.8)
+   * 可选值：任意非负整数
+   * 默认值：0
+   */
+  protected int dynamicSqlShapeCacheSize;
+
+  /**
+   * 是否将频繁执行的 OGNL 表达式（如 &lt;if test&gt;、&lt;when test&gt;）编译为字节码。 无法编译的表达式仍然以解释方式执行。(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean ognlCompilationEnabled;
+
+  /**
+   * 是否在构建语句时将动态 SQL 的节点树（&lt;if&gt;、&lt;trim&gt;、&lt;foreach&gt; 等）编译为扁平的指令序列，生成的 SQL 与逐节点解释的结果相同。(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean dynamicSqlCompilationEnabled;
+
+  /**
+   * 指定 &lt;foreach&gt; 元素默认的 IN 列表填充方式（元素未指定 padding 属性时使用）。 集合会以重复最后一个元素的方式补齐到 2 的幂或指定的档位大小，从而减少不同的 SQL 语句数量。 仅应在 foreach 都用于生成 IN 列表时设置。(新增于 3.5.8)
+   * 可选值：none | pow2 | 以逗号分隔的档位大小（如 10,50,100）
+   * 默认值：未设置
+   */
+  protected String defaultForEachPadding;
+
+  /**
+   * 指定 foreach 元素是否将所有元素（及索引）保存在一个按位置访问的参数列表中，而不是为每个元素创建 __frch_ 开头的参数(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean positionalForEachBindings;
+
+  /**
+   * 指定 SqlSessionFactoryBuilder 构建时是否预热映射语句：预先解析动态 SQL 的 OGNL 表达式，并预先创建参数和结果类型的反射器(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean warmUpOnBuild;
+
+  /**
+   * 指定是否为简单的结果映射（没有嵌套映射、鉴别器和构造方法映射）生成字节码行映射器，按列索引读取并直接调用 setter 方法(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean rowMapperGenerationEnabled;
+
+  /**
+   * 指定是否在同一语句的多次执行之间共享自动映射方案。方案按结果映射、列前缀和结果集的列签名（列标签、JDBC 类型和列的类名）缓存，每个语句最多缓存 256 个方案(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean autoMappingPlanCacheEnabled;
+
+  /**
+   * 指定是否按列索引读取结果列。每个结果集中，列标签只解析一次为列索引，之后通过 TypeHandler.getResult(ResultSet, int) 读取，而不是按列名读取每个单元格(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean columnIndexAccessEnabled;
+
+  /**
+   * 指定是否为只有一个或两个 id 列的嵌套结果映射使用紧凑的行键。整数类型的 id 列按原始类型读取和比较，不再为每一行创建 CacheKey(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean compactRowKeysEnabled;
+
+  /**
+   * 指定使用 ResultHandler 或 Cursor 查询嵌套结果映射时是否以流的方式处理结果。同一个结果对象的行必须相邻(与 resultOrdered="true" 相同)，读完一个结果对象的最后一行后才将其交给处理器，之后便不再保留它的状态，因此内存占用不随结果的大小增长(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean nestedResultStreamingEnabled;
+
+  /**
+   * 指定是否为使用构造方法映射的结果映射预先绑定构造方法。构造方法、参数的类型处理器和列在第一次使用时解析，之后每一行通过 MethodHandle 调用构造方法，不再为每一行创建参数列表(新增于 3.5.8)
+   * 可选择：true | false
+   * 默认值：false
+   */
+  protected boolean constructorBindingEnabled;
+
+  /**
+   * 指定读写缓存（readOnly 为 false 的二级缓存）复制缓存值所用的序列化器。(新增于 3.5.8)
+   * 一个类型别名或完全限定类名，实现 CacheSerializer 接口。
+   * 默认值：未设置（使用 Java 序列化）
+   */
+  protected Class<? extends CacheSerializer> cacheSerializer;
+
+  /**
+   * 指定是否从语句的 SQL 中解析其读写的表，用于按表失效二级缓存（仅对未声明 tables 属性的语句生效）。(新增于 3.5.8)
+   * true | false
+   * 默认值：false
+   */
+  protected boolean parseStatementTables;
+
   /**
    * 指定 MyBatis 增加到日志名称的前缀。
    * 默认值：未设置
@@ -342,6 +456,11 @@ public class Configuration {
     .conflictMessageProducer((savedValue, targetValue) ->
       ". please check " + savedValue.getResource() + " and " + targetValue.getResource());
   protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
+  protected final TableVersions tableVersions = new TableVersions();
+  /**
+   * 并行执行分块查询的线程池
+   */
+  protected ExecutorService chunkedSelectExecutor;
   protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
   protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<>("Key Generators collection");
@@ -387,6 +506,9 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("TINYLFU", TinyLfuCache.class);
+    typeAliasRegistry.registerAlias("CONCURRENT_LRU", ConcurrentLruCache.class);
+    typeAliasRegistry.registerAlias("OFF_HEAP", OffHeapCache.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -490,6 +612,286 @@ public class Configuration {
     this.shrinkWhitespacesInSql = shrinkWhitespacesInSql;
   }
 
+  /**
+   * Gets the maximum number of parsed sql shapes cached per dynamic sql statement.
+   *
+   * @return the dynamic sql shape cache size, {@code 0} means disabled
+   * @since 3.5.8
+   */
+  public int getDynamicSqlShapeCacheSize() {
+    return dynamicSqlShapeCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of parsed sql shapes cached per dynamic sql statement.
+   *
+   * @param dynamicSqlShapeCacheSize the dynamic sql shape cache size, {@code 0} means disabled
+   * @since 3.5.8
+   */
+  public void setDynamicSqlShapeCacheSize(int dynamicSqlShapeCacheSize) {
+    this.dynamicSqlShapeCacheSize = dynamicSqlShapeCacheSize;
+  }
+
+  /**
+   * Gets whether frequently evaluated OGNL expressions are compiled to bytecode.
+   *
+   * @return {@code true} if the OGNL compilation is enabled
+   * @since 3.5.8
+   */
+  public boolean isOgnlCompilationEnabled() {
+    return ognlCompilationEnabled;
+  }
+
+  /**
+   * Sets whether frequently evaluated OGNL expressions are compiled to bytecode.
+   *
+   * @param ognlCompilationEnabled {@code true} to enable the OGNL compilation
+   * @since 3.5.8
+   */
+  public void setOgnlCompilationEnabled(boolean ognlCompilationEnabled) {
+    this.ognlCompilationEnabled = ognlCompilationEnabled;
+  }
+
+  /**
+   * Gets whether dynamic SQL node trees are compiled to a flat instruction program.
+   *
+   * @return {@code true} if the dynamic SQL compilation is enabled
+   * @since 3.5.8
+   */
+  public boolean isDynamicSqlCompilationEnabled() {
+    return dynamicSqlCompilationEnabled;
+  }
+
+  /**
+   * Sets whether dynamic SQL node trees are compiled to a flat instruction program.
+   *
+   * @param dynamicSqlCompilationEnabled {@code true} to enable the dynamic SQL compilation
+   * @since 3.5.8
+   */
+  public void setDynamicSqlCompilationEnabled(boolean dynamicSqlCompilationEnabled) {
+    this.dynamicSqlCompilationEnabled = dynamicSqlCompilationEnabled;
+  }
+
+  /**
+   * Gets the padding applied to &lt;foreach&gt; elements that do not specify one.
+   *
+   * @return the default foreach padding, {@code null} means no padding
+   * @since 3.5.8
+   */
+  public String getDefaultForEachPadding() {
+    return defaultForEachPadding;
+  }
+
+  /**
+   * Sets the padding applied to &lt;foreach&gt; elements that do not specify one.
+   *
+   * @param defaultForEachPadding the default foreach padding: {@code none}, {@code pow2} or a comma separated list of bucket sizes
+   * @since 3.5.8
+   */
+  public void setDefaultForEachPadding(String defaultForEachPadding) {
+    this.defaultForEachPadding = defaultForEachPadding;
+  }
+
+  /**
+   * Gets whether the items of foreach elements are kept in a single positional binding.
+   *
+   * @return {@code true} if the items are kept in a single positional binding
+   * @since 3.5.8
+   */
+  public boolean isPositionalForEachBindings() {
+    return positionalForEachBindings;
+  }
+
+  /**
+   * Sets whether the items of foreach elements are kept in a single positional binding.
+   *
+   * @param positionalForEachBindings {@code true} to keep the items in a single positional binding
+   * @since 3.5.8
+   */
+  public void setPositionalForEachBindings(boolean positionalForEachBindings) {
+    this.positionalForEachBindings = positionalForEachBindings;
+  }
+
+  /**
+   * Gets whether the mapped statements are warmed up when the SqlSessionFactory is built.
+   *
+   * @return {@code true} if the mapped statements are warmed up on build
+   * @since 3.5.8
+   */
+  public boolean isWarmUpOnBuild() {
+    return warmUpOnBuild;
+  }
+
+  /**
+   * Sets whether the mapped statements are warmed up when the SqlSessionFactory is built.
+   *
+   * @param warmUpOnBuild {@code true} to warm up the mapped statements on build
+   * @since 3.5.8
+   */
+  public void setWarmUpOnBuild(boolean warmUpOnBuild) {
+    this.warmUpOnBuild = warmUpOnBuild;
+  }
+
+  /**
+   * Gets whether row mappers are generated for flat result maps.
+   *
+   * @return {@code true} if row mappers are generated for flat result maps
+   * @since 3.5.8
+   */
+  public boolean isRowMapperGenerationEnabled() {
+    return rowMapperGenerationEnabled;
+  }
+
+  /**
+   * Sets whether row mappers are generated for flat result maps.
+   *
+   * @param rowMapperGenerationEnabled {@code true} to generate row mappers for flat result maps
+   * @since 3.5.8
+   */
+  public void setRowMapperGenerationEnabled(boolean rowMapperGenerationEnabled) {
+    this.rowMapperGenerationEnabled = rowMapperGenerationEnabled;
+  }
+
+  /**
+   * Gets whether the automatic mappings are shared by the executions of a statement.
+   *
+   * @return {@code true} if the automatic mappings are shared by the executions of a statement
+   * @since 3.5.8
+   */
+  public boolean isAutoMappingPlanCacheEnabled() {
+    return autoMappingPlanCacheEnabled;
+  }
+
+  /**
+   * Sets whether the automatic mappings are shared by the executions of a statement.
+   *
+   * @param autoMappingPlanCacheEnabled {@code true} to share the automatic mappings by the executions of a statement
+   * @since 3.5.8
+   */
+  public void setAutoMappingPlanCacheEnabled(boolean autoMappingPlanCacheEnabled) {
+    this.autoMappingPlanCacheEnabled = autoMappingPlanCacheEnabled;
+  }
+
+  /**
+   * Gets whether result columns are read by index.
+   *
+   * @return {@code true} if result columns are read by index
+   * @since 3.5.8
+   */
+  public boolean isColumnIndexAccessEnabled() {
+    return columnIndexAccessEnabled;
+  }
+
+  /**
+   * Sets whether result columns are read by index.
+   *
+   * @param columnIndexAccessEnabled {@code true} to read result columns by index
+   * @since 3.5.8
+   */
+  public void setColumnIndexAccessEnabled(boolean columnIndexAccessEnabled) {
+    this.columnIndexAccessEnabled = columnIndexAccessEnabled;
+  }
+
+  /**
+   * Gets whether compact row keys are used for result maps with one or two id columns.
+   *
+   * @return {@code true} if compact row keys are used
+   * @since 3.5.8
+   */
+  public boolean isCompactRowKeysEnabled() {
+    return compactRowKeysEnabled;
+  }
+
+  /**
+   * Sets whether compact row keys are used for result maps with one or two id columns.
+   *
+   * @param compactRowKeysEnabled {@code true} to use compact row keys
+   * @since 3.5.8
+   */
+  public void setCompactRowKeysEnabled(boolean compactRowKeysEnabled) {
+    this.compactRowKeysEnabled = compactRowKeysEnabled;
+  }
+
+  /**
+   * Gets whether the nested result maps selected with a ResultHandler or a Cursor are streamed.
+   *
+   * @return {@code true} if the nested results are streamed
+   * @since 3.5.8
+   */
+  public boolean isNestedResultStreamingEnabled() {
+    return nestedResultStreamingEnabled;
+  }
+
+  /**
+   * Sets whether the nested result maps selected with a ResultHandler or a Cursor are streamed.
+   *
+   * @param nestedResultStreamingEnabled {@code true} to stream the nested results
+   * @since 3.5.8
+   */
+  public void setNestedResultStreamingEnabled(boolean nestedResultStreamingEnabled) {
+    this.nestedResultStreamingEnabled = nestedResultStreamingEnabled;
+  }
+
+  /**
+   * Gets whether the constructors of the result objects created with constructor arguments are bound once per result map.
+   *
+   * @return {@code true} if the constructors are bound
+   * @since 3.5.8
+   */
+  public boolean isConstructorBindingEnabled() {
+    return constructorBindingEnabled;
+  }
+
+  /**
+   * Sets whether the constructors of the result objects created with constructor arguments are bound once per result map.
+   *
+   * @param constructorBindingEnabled {@code true} to bind the constructors
+   * @since 3.5.8
+   */
+  public void setConstructorBindingEnabled(boolean constructorBindingEnabled) {
+    this.constructorBindingEnabled = constructorBindingEnabled;
+  }
+
+  /**
+   * Gets the serializer that copies the values of the read-write caches.
+   *
+   * @return the serializer type, or {@code null} if the values are copied by the Java serialization
+   * @since 3.5.8
+   */
+  public Class<? extends CacheSerializer> getCacheSerializer() {
+    return cacheSerializer;
+  }
+
+  /**
+   * Sets the serializer that copies the values of the read-write caches.
+   *
+   * @param cacheSerializer the serializer type, or {@code null} to copy the values by the Java serialization
+   * @since 3.5.8
+   */
+  public void setCacheSerializer(Class<? extends CacheSerializer> cacheSerializer) {
+    this.cacheSerializer = cacheSerializer;
+  }
+
+  /**
+   * Gets whether the tables read and written by the statements that do not declare them are parsed from their SQL.
+   *
+   * @return {@code true} if the tables are parsed
+   * @since 3.5.8
+   */
+  public boolean isParseStatementTables() {
+    return parseStatementTables;
+  }
+
+  /**
+   * Sets whether the tables read and written by the statements that do not declare them are parsed from their SQL.
+   *
+   * @param parseStatementTables {@code true} to parse the tables
+   * @since 3.5.8
+   */
+  public void setParseStatementTables(boolean parseStatementTables) {
+    this.parseStatementTables = parseStatementTables;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -912,6 +1314,52 @@ public class Configuration {
     return caches.containsKey(id);
   }
 
+  /**
+   * Gets the versions of the tables the second-level cache entries depend on.
+   *
+   * @return the table versions
+   * @since 3.5.8
+   */
+  public TableVersions getTableVersions() {
+    return tableVersions;
+  }
+
+  /**
+   * Gets the pool that runs the chunks of the selects in parallel, see {@link MappedStatement#getChunkParallelism()}.
+   * <p>
+   * Unless one is set, the pool has one thread per processor and releases its threads once idle, so it does not need to
+   * be shut down.
+   *
+   * @return the chunked select executor
+   * @since 3.5.8
+   */
+  public synchronized ExecutorService getChunkedSelectExecutor() {
+    if (chunkedSelectExecutor == null) {
+      int threads = Runtime.getRuntime().availableProcessors();
+      AtomicInteger threadNumber = new AtomicInteger();
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          runnable -> {
+            Thread thread = new Thread(runnable, "mybatis-chunked-select-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+      pool.allowCoreThreadTimeOut(true);
+      chunkedSelectExecutor = pool;
+    }
+    return chunkedSelectExecutor;
+  }
+
+  /**
+   * Sets the pool that runs the chunks of the selects in parallel, e.g. an executor managed by the container. The
+   * application shuts down the pools it sets.
+   *
+   * @param chunkedSelectExecutor the chunked select executor
+   * @since 3.5.8
+   */
+  public synchronized void setChunkedSelectExecutor(ExecutorService chunkedSelectExecutor) {
+    this.chunkedSelectExecutor = chunkedSelectExecutor;
+  }
+
   public void addResultMap(ResultMap rm) {
     resultMaps.put(rm.getId(), rm);
     checkLocallyForDiscriminatedNestedResultMaps(rm);
@@ -968,6 +1416,80 @@ public class Configuration {
     return mappedStatements.values();
   }
 
+  /**
+   * Removes the automatic mappings cached by the mapped statements, so that they resolve their type handlers again.
+   *
+   * @since 3.5.8
+   */
+  public void clearAutoMappingPlans() {
+    for (Object statement : mappedStatements.values()) {
+      // the short names of ambiguous statements are mapped to placeholders
+      if (statement instanceof MappedStatement) {
+        ((MappedStatement) statement).getAutoMappingPlanCache().clear();
+      }
+    }
+  }
+
+  /**
+   * Prepares the mapped statements ahead of their first execution: parses the OGNL expressions of their dynamic sql
+   * and builds the reflectors of their parameter and result types. The expressions are only parsed, not compiled: the
+   * compiled form is specialized to the parameter types seen when the expressions are evaluated.
+   *
+   * @return what was prepared, and how long it took
+   * @since 3.5.8
+   */
+  public WarmUpReport warmUp() {
+    long start = System.nanoTime();
+    Set<MappedStatement> statements = new HashSet<>();
+    // incomplete statements are not built here, their errors are reported when they are first used as usual;
+    // and the short names of ambiguous statements are mapped to placeholders
+    for (Object statement : mappedStatements.values()) {
+      if (statement instanceof MappedStatement) {
+        statements.add((MappedStatement) statement);
+      }
+    }
+    int uncoveredStatementCount = 0;
+    Set<String> expressions = new HashSet<>();
+    Set<Class<?>> types = new HashSet<>();
+    for (MappedStatement ms : statements) {
+      SqlSource sqlSource = ms.getSqlSource();
+      if (sqlSource instanceof DynamicSqlSource) {
+        expressions.addAll(((DynamicSqlSource) sqlSource).getExpressions());
+      } else if (!(sqlSource instanceof RawSqlSource) && !(sqlSource instanceof StaticSqlSource)) {
+        uncoveredStatementCount++;
+      }
+      if (ms.getParameterMap() != null) {
+        types.add(ms.getParameterMap().getType());
+      }
+    }
+    for (Object resultMap : resultMaps.values()) {
+      if (resultMap instanceof ResultMap) {
+        types.add(((ResultMap) resultMap).getType());
+      }
+    }
+    int invalidExpressionCount = 0;
+    for (String expression : expressions) {
+      try {
+        OgnlCache.parse(expression);
+      } catch (BuilderException e) {
+        invalidExpressionCount++;
+      }
+    }
+    int reflectorCount = 0;
+    if (reflectorFactory.isClassCacheEnabled()) {
+      for (Class<?> type : types) {
+        // simple types, maps and collections are not accessed through a reflector
+        if (type != null && !typeHandlerRegistry.hasTypeHandler(type) && !Map.class.isAssignableFrom(type)
+            && !Collection.class.isAssignableFrom(type)) {
+          reflectorFactory.findForClass(type);
+          reflectorCount++;
+        }
+      }
+    }
+    return new WarmUpReport(statements.size(), uncoveredStatementCount, expressions.size(), invalidExpressionCount,
+        reflectorCount, (System.nanoTime() - start) / 1_000_000);
+  }
+
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
     return incompleteStatements;
   }
@@ -20,8 +20,13 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.columnar.ColumnarResult;
+import org.apache.ibatis.columnar.ColumnarResultHandler;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.DoubleArrayResultHandler;
+import org.apache.ibatis.executor.result.IntArrayResultHandler;
+import org.apache.ibatis.executor.result.LongArrayResultHandler;
 
 /**
  * 与MyBatis一起使用的主要Java接口。
@@ -79,6 +84,151 @@ public interface SqlSession extends Closeable {
    */
   <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * 查询单列结果到 {@code int[]}，不装箱每个值。
+   * 语句的结果类型是 {@code int} 或 {@code Integer} 时，第一列通过结果集的基本类型 getter 读取。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default int[] selectInts(String statement) {
+    return selectInts(statement, null);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code int[]}。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default int[] selectInts(String statement, Object parameter) {
+    return selectInts(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code int[]}，在指定的行范围内。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @param rowBounds  限制对象检索的界限
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default int[] selectInts(String statement, Object parameter, RowBounds rowBounds) {
+    IntArrayResultHandler handler = new IntArrayResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  /**
+   * 查询单列结果到 {@code long[]}，不装箱每个值。
+   * 语句的结果类型是 {@code long} 或 {@code Long} 时，第一列通过结果集的基本类型 getter 读取。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default long[] selectLongs(String statement) {
+    return selectLongs(statement, null);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code long[]}。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default long[] selectLongs(String statement, Object parameter) {
+    return selectLongs(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code long[]}，在指定的行范围内。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @param rowBounds  限制对象检索的界限
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default long[] selectLongs(String statement, Object parameter, RowBounds rowBounds) {
+    LongArrayResultHandler handler = new LongArrayResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  /**
+   * 查询单列结果到 {@code double[]}，不装箱每个值。
+   * 语句的结果类型是 {@code double} 或 {@code Double} 时，第一列通过结果集的基本类型 getter 读取。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default double[] selectDoubles(String statement) {
+    return selectDoubles(statement, null);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code double[]}。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default double[] selectDoubles(String statement, Object parameter) {
+    return selectDoubles(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * 带参查询单列结果到 {@code double[]}，在指定的行范围内。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @param rowBounds  限制对象检索的界限
+   * @return the values of the first column
+   * @since 3.5.8
+   */
+  default double[] selectDoubles(String statement, Object parameter, RowBounds rowBounds) {
+    DoubleArrayResultHandler handler = new DoubleArrayResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  /**
+   * 按列查询结果（ColumnarResult）
+   * 每一列保存所有行的值，不创建结果对象，也不使用语句的结果映射。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @return the columns of the result
+   * @since 3.5.8
+   */
+  default ColumnarResult selectColumnar(String statement) {
+    return selectColumnar(statement, null);
+  }
+
+  /**
+   * 带参按列查询结果（ColumnarResult）
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @return the columns of the result
+   * @since 3.5.8
+   */
+  default ColumnarResult selectColumnar(String statement, Object parameter) {
+    return selectColumnar(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * 带参按列查询结果（ColumnarResult）
+   * 在指定的行范围内。
+   * @param statement 与要使用的语句匹配的唯一标识符。
+   * @param parameter 要传递给语句的参数对象。
+   * @param rowBounds  限制对象检索的界限
+   * @return the columns of the result
+   * @since 3.5.8
+   */
+  default ColumnarResult selectColumnar(String statement, Object parameter, RowBounds rowBounds) {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResult();
+  }
+
   /**
    * selectMap 是一种特殊情况，它旨在转换列表
    * 根据结果中的一个属性将结果转换为 Map对象。
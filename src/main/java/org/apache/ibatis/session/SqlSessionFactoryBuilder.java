@@ -23,6 +23,8 @@ import java.util.Properties;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 /**
@@ -90,6 +92,14 @@ public class SqlSessionFactoryBuilder {
   }
 
   public SqlSessionFactory build(Configuration config) {
+    if (config.isWarmUpOnBuild()) {
+      WarmUpReport report = config.warmUp();
+      // looked up here, the configuration may have selected the log implementation
+      Log log = LogFactory.getLog(SqlSessionFactoryBuilder.class);
+      if (log.isDebugEnabled()) {
+        log.debug(report.toString());
+      }
+    }
     return new DefaultSqlSessionFactory(config);
   }
 
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import org.apache.ibatis.columnar.ColumnarResult;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.reflection.ExceptionUtil;
@@ -182,6 +183,66 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectMap(statement, parameter, mapKey, rowBounds);
   }
 
+  @Override
+  public int[] selectInts(String statement) {
+    return sqlSessionProxy.selectInts(statement);
+  }
+
+  @Override
+  public int[] selectInts(String statement, Object parameter) {
+    return sqlSessionProxy.selectInts(statement, parameter);
+  }
+
+  @Override
+  public int[] selectInts(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectInts(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public long[] selectLongs(String statement) {
+    return sqlSessionProxy.selectLongs(statement);
+  }
+
+  @Override
+  public long[] selectLongs(String statement, Object parameter) {
+    return sqlSessionProxy.selectLongs(statement, parameter);
+  }
+
+  @Override
+  public long[] selectLongs(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectLongs(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public double[] selectDoubles(String statement) {
+    return sqlSessionProxy.selectDoubles(statement);
+  }
+
+  @Override
+  public double[] selectDoubles(String statement, Object parameter) {
+    return sqlSessionProxy.selectDoubles(statement, parameter);
+  }
+
+  @Override
+  public double[] selectDoubles(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectDoubles(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement) {
+    return sqlSessionProxy.selectColumnar(statement);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter) {
+    return sqlSessionProxy.selectColumnar(statement, parameter);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectColumnar(statement, parameter, rowBounds);
+  }
+
   @Override
   public <T> Cursor<T> selectCursor(String statement) {
     return sqlSessionProxy.selectCursor(statement);
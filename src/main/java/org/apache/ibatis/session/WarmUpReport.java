@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * What {@link Configuration#warmUp()} prepared, and how long it took.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+public class WarmUpReport {
+
+  private final int statementCount;
+  private final int uncoveredStatementCount;
+  private final int expressionCount;
+  private final int invalidExpressionCount;
+  private final int reflectorCount;
+  private final long elapsedMillis;
+
+  WarmUpReport(int statementCount, int uncoveredStatementCount, int expressionCount, int invalidExpressionCount,
+      int reflectorCount, long elapsedMillis) {
+    this.statementCount = statementCount;
+    this.uncoveredStatementCount = uncoveredStatementCount;
+    this.expressionCount = expressionCount;
+    this.invalidExpressionCount = invalidExpressionCount;
+    this.reflectorCount = reflectorCount;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  /**
+   * Gets the number of mapped statements.
+   *
+   * @return the statement count
+   */
+  public int getStatementCount() {
+    return statementCount;
+  }
+
+  /**
+   * Gets the number of mapped statements whose sql could not be prepared, e.g. the statements of sql providers.
+   *
+   * @return the uncovered statement count
+   */
+  public int getUncoveredStatementCount() {
+    return uncoveredStatementCount;
+  }
+
+  /**
+   * Gets the number of distinct OGNL expressions parsed.
+   *
+   * @return the expression count
+   */
+  public int getExpressionCount() {
+    return expressionCount;
+  }
+
+  /**
+   * Gets the number of OGNL expressions that failed to parse. They fail again when evaluated.
+   *
+   * @return the invalid expression count
+   */
+  public int getInvalidExpressionCount() {
+    return invalidExpressionCount;
+  }
+
+  /**
+   * Gets the number of parameter and result classes whose reflector was built.
+   *
+   * @return the reflector count
+   */
+  public int getReflectorCount() {
+    return reflectorCount;
+  }
+
+  /**
+   * Gets the duration of the warm-up.
+   *
+   * @return the elapsed time in milliseconds
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "Warmed up " + (statementCount - uncoveredStatementCount) + " of " + statementCount + " statements: parsed "
+        + expressionCount + " OGNL expressions (" + invalidExpressionCount + " invalid) and built " + reflectorCount
+        + " reflectors in " + elapsedMillis + " ms";
+  }
+
+}
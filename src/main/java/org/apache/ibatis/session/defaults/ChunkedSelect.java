@@ -0,0 +1,269 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.lang.reflect.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.CollectingResultHandler;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * Executes a select whose chunk parameter holds more items than the chunk size of the statement once per chunk, and
+ * concatenates the results in the order of the chunks.
+ * <p>
+ * Chunks are executed by the session's executor. When the statement allows it, the session has no uncommitted changes
+ * and it owns a connection opened by a {@link JdbcTransactionFactory}, up to {@link MappedStatement#getChunkParallelism()}
+ * workers run at the same time on the {@link Configuration#getChunkedSelectExecutor() chunked select executor}; all the
+ * workers but the calling thread use their own connection, opened with the isolation level of the session. Otherwise
+ * (e.g. a connection given by the user, or a managed transaction) the chunks run one by one on the session.
+ *
+ * 翻译：https://github.com/g1335333249/mybatis-3
+ * @since 3.5.8
+ */
+final class ChunkedSelect {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement ms;
+  private final List<Object> chunks;
+
+  private ChunkedSelect(Configuration configuration, Executor executor, MappedStatement ms, List<Object> chunks) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.ms = ms;
+    this.chunks = chunks;
+  }
+
+  /**
+   * Splits the parameter of a select.
+   *
+   * @return the select, or {@code null} if the chunk parameter does not hold more items than the chunk size
+   */
+  static ChunkedSelect split(Configuration configuration, Executor executor, MappedStatement ms, Object parameterObject) {
+    if (parameterObject == null) {
+      return null;
+    }
+    if (!(parameterObject instanceof Map)) {
+      throw new ExecutorException("The statement '" + ms.getId() + "' is split on the parameter '" + ms.getChunkParameter()
+          + "', but its parameter object is a " + parameterObject.getClass().getName() + ". The parameter object must be a Map.");
+    }
+    Map<?, ?> parameterMap = (Map<?, ?>) parameterObject;
+    Object items = parameterMap.get(ms.getChunkParameter());
+    int size = size(ms, items);
+    if (size <= ms.getChunkSize()) {
+      return null;
+    }
+    // a collection that is not a list is copied once, the chunks are views of the copy
+    Object source = items instanceof Collection && !(items instanceof List) ? new ArrayList<>((Collection<?>) items) : items;
+    List<Object> chunks = new ArrayList<>((size + ms.getChunkSize() - 1) / ms.getChunkSize());
+    for (int from = 0; from < size; from += ms.getChunkSize()) {
+      Object chunk = chunk(source, from, Math.min(size, from + ms.getChunkSize()));
+      Map<String, Object> chunkParameter = parameterObject instanceof ParamMap ? new ParamMap<>() : new HashMap<>();
+      // aliases of the same argument (e.g. 'ids' and 'param1') must all see the chunk
+      parameterMap.forEach((key, value) -> chunkParameter.put(String.valueOf(key), value == items ? chunk : value));
+      chunks.add(chunkParameter);
+    }
+    return new ChunkedSelect(configuration, executor, ms, chunks);
+  }
+
+  private static int size(MappedStatement ms, Object items) {
+    if (items == null) {
+      return 0;
+    }
+    if (items instanceof Collection) {
+      return ((Collection<?>) items).size();
+    }
+    if (items.getClass().isArray()) {
+      return Array.getLength(items);
+    }
+    throw new ExecutorException("The chunk parameter '" + ms.getChunkParameter() + "' of the statement '" + ms.getId()
+        + "' must be a Collection or an array, but was a " + items.getClass().getName() + ".");
+  }
+
+  private static Object chunk(Object items, int from, int to) {
+    if (items instanceof List) {
+      return ((List<?>) items).subList(from, to);
+    }
+    Object chunk = Array.newInstance(items.getClass().getComponentType(), to - from);
+    System.arraycopy(items, from, chunk, 0, to - from);
+    return chunk;
+  }
+
+  /**
+   * Executes the chunks.
+   *
+   * @param rowBounds the row bounds, applied to the concatenated results
+   * @param resultHandler the result handler, or {@code null} to return the results
+   * @param parallel whether the chunks may run on other connections
+   * @return the concatenated results, or {@code null} if a result handler is used
+   */
+  <E> List<E> query(RowBounds rowBounds, ResultHandler resultHandler, boolean parallel) throws SQLException {
+    if (resultHandler != Executor.NO_RESULT_HANDLER) {
+      BoundedResultHandler handler = new BoundedResultHandler(resultHandler, rowBounds);
+      for (int i = 0; i < chunks.size() && !handler.isFull(); i++) {
+        executor.query(ms, chunks.get(i), RowBounds.DEFAULT, handler);
+      }
+      return null;
+    }
+    int workerCount = Math.min(ms.getChunkParallelism(), chunks.size());
+    List<List<E>> results = parallel && workerCount > 1 && ownsJdbcConnection()
+        ? queryInParallel(workerCount) : queryOneByOne();
+    List<E> list = new ArrayList<>();
+    results.forEach(list::addAll);
+    return applyRowBounds(list, rowBounds);
+  }
+
+  private boolean ownsJdbcConnection() {
+    Environment environment = configuration.getEnvironment();
+    Transaction transaction = executor.getTransaction();
+    return environment != null && environment.getTransactionFactory() instanceof JdbcTransactionFactory
+        && transaction instanceof JdbcTransaction && ((JdbcTransaction) transaction).getDataSource() != null;
+  }
+
+  private <E> List<List<E>> queryOneByOne() throws SQLException {
+    List<List<E>> results = new ArrayList<>(chunks.size());
+    for (Object chunk : chunks) {
+      results.add(executor.query(ms, chunk, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER));
+    }
+    return results;
+  }
+
+  private <E> List<List<E>> queryInParallel(int workerCount) throws SQLException {
+    List<List<E>> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+    List<Future<?>> futures = new ArrayList<>(workerCount - 1);
+    ExecutorService workers = configuration.getChunkedSelectExecutor();
+    for (int worker = 1; worker < workerCount; worker++) {
+      int first = worker;
+      futures.add(workers.submit(() -> {
+        queryOnNewConnection(first, workerCount, results);
+        return null;
+      }));
+    }
+    Throwable failure = null;
+    try {
+      query(executor, 0, workerCount, results);
+    } catch (SQLException | RuntimeException e) {
+      failure = e;
+    }
+    // the other workers are always awaited, they must not outlive the call
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        failure = failure == null ? e.getCause() : failure;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure = failure == null ? e : failure;
+      }
+    }
+    if (failure instanceof SQLException) {
+      throw (SQLException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure != null) {
+      throw new ExecutorException("Error querying chunks of the statement '" + ms.getId() + "'. Cause: " + failure, failure);
+    }
+    return results;
+  }
+
+  private <E> void queryOnNewConnection(int first, int step, List<List<E>> results) throws SQLException {
+    JdbcTransaction sessionTransaction = (JdbcTransaction) executor.getTransaction();
+    Transaction transaction = configuration.getEnvironment().getTransactionFactory()
+        .newTransaction(sessionTransaction.getDataSource(), sessionTransaction.getLevel(), true);
+    Executor workerExecutor = configuration.newExecutor(transaction, ExecutorType.SIMPLE);
+    try {
+      query(workerExecutor, first, step, results);
+    } finally {
+      workerExecutor.close(false);
+      ErrorContext.instance().reset();
+    }
+  }
+
+  private <E> void query(Executor chunkExecutor, int first, int step, List<List<E>> results) throws SQLException {
+    for (int i = first; i < chunks.size(); i += step) {
+      List<E> result = chunkExecutor.query(ms, chunks.get(i), RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      synchronized (results) {
+        results.set(i, result);
+      }
+    }
+  }
+
+  private static <E> List<E> applyRowBounds(List<E> list, RowBounds rowBounds) {
+    if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      return list;
+    }
+    int from = Math.min(list.size(), rowBounds.getOffset());
+    int to = (int) Math.min(list.size(), (long) from + rowBounds.getLimit());
+    return new ArrayList<>(list.subList(from, to));
+  }
+
+  /**
+   * Applies the row bounds across the chunks. The results of a chunk are not streamed to it, as the row bounds count
+   * the result objects.
+   */
+  private static final class BoundedResultHandler implements CollectingResultHandler<Object> {
+    private final ResultHandler<Object> delegate;
+    private int skip;
+    private int remaining;
+
+    @SuppressWarnings("unchecked")
+    BoundedResultHandler(ResultHandler<?> delegate, RowBounds rowBounds) {
+      this.delegate = (ResultHandler<Object>) delegate;
+      this.skip = rowBounds.getOffset();
+      this.remaining = rowBounds.getLimit();
+    }
+
+    boolean isFull() {
+      return remaining <= 0;
+    }
+
+    @Override
+    public void handleResult(ResultContext<?> resultContext) {
+      if (skip > 0) {
+        skip--;
+        return;
+      }
+      delegate.handleResult(resultContext);
+      if (--remaining <= 0) {
+        resultContext.stop();
+      }
+    }
+  }
+
+}
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.columnar.ColumnarResult;
+import org.apache.ibatis.columnar.ColumnarResultHandler;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
@@ -32,6 +34,11 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.executor.result.DoubleArrayResultHandler;
+import org.apache.ibatis.executor.result.IntArrayResultHandler;
+import org.apache.ibatis.executor.result.LongArrayResultHandler;
+import org.apache.ibatis.executor.result.SpilledResultList;
+import org.apache.ibatis.executor.result.SpillingResultHandler;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.Configuration;
@@ -53,6 +60,7 @@ public class DefaultSqlSession implements SqlSession {
   private final boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
+  private List<SpilledResultList<?>> spilledResultLists;
 
   public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
     this.configuration = configuration;
@@ -77,6 +85,9 @@ public class DefaultSqlSession implements SqlSession {
     if (list.size() == 1) {
       return list.get(0);
     } else if (list.size() > 1) {
+      if (list instanceof SpilledResultList) {
+        ((SpilledResultList<T>) list).close();
+      }
       throw new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found: " + list.size());
     } else {
       return null;
@@ -99,9 +110,16 @@ public class DefaultSqlSession implements SqlSession {
     final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
             configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
     final DefaultResultContext<V> context = new DefaultResultContext<>();
-    for (V o : list) {
-      context.nextResultObject(o);
-      mapResultHandler.handleResult(context);
+    try {
+      for (V o : list) {
+        context.nextResultObject(o);
+        mapResultHandler.handleResult(context);
+      }
+    } finally {
+      if (list instanceof SpilledResultList) {
+        // the rows have been copied, the spilled ones are not needed anymore
+        ((SpilledResultList<? extends V>) list).close();
+      }
     }
     return mapResultHandler.getMappedResults();
   }
@@ -145,10 +163,82 @@ public class DefaultSqlSession implements SqlSession {
     return selectList(statement, parameter, rowBounds, Executor.NO_RESULT_HANDLER);
   }
 
+  @Override
+  public int[] selectInts(String statement) {
+    return selectInts(statement, null);
+  }
+
+  @Override
+  public int[] selectInts(String statement, Object parameter) {
+    return selectInts(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public int[] selectInts(String statement, Object parameter, RowBounds rowBounds) {
+    IntArrayResultHandler handler = new IntArrayResultHandler();
+    selectList(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  @Override
+  public long[] selectLongs(String statement) {
+    return selectLongs(statement, null);
+  }
+
+  @Override
+  public long[] selectLongs(String statement, Object parameter) {
+    return selectLongs(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public long[] selectLongs(String statement, Object parameter, RowBounds rowBounds) {
+    LongArrayResultHandler handler = new LongArrayResultHandler();
+    selectList(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  @Override
+  public double[] selectDoubles(String statement) {
+    return selectDoubles(statement, null);
+  }
+
+  @Override
+  public double[] selectDoubles(String statement, Object parameter) {
+    return selectDoubles(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public double[] selectDoubles(String statement, Object parameter, RowBounds rowBounds) {
+    DoubleArrayResultHandler handler = new DoubleArrayResultHandler();
+    selectList(statement, parameter, rowBounds, handler);
+    return handler.getResults();
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement) {
+    return selectColumnar(statement, null);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter) {
+    return selectColumnar(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter, RowBounds rowBounds) {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    selectList(statement, parameter, rowBounds, handler);
+    return handler.getResult();
+  }
+
   private <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
-      return executor.query(ms, wrapCollection(parameter), rowBounds, handler);
+      Object parameterObject = wrapCollection(parameter);
+      if (handler == Executor.NO_RESULT_HANDLER && ms.getSpillThreshold() > 0) {
+        return selectSpilled(ms, parameterObject, rowBounds);
+      }
+      return query(ms, parameterObject, rowBounds, handler);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
@@ -156,6 +246,33 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <E> List<E> selectSpilled(MappedStatement ms, Object parameterObject, RowBounds rowBounds) throws SQLException {
+    SpillingResultHandler handler = new SpillingResultHandler(ms.getSpillThreshold());
+    try {
+      query(ms, parameterObject, rowBounds, handler);
+    } catch (SQLException | RuntimeException e) {
+      handler.getResultList().close();
+      throw e;
+    }
+    if (handler.getResultList().isSpilled()) {
+      // the file of the spilled rows is deleted when the session is closed, at the latest
+      registerSpilledResultList(handler.getResultList());
+    }
+    return (List<E>) handler.getResultList();
+  }
+
+  private <E> List<E> query(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler handler) throws SQLException {
+    if (ms.getChunkSize() > 0) {
+      ChunkedSelect chunkedSelect = ChunkedSelect.split(configuration, executor, ms, parameterObject);
+      if (chunkedSelect != null) {
+        // other connections would not see the changes of this session
+        return chunkedSelect.query(rowBounds, handler, !dirty);
+      }
+    }
+    return executor.query(ms, parameterObject, rowBounds, handler);
+  }
+
   @Override
   public void select(String statement, Object parameter, ResultHandler handler) {
     select(statement, parameter, RowBounds.DEFAULT, handler);
@@ -259,6 +376,7 @@ public class DefaultSqlSession implements SqlSession {
     try {
       executor.close(isCommitOrRollbackRequired(false));
       closeCursors();
+      closeSpilledResultLists();
       dirty = false;
     } finally {
       ErrorContext.instance().reset();
@@ -278,6 +396,15 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  private void closeSpilledResultLists() {
+    if (spilledResultLists != null && !spilledResultLists.isEmpty()) {
+      for (SpilledResultList<?> spilledResultList : spilledResultLists) {
+        spilledResultList.close();
+      }
+      spilledResultLists.clear();
+    }
+  }
+
   @Override
   public Configuration getConfiguration() {
     return configuration;
@@ -309,6 +436,13 @@ public class DefaultSqlSession implements SqlSession {
     cursorList.add(cursor);
   }
 
+  private void registerSpilledResultList(SpilledResultList<?> spilledResultList) {
+    if (spilledResultLists == null) {
+      spilledResultLists = new ArrayList<>();
+    }
+    spilledResultLists.add(spilledResultList);
+  }
+
   private boolean isCommitOrRollbackRequired(boolean force) {
     return (!autoCommit && dirty) || force;
   }
@@ -56,6 +56,26 @@ public class JdbcTransaction implements Transaction {
     this.connection = connection;
   }
 
+  /**
+   * Gets the data source the connection is retrieved from.
+   *
+   * @return the data source, or {@code null} if the transaction wraps a connection given by the user
+   * @since 3.5.8
+   */
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  /**
+   * Gets the isolation level set on the connection retrieved from the data source.
+   *
+   * @return the isolation level, or {@code null} to keep the default one of the connection
+   * @since 3.5.8
+   */
+  public TransactionIsolationLevel getLevel() {
+    return level;
+  }
+
   @Override
   public Connection getConnection() throws SQLException {
     if (connection == null) {
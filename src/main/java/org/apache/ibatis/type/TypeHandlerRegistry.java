@@ -64,6 +64,9 @@ public final class TypeHandlerRegistry {
 
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
+  // set once the default type handlers are registered, the configuration is not fully built before
+  private Configuration configuration;
+
   /**
    * The default constructor.
    */
@@ -178,6 +181,8 @@ public final class TypeHandlerRegistry {
     // issue #273
     register(Character.class, new CharacterTypeHandler());
     register(char.class, new CharacterTypeHandler());
+
+    this.configuration = configuration;
   }
 
   /**
@@ -399,6 +404,10 @@ public final class TypeHandlerRegistry {
       typeHandlerMap.put(javaType, map);
     }
     allTypeHandlersMap.put(handler.getClass(), handler);
+    if (configuration != null) {
+      // the cached automatic mappings hold the type handlers resolved before
+      configuration.clearAutoMappingPlans();
+    }
   }
 
   //
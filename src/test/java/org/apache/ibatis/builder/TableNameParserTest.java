@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class TableNameParserTest {
+
+  @Test
+  void shouldFindTablesOfSelects() {
+    assertEquals("blog", TableNameParser.parse("select * from Blog where id = #{id}"));
+    assertEquals("blog,author", TableNameParser.parse("select * from blog b, author as a where b.author_id = a.id"));
+    assertEquals("blog,author,post", TableNameParser.parse(
+        "select * from blog b left outer join author a on a.id = b.author_id join post p using (blog_id)"));
+    assertEquals("blog,post", TableNameParser.parse(
+        "select * from blog where id in (select blog_id from post where subject like 'from x%') order by id"));
+    assertEquals("blog", TableNameParser.parse("select * from (select * from blog) b for update"));
+  }
+
+  @Test
+  void shouldFindTablesAfterDerivedTablesAndParenthesizedJoins() {
+    assertEquals("a,b", TableNameParser.parse("select * from (select id from a) t, b"));
+    assertEquals("a,c,b", TableNameParser.parse("select * from a, (select id from c) x, b"));
+    assertEquals("a,b", TableNameParser.parse("select * from (a join b on a.id = b.a_id)"));
+    assertEquals("a,b,c", TableNameParser.parse(
+        "select * from (select id from a) as t (id) join (b join c on c.b_id = b.id) on b.id = t.id"));
+    assertEquals("a,b", TableNameParser.parse("select * from a join (select a_id from b) x using (a_id)"));
+  }
+
+  @Test
+  void shouldFindTablesOfWrites() {
+    assertEquals("author", TableNameParser.parse("insert into author (id, name) values (#{id}, #{name})"));
+    assertEquals("blog", TableNameParser.parse("update blog set title = #{title} where id = #{id}"));
+    assertEquals("post", TableNameParser.parse("delete from post where blog_id = #{id}"));
+    assertEquals("archive,post", TableNameParser.parse("insert into archive select * from post where id = #{id}"));
+    assertEquals("author", TableNameParser.parse(
+        "insert into author (id, name) values (#{id}, #{name}) on duplicate key update name = #{name}"));
+    assertEquals("blog", TableNameParser.parse("truncate table blog"));
+  }
+
+  @Test
+  void shouldFindTargetsOfWritesWithoutFromOrInto() {
+    assertEquals("blog_tag,blog", TableNameParser.parse("delete blog_tag where id in (select id from blog)"));
+    assertEquals("blog_tag,tmp", TableNameParser.parse("insert blog_tag select * from tmp"));
+    assertEquals("blog_tag", TableNameParser.parse("insert ignore blog_tag (id, name) values (#{id}, #{name})"));
+    assertEquals("blog_tag", TableNameParser.parse("replace blog_tag (id, name) values (#{id}, #{name})"));
+    assertEquals("blog", TableNameParser.parse("replace into blog (id, title) values (#{id}, #{title})"));
+    assertEquals("blog,tmp", TableNameParser.parse(
+        "merge blog b using tmp t on b.id = t.id when matched then update set title = t.title"
+            + " when not matched then insert (id, title) values (t.id, t.title)"));
+    // the name of a common table expression is reported too, which is only coarser
+    assertEquals("blog,post,old", TableNameParser.parse(
+        "with old as (select id from blog where id < #{id}) delete post where blog_id in (select id from old)"));
+    assertEquals("post,blog", TableNameParser.parse("delete p from post p join blog b on b.id = p.blog_id"));
+    assertEquals("blog", TableNameParser.parse("select replace(title, 'a', 'b') from blog"));
+  }
+
+  @Test
+  void shouldStripSchemasQuotesAndComments() {
+    assertEquals("blog,order", TableNameParser.parse(
+        "select * from \"Blogs\".\"BLOG\" b -- from comment\n join `order` o /* join other */ on o.blog_id = b.id"));
+    assertEquals("post", TableNameParser.parse("select * from blogs.[post]"));
+  }
+
+  @Test
+  void shouldNotKnowTablesThatCannotBeParsed() {
+    assertNull(TableNameParser.parse("select * from ${table}"));
+    assertNull(TableNameParser.parse("{call update_blog(#{id})}"));
+    assertNull(TableNameParser.parse("call update_blog(#{id})"));
+    assertNull(TableNameParser.parse("begin update_blog(#{id}); end;"));
+    assertNull(TableNameParser.parse("select * from generate_series(1, 10)"));
+    assertNull(TableNameParser.parse("select * from table(blogs_of(#{id}))"));
+    assertNull(TableNameParser.parse("select next value for blog_seq"));
+  }
+
+}
@@ -37,6 +37,7 @@ import java.util.Properties;
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -102,6 +103,20 @@ class XmlConfigBuilderTest {
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
       assertThat(config.isShrinkWhitespacesInSql()).isFalse();
       assertThat(config.getDefaultSqlProviderType()).isNull();
+      assertThat(config.getDynamicSqlShapeCacheSize()).isZero();
+      assertThat(config.isOgnlCompilationEnabled()).isFalse();
+      assertThat(config.isDynamicSqlCompilationEnabled()).isFalse();
+      assertThat(config.getDefaultForEachPadding()).isNull();
+      assertThat(config.isPositionalForEachBindings()).isFalse();
+      assertThat(config.isWarmUpOnBuild()).isFalse();
+      assertThat(config.isRowMapperGenerationEnabled()).isFalse();
+      assertThat(config.isAutoMappingPlanCacheEnabled()).isFalse();
+      assertThat(config.isColumnIndexAccessEnabled()).isFalse();
+      assertThat(config.isCompactRowKeysEnabled()).isFalse();
+      assertThat(config.isNestedResultStreamingEnabled()).isFalse();
+      assertThat(config.isConstructorBindingEnabled()).isFalse();
+      assertThat(config.getCacheSerializer()).isNull();
+      assertThat(config.isParseStatementTables()).isFalse();
     }
   }
 
@@ -198,6 +213,20 @@ class XmlConfigBuilderTest {
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
       assertThat(config.isShrinkWhitespacesInSql()).isTrue();
       assertThat(config.getDefaultSqlProviderType().getName()).isEqualTo(MySqlProvider.class.getName());
+      assertThat(config.getDynamicSqlShapeCacheSize()).isEqualTo(64);
+      assertThat(config.isOgnlCompilationEnabled()).isTrue();
+      assertThat(config.isDynamicSqlCompilationEnabled()).isTrue();
+      assertThat(config.getDefaultForEachPadding()).isEqualTo("pow2");
+      assertThat(config.isPositionalForEachBindings()).isTrue();
+      assertThat(config.isWarmUpOnBuild()).isTrue();
+      assertThat(config.isRowMapperGenerationEnabled()).isTrue();
+      assertThat(config.isAutoMappingPlanCacheEnabled()).isTrue();
+      assertThat(config.isColumnIndexAccessEnabled()).isTrue();
+      assertThat(config.isCompactRowKeysEnabled()).isTrue();
+      assertThat(config.isNestedResultStreamingEnabled()).isTrue();
+      assertThat(config.isConstructorBindingEnabled()).isTrue();
+      assertThat(config.getCacheSerializer()).isEqualTo(CompactSerializer.class);
+      assertThat(config.isParseStatementTables()).isTrue();
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
@@ -16,19 +16,26 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
@@ -38,6 +45,7 @@ import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
+import org.apache.ibatis.scripting.xmltags.XMLScriptBuilder;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -376,6 +384,159 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldReuseParsedShapeForSameGeneratedSql() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheSize(10);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND ID = #{id}")), "id != null"),
+            new IfSqlNode(mixedContents(new TextSqlNode("AND TITLE = #{title}")), "title != null")))));
+    BoundSql first = source.getBoundSql(Collections.singletonMap("id", 1));
+    BoundSql second = source.getBoundSql(Collections.singletonMap("id", 2));
+    BoundSql third = source.getBoundSql(Collections.singletonMap("title", "t"));
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", second.getSql());
+    assertEquals("SELECT * FROM BLOG WHERE  TITLE = ?", third.getSql());
+    assertEquals(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals("title", third.getParameterMappings().get(0).getProperty());
+    assertEquals(1, source.getShapeCacheHits());
+    assertEquals(2, source.getShapeCacheMisses());
+    assertEquals(2, source.getShapeCacheSize());
+  }
+
+  @Test
+  void shouldNotReuseShapeWhenBoundItemTypeDiffers() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheSize(10);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ",")));
+    BoundSql ints = source.getBoundSql(Collections.singletonMap("list", Arrays.asList(1, 2)));
+    BoundSql strings = source.getBoundSql(Collections.singletonMap("list", Arrays.asList("1", "2")));
+    BoundSql moreInts = source.getBoundSql(Collections.singletonMap("list", Arrays.asList(3, 4)));
+    assertEquals(Integer.class, ints.getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, strings.getParameterMappings().get(0).getJavaType());
+    assertEquals(Integer.class, moreInts.getParameterMappings().get(0).getJavaType());
+    assertEquals(0, source.getShapeCacheHits());
+    assertEquals(3, source.getShapeCacheMisses());
+    assertEquals(3, moreInts.getAdditionalParameter("__frch_item_0"));
+  }
+
+  @Test
+  void shouldStopCachingShapesWhenFull() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheSize(1);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ",")));
+    source.getBoundSql(Collections.singletonMap("list", Arrays.asList(1)));
+    source.getBoundSql(Collections.singletonMap("list", Arrays.asList(1, 2)));
+    BoundSql boundSql = source.getBoundSql(Collections.singletonMap("list", Arrays.asList(1, 2)));
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? )", boundSql.getSql());
+    assertEquals(1, source.getShapeCacheSize());
+    assertEquals(0, source.getShapeCacheHits());
+  }
+
+  @Test
+  void shouldPadForEachItemsToPowerOfTwo() throws Exception {
+    Configuration configuration = new Configuration();
+    ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")),
+        "list", null, "item", "(", ")", ",", "pow2");
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"), forEachSqlNode));
+    BoundSql boundSql = null;
+    for (int size = 1; size <= 9; size++) {
+      List<Integer> ids = new ArrayList<>();
+      for (int id = 1; id <= size; id++) {
+        ids.add(id);
+      }
+      boundSql = source.getBoundSql(Collections.singletonMap("list", ids));
+    }
+    assertEquals(16, boundSql.getParameterMappings().size());
+    assertEquals(9, boundSql.getAdditionalParameter("__frch_item_8"));
+    assertEquals(9, boundSql.getAdditionalParameter("__frch_item_15"));
+    assertEquals(9, forEachSqlNode.getDistinctSizeCount());
+    assertEquals(5, forEachSqlNode.getDistinctPaddedSizeCount());
+    assertEquals(9, source.getDistinctForEachSizeCount());
+    assertEquals(5, source.getDistinctForEachPaddedSizeCount());
+  }
+
+  @Test
+  void shouldOnlyPadForEachItemsOfSelectsByDefault() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDefaultForEachPadding("pow2");
+    SqlSource select = new XMLScriptBuilder(configuration, new XPathParser(
+        "<select>SELECT * FROM BLOG WHERE ID in <foreach collection='list' item='item' open='(' close=')' separator=','>#{item}</foreach></select>")
+        .evalNode("/select")).parseScriptNode();
+    SqlSource insert = new XMLScriptBuilder(configuration, new XPathParser(
+        "<insert>INSERT INTO BLOG (ID) VALUES <foreach collection='list' item='item' separator=','>(#{item})</foreach></insert>")
+        .evalNode("/insert")).parseScriptNode();
+    Map<String, Object> parameter = Collections.singletonMap("list", Arrays.asList(1, 2, 3));
+    assertEquals(4, select.getBoundSql(parameter).getParameterMappings().size());
+    assertEquals(3, insert.getBoundSql(parameter).getParameterMappings().size());
+    assertEquals(1, ((DynamicSqlSource) select).getDistinctForEachPaddedSizeCount());
+    assertEquals(0, ((DynamicSqlSource) insert).getDistinctForEachPaddedSizeCount());
+  }
+
+  @Test
+  void shouldPadForEachItemsToBuckets() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDefaultForEachPadding("pow2");
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")),
+            "array", null, "item", "(", ")", ",", "3, 5")));
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? , ? )",
+        source.getBoundSql(Collections.singletonMap("array", new int[] {1})).getSql());
+    assertEquals(5, source.getBoundSql(Collections.singletonMap("array", new int[] {1, 2, 3, 4})).getParameterMappings().size());
+    assertEquals(10, source.getBoundSql(Collections.singletonMap("array", new int[] {1, 2, 3, 4, 5, 6})).getParameterMappings().size());
+  }
+
+  @Test
+  void shouldNotPadForEachItemsWhenPaddingIsNone() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setDefaultForEachPadding("pow2");
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("INSERT INTO BLOG (ID) VALUES"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("(#{item})")),
+            "list", null, "item", null, null, ",", "none")));
+    assertEquals(3, source.getBoundSql(Collections.singletonMap("list", Arrays.asList(1, 2, 3))).getParameterMappings().size());
+  }
+
+  @Test
+  void shouldRejectInvalidForEachPadding() {
+    Configuration configuration = new Configuration();
+    Assertions.assertThrows(BuilderException.class, () -> new ForEachSqlNode(configuration,
+        mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ",", "0,10"));
+  }
+
+  @Test
+  void shouldBindForEachItemsByPosition() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setPositionalForEachBindings(true);
+    final Map<String, Object> param = new HashMap<>();
+    param.put("beans", Arrays.asList(new Bean("a"), new Bean("b")));
+    param.put("ids", Arrays.asList(1, 2));
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{id}")), "ids", null, "id", "(", ")", ","),
+        new TextSqlNode("AND"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("NAME = #{bean.id} AND INDEX = #{i}")),
+            "beans", "i", "bean", "(", ")", " OR ")));
+    BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? ) AND (  NAME = ? AND INDEX = ?  OR  NAME = ? AND INDEX = ? )",
+        boundSql.getSql());
+    assertEquals(Arrays.asList("__frch[0]", "__frch[1]", "__frch[2].id", "__frch[3]", "__frch[4].id", "__frch[5]"),
+        boundSql.getParameterMappings().stream().map(ParameterMapping::getProperty).collect(Collectors.toList()));
+    assertEquals(Integer.class, boundSql.getParameterMappings().get(1).getJavaType());
+    assertEquals(String.class, boundSql.getParameterMappings().get(4).getJavaType());
+    assertEquals(2, boundSql.getAdditionalParameter("__frch[1]"));
+    assertEquals("b", boundSql.getAdditionalParameter("__frch[4].id"));
+    assertEquals(1, boundSql.getAdditionalParameter("__frch[5]"));
+    assertFalse(boundSql.hasAdditionalParameter("__frch_id_0"));
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
@@ -0,0 +1,265 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class CompactSerializerTest {
+
+  private final CacheSerializer serializer = new CompactSerializer();
+
+  @Test
+  void shouldCopyScalars() {
+    Timestamp timestamp = new Timestamp(1234567890123L);
+    timestamp.setNanos(123456789);
+    List<Object> values = Arrays.asList(null, "text", "日本語", 1, -1L, Long.MIN_VALUE, (short) 2, (byte) 3, true, 'c',
+        1.5F, 2.5D, new BigDecimal("-12.345"), new BigInteger("123456789012345678901234567890"), new Date(1000L),
+        new java.sql.Date(2000L), new java.sql.Time(3000L), timestamp, Color.RED, Color.GREEN,
+        new byte[] { 1, 2, 3 }, new int[] { 4, 5 }, new String[] { "a", null });
+    for (Object value : values) {
+      assertThat(copy(value)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void shouldCopyObjectsFieldByField() {
+    Author author = new Author(1, "jim");
+    author.setNickname("jimmy");
+    author.setScore(4.5);
+    Author copy = (Author) copy(author);
+    assertThat(copy).isNotSameAs(author);
+    assertThat(copy.getId()).isEqualTo(1);
+    assertThat(copy.getName()).isEqualTo("jim");
+    assertThat(copy.getNickname()).isEqualTo("jimmy");
+    assertThat(copy.getScore()).isEqualTo(4.5);
+    assertThat(copy.getSession()).isNotNull().isNotSameAs(author.getSession());
+  }
+
+  @Test
+  void shouldKeepSharedReferencesAndCycles() {
+    Author author = new Author(1, "jim");
+    Post first = new Post(10, author);
+    Post second = new Post(11, author);
+    author.getPosts().add(first);
+    author.getPosts().add(second);
+    List<Post> posts = new ArrayList<>(Arrays.asList(first, second, first));
+    @SuppressWarnings("unchecked")
+    List<Post> copy = (List<Post>) copy(posts);
+    assertThat(copy).hasSize(3);
+    assertThat(copy.get(0)).isSameAs(copy.get(2));
+    assertThat(copy.get(0).getAuthor()).isSameAs(copy.get(1).getAuthor());
+    assertThat(copy.get(0).getAuthor().getPosts()).containsExactly(copy.get(0), copy.get(1));
+  }
+
+  @Test
+  void shouldCopyCollectionsAndMaps() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("set", new LinkedHashSet<>(Arrays.asList("b", "a")));
+    map.put("list", new ArrayList<>(Arrays.asList(1, 2)));
+    map.put("unmodifiable", Collections.unmodifiableList(Arrays.asList(3, 4)));
+    Object copy = copy(map);
+    assertThat(copy).isEqualTo(map).isInstanceOf(HashMap.class);
+    assertThat(((Map<?, ?>) copy).get("set")).isInstanceOf(LinkedHashSet.class);
+  }
+
+  @Test
+  void shouldUseJavaSerializationForCustomizedObjects() {
+    Replaced replaced = new Replaced("value");
+    assertThat(copy(replaced)).isEqualTo(replaced);
+    Immutable immutable = new Immutable("value");
+    assertThat(copy(immutable)).isEqualTo(immutable);
+  }
+
+  @Test
+  void shouldBeSmallerThanJavaSerialization() {
+    List<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      authors.add(new Author(i, "author" + i));
+    }
+    assertThat(serializer.serialize(authors).length).isLessThan(new JavaSerializer().serialize(authors).length * 2 / 3);
+  }
+
+  @Test
+  void shouldNotCopyNonSerializableObjects() {
+    List<Object> values = new ArrayList<>(Collections.singletonList(new Object()));
+    assertThrows(CacheException.class, () -> serializer.serialize(values));
+  }
+
+  @Test
+  void shouldBeUsedByReadWriteCaches() {
+    Cache cache = new CacheBuilder("default").readWrite(true).serializer(CompactSerializer.class).build();
+    Author author = new Author(1, "jim");
+    cache.putObject(0, author);
+    Author copy = (Author) cache.getObject(0);
+    assertThat(copy).isNotSameAs(author);
+    assertThat(copy.getName()).isEqualTo("jim");
+
+    SerializedCache serializedCache = new SerializedCache(new PerpetualCache("default"), serializer);
+    serializedCache.putObject(0, null);
+    assertThat(serializedCache.getObject(0)).isNull();
+  }
+
+  private Object copy(Object value) {
+    return serializer.deserialize(serializer.serialize(value));
+  }
+
+  enum Color {
+    RED, GREEN {
+      @Override
+      public String toString() {
+        return "green";
+      }
+    }
+  }
+
+  static class Person implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private double score;
+
+    double getScore() {
+      return score;
+    }
+
+    void setScore(double score) {
+      this.score = score;
+    }
+  }
+
+  static class Author extends Person {
+    private static final long serialVersionUID = 1L;
+    private final int id;
+    private final String name;
+    private String nickname;
+    private final List<Post> posts = new ArrayList<>();
+    private transient Object session = new Object();
+
+    Author() {
+      this(0, null);
+    }
+
+    Author(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    int getId() {
+      return id;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    String getNickname() {
+      return nickname;
+    }
+
+    void setNickname(String nickname) {
+      this.nickname = nickname;
+    }
+
+    List<Post> getPosts() {
+      return posts;
+    }
+
+    Object getSession() {
+      return session;
+    }
+  }
+
+  static class Post implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private int id;
+    private Author author;
+
+    Post() {
+    }
+
+    Post(int id, Author author) {
+      this.id = id;
+      this.author = author;
+    }
+
+    Author getAuthor() {
+      return author;
+    }
+  }
+
+  static class Replaced implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String value;
+
+    Replaced(String value) {
+      this.value = value;
+    }
+
+    private Object writeReplace() {
+      return new Replaced(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Replaced && Objects.equals(value, ((Replaced) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(value);
+    }
+  }
+
+  static class Immutable implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String value;
+
+    Immutable(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Immutable && Objects.equals(value, ((Immutable) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(value);
+    }
+  }
+
+}
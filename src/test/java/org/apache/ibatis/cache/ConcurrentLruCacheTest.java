@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cache.decorators.ConcurrentLruCache;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLruCacheTest {
+
+  @Test
+  void shouldRemoveLeastRecentlyUsedItemInBeyondFiveEntries() {
+    ConcurrentLruCache cache = new ConcurrentLruCache(new PerpetualCache("default", true));
+    cache.setSize(5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(5, 5);
+    assertNull(cache.getObject(1));
+    assertEquals(0, cache.getObject(0));
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new ConcurrentLruCache(new PerpetualCache("default", true));
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new ConcurrentLruCache(new PerpetualCache("default", true));
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+  @Test
+  void shouldNotKeepRemovedItemsWhileNotFull() {
+    ConcurrentLruCache cache = new ConcurrentLruCache(new PerpetualCache("default", true));
+    cache.setSize(5);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+      cache.removeObject(i);
+    }
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    for (int i = 0; i < 5; i++) {
+      assertEquals(i, cache.getObject(i));
+    }
+  }
+
+  @Test
+  void shouldNotBeSynchronizedWhenAllDecoratorsAreThreadSafe() {
+    Cache cache = new CacheBuilder("default").addDecorator(ConcurrentLruCache.class).build();
+    assertTrue(cache instanceof LoggingCache);
+    cache = new CacheBuilder("default").addDecorator(ConcurrentLruCache.class).addDecorator(LruCache.class).build();
+    assertTrue(cache instanceof SynchronizedCache);
+  }
+
+  @Test
+  void shouldSupportConcurrentAccess() throws Exception {
+    Cache cache = new CacheBuilder("default").addDecorator(ConcurrentLruCache.class).size(100).build();
+    List<Throwable> failures = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        try {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(1000);
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+              Object value = cache.getObject(key);
+              assertTrue(value == null || key.equals(value));
+            } else if (operation < 9) {
+              cache.putObject(key, key);
+            } else {
+              cache.removeObject(key);
+            }
+          }
+        } catch (Throwable e) {
+          synchronized (failures) {
+            failures.add(e);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.isEmpty(), failures.toString());
+    assertTrue(cache.getSize() <= 100, "size " + cache.getSize());
+  }
+
+}
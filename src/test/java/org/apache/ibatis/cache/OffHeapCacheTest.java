@@ -0,0 +1,151 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldReturnCopiesOfValues() {
+    Cache cache = new OffHeapCache("default");
+    List<String> value = new ArrayList<>(Arrays.asList("a", "b", "c"));
+    cache.putObject(0, value);
+    Object copy = cache.getObject(0);
+    assertEquals(value, copy);
+    assertNotSame(value, copy);
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldStoreValuesLargerThanABlock() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(16);
+    cache.initialize();
+    char[] chars = new char[1000];
+    Arrays.fill(chars, 'x');
+    String value = new String(chars);
+    cache.putObject(0, value);
+    assertEquals(value, cache.getObject(0));
+    assertTrue(cache.getUsedBytes() > 1000);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedValuesWithinMaxBytes() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setMaxBytes(1024);
+    cache.setSlabSize(512);
+    cache.setBlockSize(128);
+    cache.initialize();
+    for (int i = 0; i < 8; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(8, cache.getSize());
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(8, 8);
+    assertEquals(8, cache.getSize());
+    assertNull(cache.getObject(1));
+    assertEquals(0, cache.getObject(0));
+    assertEquals(1024, cache.getUsedBytes());
+    assertEquals(1024, cache.getAllocatedBytes());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  void shouldRejectValuesLargerThanMaxBytes() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setMaxBytes(256);
+    cache.setSlabSize(256);
+    cache.initialize();
+    cache.putObject(0, 0);
+    cache.putObject(1, new byte[1024]);
+    assertNull(cache.getObject(1));
+    assertEquals(0, cache.getObject(0));
+    assertEquals(1, cache.getRejectionCount());
+  }
+
+  @Test
+  void shouldKeepNullValues() {
+    Cache cache = new OffHeapCache("default");
+    cache.putObject(0, null);
+    assertEquals(1, cache.getSize());
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.putObject(0, 0);
+    assertEquals(0, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    OffHeapCache cache = new OffHeapCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getUsedBytes());
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+  }
+
+  @Test
+  void shouldNotStoreNonSerializableValues() {
+    Cache cache = new OffHeapCache("default");
+    assertThrows(CacheException.class, () -> cache.putObject(0, new Object()));
+  }
+
+  @Test
+  void shouldRejectInvalidSizes() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(1024);
+    cache.setSlabSize(512);
+    CacheException e = assertThrows(CacheException.class, cache::initialize);
+    assertTrue(e.getMessage().contains("blockSize (1024)"));
+  }
+
+  @Test
+  void shouldBeConfiguredByProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("maxBytes", "4096");
+    properties.setProperty("blockSize", "64");
+    Cache cache = new CacheBuilder("default").implementation(OffHeapCache.class).properties(properties).build();
+    assertTrue(cache instanceof LoggingCache);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(4096 / 128, cache.getSize());
+  }
+
+}
@@ -69,6 +69,16 @@ class PerpetualCacheTest {
     assertNull(cache.getObject(4));
   }
 
+  @Test
+  void shouldKeepNullValuesWhenConcurrent() {
+    Cache cache = new PerpetualCache("default", true);
+    cache.putObject(0, null);
+    assertEquals(1, cache.getSize());
+    assertNull(cache.getObject(0));
+    assertNull(cache.removeObject(0));
+    assertEquals(0, cache.getSize());
+  }
+
   @Test
   void shouldDemonstrateIdIsNull() {
     Cache cache = new PerpetualCache(null);
@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the serializers of a read-write cache, on a list of 200 result objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializedCacheBenchmark {
+
+  @Param({ "JAVA", "COMPACT" })
+  public String serializer;
+
+  private Cache cache;
+  private List<Order> orders;
+
+  @Setup
+  public void setUp() {
+    CacheSerializer cacheSerializer = "JAVA".equals(serializer) ? new JavaSerializer() : new CompactSerializer();
+    cache = new SerializedCache(new PerpetualCache("benchmark"), cacheSerializer);
+    orders = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      orders.add(new Order(i, "customer" + i % 20, new BigDecimal(i).movePointLeft(2), new Date(1600000000000L + i),
+          i % 3 == 0));
+    }
+    cache.putObject("orders", orders);
+  }
+
+  @Benchmark
+  public void put() {
+    cache.putObject("put", orders);
+  }
+
+  @Benchmark
+  public Object get() {
+    return cache.getObject("orders");
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SerializedCacheBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  public static class Order implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Integer id;
+    private String customer;
+    private BigDecimal amount;
+    private Date created;
+    private boolean shipped;
+
+    public Order() {
+    }
+
+    public Order(Integer id, String customer, BigDecimal amount, Date created, boolean shipped) {
+      this.id = id;
+      this.customer = customer;
+      this.amount = amount;
+      this.created = created;
+      this.shipped = shipped;
+    }
+
+    public Integer getId() {
+      return id;
+    }
+
+    public String getCustomer() {
+      return customer;
+    }
+
+    public BigDecimal getAmount() {
+      return amount;
+    }
+
+    public Date getCreated() {
+      return created;
+    }
+
+    public boolean isShipped() {
+      return shipped;
+    }
+  }
+
+}
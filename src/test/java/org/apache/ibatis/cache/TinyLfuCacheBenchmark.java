@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.decorators.ConcurrentLruCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link TinyLfuCache} and the {@link ConcurrentLruCache} with the synchronized {@link LruCache} the second
+ * level caches use by default, from several threads: on reads of cached values, and on skewed reads that put the
+ * missing values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TinyLfuCacheBenchmark {
+
+  private static final int SIZE = 1024;
+  private static final int KEYS = 1 << 16;
+  private static final int MASK = KEYS - 1;
+
+  @Param({ "LRU", "CONCURRENT_LRU", "TINYLFU" })
+  public String eviction;
+
+  private Cache cache;
+  private Integer[] cachedKeys;
+  private Integer[] keys;
+
+  @Setup
+  public void setUp() {
+    if ("LRU".equals(eviction)) {
+      cache = new SynchronizedCache(new LruCache(new PerpetualCache("benchmark")));
+    } else if ("CONCURRENT_LRU".equals(eviction)) {
+      cache = new ConcurrentLruCache(new PerpetualCache("benchmark", true));
+    } else {
+      cache = new TinyLfuCache("benchmark");
+    }
+    // keys of 16 times the size of the cache, the lower ones used far more often
+    Random random = new Random(42);
+    keys = new Integer[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = (int) (Math.pow(random.nextDouble(), 3) * SIZE * 16);
+    }
+    cachedKeys = new Integer[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      cachedKeys[i] = i;
+      cache.putObject(cachedKeys[i], cachedKeys[i]);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Position {
+    private int index = new Random().nextInt(KEYS);
+  }
+
+  @Benchmark
+  public Object get(Position position) {
+    return cache.getObject(cachedKeys[position.index++ & (SIZE - 1)]);
+  }
+
+  @Benchmark
+  public Object getOrPut(Position position) {
+    Integer key = keys[position.index++ & MASK];
+    Object value = cache.getObject(key);
+    if (value == null) {
+      cache.putObject(key, key);
+      value = key;
+    }
+    return value;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TinyLfuCacheBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
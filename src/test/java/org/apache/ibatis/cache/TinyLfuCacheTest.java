@@ -0,0 +1,172 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  @Test
+  void shouldNotExceedMaximumSize() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(5);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  void shouldKeepFrequentlyUsedItemsDuringScan() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    for (int n = 0; n < 3; n++) {
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, cache.getObject(i));
+      }
+    }
+    for (int i = 1000; i < 2000; i++) {
+      cache.putObject(i, i);
+    }
+    int kept = 0;
+    for (int i = 0; i < 100; i++) {
+      if (cache.getObject(i) != null) {
+        kept++;
+      }
+    }
+    assertTrue(kept >= 95, "kept " + kept + " frequently used items");
+    assertEquals(100, cache.getSize());
+  }
+
+  @Test
+  void shouldReplaceValueOfExistingItem() {
+    Cache cache = new TinyLfuCache("default");
+    cache.putObject(0, "a");
+    cache.putObject(0, "b");
+    assertEquals("b", cache.getObject(0));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new TinyLfuCache("default");
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    assertEquals(0, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new TinyLfuCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getSize());
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+  }
+
+  @Test
+  void shouldDecorateBaseCache() {
+    PerpetualCache delegate = new PerpetualCache("default");
+    TinyLfuCache cache = new TinyLfuCache(delegate);
+    cache.setSize(5);
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals("default", cache.getId());
+    assertEquals(5, delegate.getSize());
+    cache.clear();
+    assertEquals(0, delegate.getSize());
+  }
+
+  @Test
+  void shouldNotBeSynchronizedWhenUsedAsType() {
+    Cache cache = new CacheBuilder("default").implementation(TinyLfuCache.class).build();
+    assertTrue(cache instanceof LoggingCache);
+  }
+
+  @Test
+  void shouldApplySizeWhenUsedAsEviction() {
+    Cache cache = new CacheBuilder("default").implementation(PerpetualCache.class).addDecorator(TinyLfuCache.class)
+        .size(5).build();
+    assertTrue(cache instanceof LoggingCache);
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  void shouldSupportConcurrentAccess() throws Exception {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    List<Throwable> failures = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        try {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(1000);
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+              Object value = cache.getObject(key);
+              assertTrue(value == null || key.equals(value));
+            } else if (operation < 9) {
+              cache.putObject(key, key);
+            } else {
+              cache.removeObject(key);
+            }
+          }
+        } catch (Throwable e) {
+          synchronized (failures) {
+            failures.add(e);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.isEmpty(), failures.toString());
+    assertTrue(cache.getSize() <= 100, "size " + cache.getSize());
+  }
+
+}
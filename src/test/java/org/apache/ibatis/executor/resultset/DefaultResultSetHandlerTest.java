@@ -129,8 +129,68 @@ class DefaultResultSetHandlerTest {
     }
   }
 
-  MappedStatement getMappedStatement() {
+  @Test
+  void shouldReadColumnsByIndex() throws Exception {
+    final Configuration config = new Configuration();
+    config.setColumnIndexAccessEnabled(true);
+    final MappedStatement ms = getMappedStatement(config);
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(1).thenReturn(2);
+    when(rs.getInt(2)).thenReturn(100).thenReturn(200);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("OTHER");
+    when(rsmd.getColumnLabel(2)).thenReturn("COLUMN1");
+    when(rsmd.getColumnType(any(int.class))).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(any(int.class))).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+    assertEquals(200, ((HashMap) results.get(1)).get("cOlUmN1"));
+    assertEquals(2, ((HashMap) results.get(1)).get("OTHER"));
+  }
+
+  @Test
+  void shouldResolveColumnIndexOfLabels() throws Exception {
     final Configuration config = new Configuration();
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(3);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnLabel(2)).thenReturn("name");
+    when(rsmd.getColumnLabel(3)).thenReturn("Id");
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, config);
+    // the first column with the label, as ResultSet#findColumn does
+    assertEquals(1, rsw.getColumnIndex("id"));
+    assertEquals(2, rsw.getColumnIndex("NAME"));
+    assertEquals(0, rsw.getColumnIndex("missing"));
+  }
+
+  @Test
+  void shouldNotResolveColumnIndexOfColumnNames() throws Exception {
+    final Configuration config = new Configuration();
+    config.setUseColumnLabel(false);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnName(1)).thenReturn("ID");
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, config);
+    assertEquals(0, rsw.getColumnIndex("ID"));
+  }
+
+  MappedStatement getMappedStatement() {
+    return getMappedStatement(new Configuration());
+  }
+
+  MappedStatement getMappedStatement(final Configuration config) {
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
     return new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).resultMaps(
         new ArrayList<ResultMap>() {
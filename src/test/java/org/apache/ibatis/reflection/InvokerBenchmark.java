@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.invoker.DefaultInvokerFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvokerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the invokers of the {@link MethodHandleReflectorFactory} with the reflective ones of the
+ * {@link DefaultReflectorFactory}, as the result mapping calls them: several properties through the same call site,
+ * the setters taking boxed values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+  private static final String[] PROPERTIES = { "id", "name", "total", "active" };
+  private static final Object[] VALUES = { 1, "name", 2L, Boolean.TRUE };
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  @Param({ "REFLECTION", "METHOD_HANDLE" })
+  public String invokers;
+
+  private Invoker[] getters;
+  private Invoker[] setters;
+  private Object[][] arguments;
+  private Row row;
+
+  @Setup
+  public void setUp() {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory(
+        "REFLECTION".equals(invokers) ? new DefaultInvokerFactory() : new MethodHandleInvokerFactory());
+    Reflector reflector = reflectorFactory.findForClass(Row.class);
+    getters = new Invoker[PROPERTIES.length];
+    setters = new Invoker[PROPERTIES.length];
+    arguments = new Object[PROPERTIES.length][];
+    for (int i = 0; i < PROPERTIES.length; i++) {
+      getters[i] = reflector.getGetInvoker(PROPERTIES[i]);
+      setters[i] = reflector.getSetInvoker(PROPERTIES[i]);
+      arguments[i] = new Object[] { VALUES[i] };
+    }
+    row = new Row();
+  }
+
+  @Benchmark
+  public Row set() throws Exception {
+    for (int i = 0; i < setters.length; i++) {
+      setters[i].invoke(row, arguments[i]);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public Object get() throws Exception {
+    Object value = null;
+    for (Invoker getter : getters) {
+      value = getter.invoke(row, NO_ARGUMENTS);
+    }
+    return value;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(InvokerBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  public static class Row {
+    private int id;
+    private String name;
+    private long total;
+    private boolean active;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public long getTotal() {
+      return total;
+    }
+
+    public void setTotal(long total) {
+      this.total = total;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package org.apache.ibatis.reflection;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -254,6 +255,24 @@ class MetaObjectTest {
     assertNull(metaMap.getValue("phone.home"));
   }
 
+  @Test
+  void shouldGetPositionalForEachItems() {
+    HashMap<String, Object> map = new HashMap<>();
+    map.put("__frch", Arrays.asList("a", new Author(1)));
+    map.put("items", Arrays.asList("a", new Author(1)));
+    MetaObject metaMap = SystemMetaObject.forObject(map);
+
+    assertTrue(metaMap.hasGetter("__frch[0]"));
+    assertTrue(metaMap.hasGetter("__frch[1].id"));
+    assertFalse(metaMap.hasGetter("others[1].id"));
+    assertEquals(String.class, metaMap.getGetterType("__frch[0]"));
+    assertEquals(int.class, metaMap.getGetterType("__frch[1].id"));
+    assertEquals(1, metaMap.getValue("__frch[1].id"));
+    // the indexed names of other entries are resolved as before
+    assertFalse(metaMap.hasGetter("items[1].id"));
+    assertEquals(Object.class, metaMap.getGetterType("items[5]"));
+  }
+
   @Test
   void shouldNotUseObjectWrapperFactoryByDefault() {
     MetaObject meta = SystemMetaObject.forObject(new Author());
@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.invoker.MethodHandleGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleSetFieldInvoker;
+import org.junit.jupiter.api.Test;
+
+class MethodHandleReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+
+  @Test
+  void shouldAccessPropertiesWithMethodHandles() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertThat(reflector.getGetInvoker("name")).isInstanceOf(MethodHandleMethodInvoker.class);
+    assertThat(reflector.getSetInvoker("name")).isInstanceOf(MethodHandleMethodInvoker.class);
+    assertThat(reflector.getGetInvoker("count")).isInstanceOf(MethodHandleGetFieldInvoker.class);
+    assertThat(reflector.getSetInvoker("count")).isInstanceOf(MethodHandleSetFieldInvoker.class);
+
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "value" });
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 });
+    assertEquals("value", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, new Object[0]));
+  }
+
+  @Test
+  void shouldWidenPrimitiveArgumentsAsReflectionDoes() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("total").invoke(bean, new Object[] { 7 });
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { (short) 2 });
+    assertEquals(7L, bean.getTotal());
+    assertEquals(2, bean.count);
+  }
+
+  @Test
+  void shouldRejectArgumentsAsReflectionDoes() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("name").invoke(bean, new Object[] { 1 }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("total").invoke(bean, new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("total").invoke(bean, new Object[] { 1.5 }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("count").invoke(bean, new Object[] { "1" }));
+  }
+
+  @Test
+  void shouldWrapExceptionsOfTheMethod() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getSetInvoker("failing").invoke(new Bean(), new Object[] { "value" }));
+    assertThat(e.getTargetException()).isInstanceOf(IllegalStateException.class).hasMessage("value");
+  }
+
+  @Test
+  void shouldSetFinalFieldsAsReflectionDoes() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertThat(reflector.getSetInvoker("id")).isInstanceOf(MethodHandleSetFieldInvoker.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("id").invoke(bean, new Object[] { 5 });
+    assertEquals(5, reflector.getGetInvoker("id").invoke(bean, new Object[0]));
+  }
+
+  @Test
+  void shouldSpreadArgumentsOfOtherMethods() throws Exception {
+    MethodHandleMethodInvoker invoker = new MethodHandleMethodInvoker(
+        Bean.class.getMethod("rename", String.class, int.class));
+    assertEquals("value2", invoker.invoke(new Bean(), new Object[] { "value", 2 }));
+    assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Bean(), new Object[] { "value" }));
+    assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Bean(), new Object[] { "value", 2L }));
+  }
+
+  @Test
+  void shouldResolveGenericGetterTypesOfMethodHandleInvokers() {
+    MetaClass metaClass = MetaClass.forClass(Bean.class, reflectorFactory);
+    assertEquals(String.class, metaClass.getGetterType("names[0]"));
+  }
+
+  static class Bean {
+    private final int id = 1;
+    private int count;
+    private String name;
+    private long total;
+    private java.util.List<String> names;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public long getTotal() {
+      return total;
+    }
+
+    public void setTotal(long total) {
+      this.total = total;
+    }
+
+    public java.util.List<String> getNames() {
+      return names;
+    }
+
+    public String rename(String name, int suffix) {
+      return name + suffix;
+    }
+
+    public void setFailing(String value) {
+      throw new IllegalStateException(value);
+    }
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledSqlNodeTest {
+
+  private static final String SCRIPT = "<script>"
+      + "<bind name=\"pattern\" value=\"name == null ? null : '%' + name + '%'\"/>"
+      + "SELECT * FROM BLOG"
+      + "<where>"
+      + "  <if test=\"id != null\">AND ID = #{id}</if>"
+      + "  <if test=\"name != null\">AND NAME LIKE #{pattern}</if>"
+      + "  <choose>"
+      + "    <when test=\"state == 1\">AND STATE = 'A'</when>"
+      + "    <when test=\"state == 2\">AND STATE = ${state}</when>"
+      + "    <otherwise>AND STATE IS NULL</otherwise>"
+      + "  </choose>"
+      + "  <if test=\"groups != null\">"
+      + "    AND (<foreach collection=\"groups\" item=\"group\" index=\"i\" separator=\"OR\">"
+      + "      <trim prefix=\"(\" suffix=\")\" prefixOverrides=\"AND\">"
+      + "        <if test=\"i > 0\">AND GROUP_INDEX = #{i}</if>"
+      + "        AND TAG IN <foreach collection=\"group\" item=\"tag\" open=\"(\" close=\")\" separator=\",\">#{tag}</foreach>"
+      + "      </trim>"
+      + "    </foreach>)"
+      + "  </if>"
+      + "  <if test=\"attributes != null\">"
+      + "    <foreach collection=\"attributes\" index=\"key\" item=\"value\">AND ${key} = #{value}</foreach>"
+      + "  </if>"
+      + "</where>"
+      + "<trim prefix=\"ORDER BY\" suffixOverrides=\",\">ID,</trim>"
+      + "</script>";
+
+  @Test
+  void shouldGenerateSameSqlAndBindingsAsTheNodeTree() {
+    assertSameSqlAndBindings(false);
+  }
+
+  @Test
+  void shouldGenerateSameSqlAndPositionalBindingsAsTheNodeTree() {
+    assertSameSqlAndBindings(true);
+  }
+
+  private static void assertSameSqlAndBindings(boolean positionalForEachBindings) {
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("COLOR", "red");
+    attributes.put("SIZE", 3);
+    List<Map<String, Object>> parameters = Arrays.asList(
+        parameters(null, null, 0, null, null),
+        parameters(1, "a", 1, null, null),
+        parameters(null, "a", 2, Arrays.asList(Arrays.asList("x", "y"), Collections.singletonList("z")), null),
+        parameters(2, null, 3, Collections.singletonList(Collections.emptyList()), attributes),
+        parameters(3, "b", 1, Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5)), attributes));
+    SqlSource interpreted = createSqlSource(false, positionalForEachBindings);
+    SqlSource compiled = createSqlSource(true, positionalForEachBindings);
+    for (Map<String, Object> parameter : parameters) {
+      BoundSql expected = interpreted.getBoundSql(parameter);
+      BoundSql actual = compiled.getBoundSql(parameter);
+      assertThat(actual.getSql()).isEqualTo(expected.getSql());
+      assertThat(properties(actual)).isEqualTo(properties(expected));
+      for (int i = 0; i < actual.getParameterMappings().size(); i++) {
+        String property = actual.getParameterMappings().get(i).getProperty();
+        if (expected.hasAdditionalParameter(property)) {
+          assertThat(actual.getAdditionalParameter(property)).isEqualTo(expected.getAdditionalParameter(property));
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldApplyNodesThatAreNotCompiled() {
+    Configuration configuration = new Configuration();
+    SqlNode custom = context -> {
+      context.appendSql("AND CUSTOM = #{item}");
+      return true;
+    };
+    SqlNode root = new MixedSqlNode(Arrays.asList(
+        new StaticTextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, new ForEachSqlNode(configuration, custom, "list", null, "item", null, null, null))));
+    Map<String, Object> parameter = Collections.singletonMap("list", Arrays.asList(1, 2));
+
+    BoundSql expected = new DynamicSqlSource(configuration, root).getBoundSql(parameter);
+    BoundSql actual = new DynamicSqlSource(configuration, CompiledSqlNode.compile(configuration, root)).getBoundSql(parameter);
+
+    assertThat(actual.getSql()).isEqualTo(expected.getSql()).isEqualTo("SELECT * FROM BLOG WHERE  CUSTOM = ?AND CUSTOM = ?");
+    assertThat(properties(actual)).containsExactly("__frch_item_0", "__frch_item_1");
+  }
+
+  @Test
+  void shouldTrimStaticBodiesWhenCompiling() {
+    Configuration configuration = new Configuration();
+    SqlNode root = new MixedSqlNode(Arrays.asList(
+        new StaticTextSqlNode("UPDATE BLOG"),
+        new SetSqlNode(configuration, new MixedSqlNode(Arrays.asList(
+            new StaticTextSqlNode("TITLE = #{title},"), new StaticTextSqlNode(" STATE = 'A',")))),
+        new IfSqlNode(new StaticTextSqlNode("WHERE ID = #{id}"), "id != null")));
+
+    CompiledSqlNode compiled = CompiledSqlNode.compile(configuration, root);
+    BoundSql boundSql = new DynamicSqlSource(configuration, compiled).getBoundSql(Collections.singletonMap("id", 1));
+
+    assertThat(compiled.getInstructionCount()).isEqualTo(4);
+    assertThat(boundSql.getSql()).isEqualTo("UPDATE BLOG SET TITLE = ?, STATE = 'A' WHERE ID = ?");
+  }
+
+  @Test
+  void shouldCollectSameExpressionsAsTheNodeTree() {
+    DynamicSqlSource interpreted = (DynamicSqlSource) createSqlSource(false, false);
+    DynamicSqlSource compiled = (DynamicSqlSource) createSqlSource(true, false);
+
+    assertThat(compiled.getExpressions()).isEqualTo(interpreted.getExpressions()).containsExactlyInAnyOrder(
+        "name == null ? null : '%' + name + '%'", "id != null", "name != null", "state == 1", "state == 2", "state",
+        "groups != null", "groups", "i > 0", "group", "attributes != null", "attributes", "key");
+  }
+
+  private static SqlSource createSqlSource(boolean compilationEnabled, boolean positionalForEachBindings) {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCompilationEnabled(compilationEnabled);
+    configuration.setPositionalForEachBindings(positionalForEachBindings);
+    return configuration.getDefaultScriptingLanguageInstance().createSqlSource(configuration, SCRIPT, Map.class);
+  }
+
+  private static Map<String, Object> parameters(Integer id, String name, int state, List<?> groups,
+      Map<String, Object> attributes) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("id", id);
+    parameters.put("name", name);
+    parameters.put("state", state);
+    parameters.put("groups", groups);
+    parameters.put("attributes", attributes);
+    return parameters;
+  }
+
+  private static List<String> properties(BoundSql boundSql) {
+    return boundSql.getParameterMappings().stream().map(ParameterMapping::getProperty).collect(Collectors.toList());
+  }
+
+}
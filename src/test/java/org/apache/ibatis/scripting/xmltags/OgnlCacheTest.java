@@ -26,6 +26,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.Test;
 
 class OgnlCacheTest {
@@ -50,4 +52,108 @@ class OgnlCacheTest {
     }
     executor.shutdown();
   }
+
+  @Test
+  void shouldEvaluateSameAsInterpretedWhenCompilationEnabled() {
+    Configuration interpreted = new Configuration();
+    Configuration compiled = new Configuration();
+    compiled.setOgnlCompilationEnabled(true);
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("name", "Steve");
+    parameter.put("age", 42);
+    String[] expressions = { "name != null", "name.length() > 2", "age >= 18 and age < 65", "_parameter.name == 'Steve'",
+        "missing == null", "_databaseId == null" };
+    for (String expression : expressions) {
+      Object expected = OgnlCache.getValue(expression, new DynamicContext(interpreted, parameter).getBindings());
+      for (int i = 0; i < OgnlCache.COMPILE_THRESHOLD * 2; i++) {
+        assertEquals(expected, OgnlCache.getValue(expression, new DynamicContext(compiled, parameter).getBindings()), expression);
+      }
+    }
+  }
+
+  @Test
+  void shouldKeepInterpretingWhenCompiledFormFails() {
+    Configuration configuration = new Configuration();
+    configuration.setOgnlCompilationEnabled(true);
+    String expression = "value.size() > 1";
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("value", new Box(3));
+    for (int i = 0; i < OgnlCache.COMPILE_THRESHOLD * 2; i++) {
+      assertEquals(Boolean.TRUE, OgnlCache.getValue(expression, new DynamicContext(configuration, parameter).getBindings()));
+    }
+    assertTrue(OgnlCache.isCompiled(expression));
+    // compiled code casts the value to Box, the failed evaluation is not repeated by the interpreter
+    parameter.put("value", new OtherBox(1));
+    assertThrows(BuilderException.class,
+        () -> OgnlCache.getValue(expression, new DynamicContext(configuration, parameter).getBindings()));
+    assertFalse(OgnlCache.isCompiled(expression));
+    assertEquals(Boolean.FALSE, OgnlCache.getValue(expression, new DynamicContext(configuration, parameter).getBindings()));
+  }
+
+  @Test
+  void shouldKeepCompiledFormOfOtherParameterTypes() {
+    Configuration configuration = new Configuration();
+    configuration.setOgnlCompilationEnabled(true);
+    String expression = "value.size() > 2";
+    BoxHolder holder = new BoxHolder(new Box(3));
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("value", new Box(3));
+    for (int i = 0; i < OgnlCache.COMPILE_THRESHOLD * 2; i++) {
+      assertEquals(Boolean.TRUE, OgnlCache.getValue(expression, new DynamicContext(configuration, holder).getBindings()));
+      assertEquals(Boolean.TRUE, OgnlCache.getValue(expression, new DynamicContext(configuration, parameter).getBindings()));
+    }
+    assertTrue(OgnlCache.isCompiled(expression, BoxHolder.class));
+    // a failure of the compiled form for maps does not deoptimize the expression for holders
+    parameter.put("value", new OtherBox(1));
+    assertThrows(BuilderException.class,
+        () -> OgnlCache.getValue(expression, new DynamicContext(configuration, parameter).getBindings()));
+    assertFalse(OgnlCache.isCompiled(expression, HashMap.class));
+    assertTrue(OgnlCache.isCompiled(expression, BoxHolder.class));
+    assertEquals(Boolean.TRUE, OgnlCache.getValue(expression, new DynamicContext(configuration, holder).getBindings()));
+  }
+
+  @Test
+  void shouldNotLeakVariablesBetweenEvaluations() {
+    Configuration configuration = new Configuration();
+    configuration.setOgnlCompilationEnabled(true);
+    Map<String, Object> bindings = new DynamicContext(configuration, null).getBindings();
+    assertEquals(1, OgnlCache.getValue("#counter = 1", bindings));
+    assertNull(OgnlCache.getValue("#counter", bindings));
+  }
+
+  public static class Box {
+    private final int size;
+
+    Box(int size) {
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+
+  public static class BoxHolder {
+    private final Box value;
+
+    BoxHolder(Box value) {
+      this.value = value;
+    }
+
+    public Box getValue() {
+      return value;
+    }
+  }
+
+  public static class OtherBox {
+    private final int size;
+
+    OtherBox(int size) {
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.auto_mapping_plan_cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.resultset.AutoMappingPlanCache;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AutoMappingPlanCacheTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/auto_mapping_plan_cache/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/auto_mapping_plan_cache/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetPlans() {
+    sqlSessionFactory.getConfiguration().setAutoMappingPlanCacheEnabled(true);
+    planCache().clear();
+  }
+
+  @Test
+  void shouldReusePlanForSameColumns() {
+    List<User> first = getUsers(true);
+    List<User> second = getUsers(true);
+    assertThat(planCache().size()).isEqualTo(1);
+    assertThat(first).extracting(User::getName).containsExactly("User1", "User2");
+    assertThat(second).extracting(User::getName).containsExactly("User1", "User2");
+  }
+
+  @Test
+  void shouldResolvePlanPerColumnSignature() {
+    List<User> withName = getUsers(true);
+    List<User> withoutName = getUsers(false);
+    assertThat(planCache().size()).isEqualTo(2);
+    assertThat(withName).extracting(User::getName).containsExactly("User1", "User2");
+    assertThat(withoutName).extracting(User::getId).containsExactly(1, 2);
+    assertThat(withoutName).extracting(User::getName).containsOnlyNulls();
+    assertThat(getUsers(false)).extracting(User::getName).containsOnlyNulls();
+  }
+
+  @Test
+  void shouldNotCachePlansWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setAutoMappingPlanCacheEnabled(false);
+    assertThat(getUsers(true)).extracting(User::getName).containsExactly("User1", "User2");
+    assertThat(planCache().size()).isZero();
+  }
+
+  @Test
+  void shouldDropPlansWhenTypeHandlersAreRegistered() {
+    TypeHandlerRegistry typeHandlerRegistry = sqlSessionFactory.getConfiguration().getTypeHandlerRegistry();
+    getUsers(true);
+    assertThat(planCache().size()).isEqualTo(1);
+    try {
+      typeHandlerRegistry.register(String.class, JdbcType.VARCHAR, new UpperCaseTypeHandler());
+      assertThat(planCache().size()).isZero();
+      assertThat(getUsers(true)).extracting(User::getName).containsExactly("USER1", "USER2");
+    } finally {
+      typeHandlerRegistry.register(String.class, JdbcType.VARCHAR, new StringTypeHandler());
+    }
+  }
+
+  private List<User> getUsers(boolean withName) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(Mapper.class).getUsers(withName);
+    }
+  }
+
+  private AutoMappingPlanCache planCache() {
+    return sqlSessionFactory.getConfiguration().getMappedStatement(Mapper.class.getName() + ".getUsers").getAutoMappingPlanCache();
+  }
+
+  public static class UpperCaseTypeHandler extends StringTypeHandler {
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+      String value = super.getNullableResult(rs, columnName);
+      return value == null ? null : value.toUpperCase();
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+      String value = super.getNullableResult(rs, columnIndex);
+      return value == null ? null : value.toUpperCase();
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    QueryCounter.executedSql.clear();
+  }
+
+  @Test
+  void shouldFetchAssociationsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      assertThat(blogs).extracting(blog -> blog.getAuthor() == null ? null : blog.getAuthor().getName())
+          .containsExactly("Alice", "Bob", "Alice", null, "Carol");
+      // the batch of two authors is full on the second blog, the last one holds the remaining authors
+      assertThat(QueryCounter.count("authors")).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldFetchCollectionsInOneQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 2");
+      assertThat(blogs.get(1).getPosts()).extracting(Post::getSubject).containsExactly("Post 3");
+      assertThat(blogs.get(2).getPosts()).isEmpty();
+      assertThat(blogs.get(4).getPosts()).extracting(Post::getSubject).containsExactly("Post 4");
+      assertThat(QueryCounter.count("posts")).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldFetchByCompositeKeys() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      assertThat(blogs.get(0).getPosts().get(0).getComments()).containsExactly("Comment 1", "Comment 2");
+      assertThat(blogs.get(0).getPosts().get(1).getComments()).isEmpty();
+      assertThat(blogs.get(1).getPosts().get(0).getComments()).containsExactly("Comment 3");
+      assertThat(blogs.get(4).getPosts().get(0).getComments()).isEmpty();
+      assertThat(QueryCounter.count("comments")).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldLoadEachRowOfCursor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      try (Cursor<Blog> cursor = sqlSession.getMapper(Mapper.class).selectBlogCursor()) {
+        cursor.forEach(blogs::add);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      // the rows of a cursor are returned one by one, their nested selects cannot wait for a batch
+      assertThat(blogs).extracting(blog -> blog.getPosts().size()).containsExactly(2, 1, 0, 0, 1);
+      assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("Bob");
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertiesOfOtherRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectLazyBlogs();
+      assertThat(QueryCounter.count("posts")).isZero();
+      assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 2");
+      assertThat(QueryCounter.count("posts")).isEqualTo(1);
+      assertThat(blogs).extracting(blog -> blog.getPosts().size()).containsExactly(2, 1, 0, 0, 1);
+      assertThat(QueryCounter.count("posts")).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertiesInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectLazyBlogs();
+      assertThat(blogs.get(2).getAuthor().getName()).isEqualTo("Alice");
+      // the authors 1 and 2 are loaded by the first batch
+      assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("Bob");
+      assertThat(blogs.get(0).getAuthor().getName()).isEqualTo("Alice");
+      assertThat(QueryCounter.count("authors")).isEqualTo(1);
+      assertThat(blogs.get(3).getAuthor()).isNull();
+      assertThat(blogs.get(4).getAuthor().getName()).isEqualTo("Carol");
+      assertThat(QueryCounter.count("authors")).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldRequireForeignColumn() {
+    Configuration configuration = new Configuration();
+    ResultMapping.Builder builder = new ResultMapping.Builder(configuration, "posts", "id", Object.class)
+        .nestedQueryId("selectPosts").batchSize(10);
+    assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("A batchSize requires a nested select and a foreignColumn");
+  }
+
+}
@@ -0,0 +1,63 @@
+--
+--    Copyright 2009-2021 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table comments if exists;
+drop table posts if exists;
+drop table blogs if exists;
+drop table authors if exists;
+
+create table authors (
+  id int,
+  name varchar(20)
+);
+
+create table blogs (
+  id int,
+  title varchar(20),
+  author_id int
+);
+
+create table posts (
+  id int,
+  blog_id int,
+  subject varchar(20)
+);
+
+create table comments (
+  blog_id int,
+  post_id int,
+  text varchar(20)
+);
+
+insert into authors (id, name) values(1, 'Alice');
+insert into authors (id, name) values(2, 'Bob');
+insert into authors (id, name) values(3, 'Carol');
+
+insert into blogs (id, title, author_id) values(1, 'Blog 1', 1);
+insert into blogs (id, title, author_id) values(2, 'Blog 2', 2);
+insert into blogs (id, title, author_id) values(3, 'Blog 3', 1);
+insert into blogs (id, title, author_id) values(4, 'Blog 4', null);
+insert into blogs (id, title, author_id) values(5, 'Blog 5', 3);
+
+insert into posts (id, blog_id, subject) values(1, 1, 'Post 1');
+insert into posts (id, blog_id, subject) values(2, 1, 'Post 2');
+insert into posts (id, blog_id, subject) values(1, 2, 'Post 3');
+insert into posts (id, blog_id, subject) values(1, 5, 'Post 4');
+
+insert into comments (blog_id, post_id, text) values(1, 1, 'Comment 1');
+insert into comments (blog_id, post_id, text) values(1, 1, 'Comment 2');
+insert into comments (blog_id, post_id, text) values(2, 1, 'Comment 3');
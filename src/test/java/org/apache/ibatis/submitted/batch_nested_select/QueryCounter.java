@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }),
+    @Signature(type = StatementHandler.class, method = "queryCursor", args = { Statement.class }) })
+public class QueryCounter implements Interceptor {
+
+  static final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    executedSql.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+    return invocation.proceed();
+  }
+
+  static long count(String table) {
+    return executedSql.stream().filter(sql -> sql.contains("from " + table)).count();
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.chunked_select;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChunkedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/chunked_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/chunked_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    QueryCounter.reset();
+  }
+
+  @Test
+  void shouldNotSplitWhenItemsFitInOneChunk() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(Arrays.asList(1, 2, 3));
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+      assertThat(QueryCounter.queries).hasValue(1);
+    }
+  }
+
+  @Test
+  void shouldSplitAndConcatenateResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(Arrays.asList(10, 1, 2, 3, 4, 5, 6, 7));
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 10, 3, 4, 5, 6, 7);
+      assertThat(QueryCounter.queries).hasValue(3);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBoundsToConcatenatedResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(Arrays.asList(1, 2, 3, 4, 5, 6, 7), new RowBounds(2, 3));
+      assertThat(users).extracting(User::getId).containsExactly(3, 4, 5);
+    }
+  }
+
+  @Test
+  void shouldSplitArraysBeforeConvertingToTheReturnType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User[] users = sqlSession.getMapper(Mapper.class).getUserArray(new int[] { 1, 2, 3, 4, 5 });
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5);
+      assertThat(QueryCounter.queries).hasValue(2);
+    }
+  }
+
+  @Test
+  void shouldRunChunksInParallel() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class)
+          .getUsersInParallel(new LinkedHashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+      assertThat(QueryCounter.queries).hasValue(5);
+      // an idle worker may pick up the chunks of another one
+      assertThat(QueryCounter.threads).hasSizeBetween(2, 3).contains(Thread.currentThread().getName());
+    }
+  }
+
+  @Test
+  void shouldRunChunksOnTheSessionWhenItUsesAGivenConnection() throws Exception {
+    DataSource dataSource = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    try (Connection connection = dataSource.getConnection();
+         SqlSession sqlSession = sqlSessionFactory.openSession(connection)) {
+      List<User> users = sqlSession.getMapper(Mapper.class)
+          .getUsersInParallel(new LinkedHashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+      assertThat(QueryCounter.threads).containsExactly(Thread.currentThread().getName());
+    }
+  }
+
+  @Test
+  void shouldRunChunksOnTheSessionWhenItHasUncommittedChanges() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.renameUser(9, "Renamed");
+      List<User> users = mapper.getUsersInParallel(new LinkedHashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+      assertThat(users).extracting(User::getName).endsWith("Renamed");
+      assertThat(QueryCounter.threads).containsExactly(Thread.currentThread().getName());
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldPassEveryChunkToTheResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Integer> ids = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).getUsersWithHandler(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8),
+          new RowBounds(1, 5), context -> ids.add(context.getResultObject().getId()));
+      assertThat(ids).containsExactly(2, 3, 4, 5, 6);
+      assertThat(QueryCounter.queries).hasValue(2);
+    }
+  }
+
+}
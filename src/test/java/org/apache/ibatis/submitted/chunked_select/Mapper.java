@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.chunked_select;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  List<User> getUsers(@Param("ids") List<Integer> ids);
+
+  List<User> getUsers(@Param("ids") List<Integer> ids, RowBounds rowBounds);
+
+  User[] getUserArray(@Param("ids") int[] ids);
+
+  List<User> getUsersInParallel(@Param("ids") Set<Integer> ids);
+
+  void getUsersWithHandler(@Param("ids") List<Integer> ids, RowBounds rowBounds, ResultHandler<User> handler);
+
+  int renameUser(@Param("id") Integer id, @Param("name") String name);
+
+}
@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.chunked_select;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+@Intercepts(@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+    RowBounds.class, ResultHandler.class }))
+public class QueryCounter implements Interceptor {
+
+  static final AtomicInteger queries = new AtomicInteger();
+  static final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+  static void reset() {
+    queries.set(0);
+    threads.clear();
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    queries.incrementAndGet();
+    threads.add(Thread.currentThread().getName());
+    return invocation.proceed();
+  }
+
+}
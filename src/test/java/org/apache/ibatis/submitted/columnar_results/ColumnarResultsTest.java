@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.columnar.ColumnarResult;
+import org.apache.ibatis.columnar.ColumnarResultHandler;
+import org.apache.ibatis.columnar.DoubleColumn;
+import org.apache.ibatis.columnar.IntColumn;
+import org.apache.ibatis.columnar.LongColumn;
+import org.apache.ibatis.columnar.ObjectColumn;
+import org.apache.ibatis.columnar.StringColumn;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumnar(Mapper.class.getName() + ".getItems");
+      assertThat(result.getRowCount()).isEqualTo(4);
+      assertThat(result.getColumnNames()).containsExactly("ID", "AMOUNT", "PRICE", "CATEGORY", "TOTAL");
+
+      IntColumn id = (IntColumn) result.getColumn("id");
+      assertThat(id.getValues()).containsExactly(1, 2, 3, 4);
+
+      LongColumn amount = (LongColumn) result.getColumn(1);
+      assertThat(amount.getLong(0)).isEqualTo(10000000000L);
+      assertThat(amount.isNull(1)).isTrue();
+      assertThat(amount.getValue(1)).isNull();
+      assertThat(amount.getValue(3)).isEqualTo(40000000000L);
+
+      DoubleColumn price = (DoubleColumn) result.getColumn("PRICE");
+      assertThat(price.getValues()).containsExactly(1.5, 2.5, 0.0, 4.5);
+      assertThat(price.isNull(2)).isTrue();
+      assertThat(price.isNull(3)).isFalse();
+    }
+  }
+
+  @Test
+  void shouldWidenUnsignedIntegers() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(rs.getMetaData()).thenReturn(metaData);
+    when(metaData.getColumnCount()).thenReturn(2);
+    when(metaData.getColumnLabel(1)).thenReturn("SIGNED_ID");
+    when(metaData.getColumnLabel(2)).thenReturn("UNSIGNED_ID");
+    when(metaData.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(metaData.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(metaData.isSigned(1)).thenReturn(true);
+    when(metaData.isSigned(2)).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(-1);
+    when(rs.getLong(2)).thenReturn(4294967295L);
+
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    handler.startResultSet(new ResultSetWrapper(rs, new Configuration()));
+    handler.handleRow(rs);
+    ColumnarResult result = handler.getResult();
+    assertThat(((IntColumn) result.getColumn("SIGNED_ID")).getInt(0)).isEqualTo(-1);
+    assertThat(((LongColumn) result.getColumn("UNSIGNED_ID")).getLong(0)).isEqualTo(4294967295L);
+  }
+
+  @Test
+  void shouldEncodeStringsWithDictionary() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumnar(Mapper.class.getName() + ".getItems");
+      StringColumn category = (StringColumn) result.getColumn("category");
+      assertThat(category.getDictionary()).containsExactly("books", "games");
+      assertThat(category.getCodes()).containsExactly(0, 1, 0, -1);
+      assertThat(category.getString(2)).isEqualTo("books");
+      assertThat(category.getString(3)).isNull();
+      assertThat(category.isNull(3)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldReadOtherColumnsWithTypeHandlers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumnar(Mapper.class.getName() + ".getItems");
+      ObjectColumn total = (ObjectColumn) result.getColumn("total");
+      assertThat(total.getValue(0)).isEqualTo(new BigDecimal("10.25"));
+      assertThat(total.getValue(2)).isNull();
+      assertThat(total.isNull(2)).isTrue();
+      assertThat(total.getValues()).hasSize(4);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumnar(Mapper.class.getName() + ".getItems", null, new RowBounds(1, 2));
+      assertThat(result.getRowCount()).isEqualTo(2);
+      assertThat(((IntColumn) result.getColumn("id")).getValues()).containsExactly(2, 3);
+      assertThatThrownBy(() -> result.getColumn("id").getValue(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Test
+  void shouldReturnColumnarResultFromMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getItems().getRowCount()).isEqualTo(4);
+      assertThat(((IntColumn) mapper.getItems(new RowBounds(3, 10)).getColumn("id")).getValues()).containsExactly(4);
+      ColumnarResult games = mapper.getItemsOfCategory("games");
+      assertThat(((StringColumn) games.getColumn("category")).getDictionary()).containsExactly("games");
+    }
+  }
+
+  @Test
+  void shouldReturnEmptyColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getItemsOfCategory("music");
+      assertThat(result.getRowCount()).isZero();
+      assertThat(result.getColumnCount()).isEqualTo(2);
+      assertThat(((IntColumn) result.getColumn("id")).getValues()).isEmpty();
+      assertThatThrownBy(() -> result.getColumn("name")).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+}
@@ -0,0 +1,31 @@
+--
+--    Copyright 2009-2021 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table items if exists;
+
+create table items (
+  id int,
+  amount bigint,
+  price double,
+  category varchar(20),
+  total decimal(10, 2)
+);
+
+insert into items (id, amount, price, category, total) values(1, 10000000000, 1.5, 'books', 10.25);
+insert into items (id, amount, price, category, total) values(2, null, 2.5, 'games', 20.50);
+insert into items (id, amount, price, category, total) values(3, 30000000000, null, 'books', null);
+insert into items (id, amount, price, category, total) values(4, 40000000000, 4.5, null, 40.00);
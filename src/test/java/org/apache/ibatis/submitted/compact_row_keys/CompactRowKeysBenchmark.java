@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_row_keys;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the row keys of nested result maps with the {@link org.apache.ibatis.cache.CacheKey} row keys, on a select
+ * of blogs joined with their posts and tags.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactRowKeysBenchmark {
+
+  private static final int BLOGS = 100;
+  private static final int POSTS_PER_BLOG = 10;
+  private static final int TAGS_PER_POST = 2;
+
+  @Param({ "false", "true" })
+  public boolean compactRowKeysEnabled;
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Setup
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_row_keys/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().setCompactRowKeysEnabled(compactRowKeysEnabled);
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_row_keys/CreateDB.sql");
+    try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection()) {
+      connection.createStatement().execute("delete from tags");
+      connection.createStatement().execute("delete from posts");
+      connection.createStatement().execute("delete from blogs");
+      connection.createStatement().execute("create index posts_blog_id on posts (blog_id)");
+      connection.createStatement().execute("create index tags_post_id on tags (post_id)");
+      try (PreparedStatement blogs = connection.prepareStatement("insert into blogs (id, title) values (?, ?)");
+          PreparedStatement posts = connection.prepareStatement("insert into posts (id, blog_id, subject) values (?, ?, ?)");
+          PreparedStatement tags = connection.prepareStatement("insert into tags (post_id, name) values (?, ?)")) {
+        int postId = 0;
+        for (int blogId = 1; blogId <= BLOGS; blogId++) {
+          blogs.setInt(1, blogId);
+          blogs.setString(2, "Blog " + blogId);
+          blogs.executeUpdate();
+          for (int post = 0; post < POSTS_PER_BLOG; post++) {
+            posts.setInt(1, ++postId);
+            posts.setInt(2, blogId);
+            posts.setString(3, "Post " + postId);
+            posts.executeUpdate();
+            for (int tag = 0; tag < TAGS_PER_POST; tag++) {
+              tags.setInt(1, postId);
+              tags.setString(2, "tag" + tag);
+              tags.executeUpdate();
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public List<Blog> selectNestedResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(Mapper.class).selectBlogs();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CompactRowKeysBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
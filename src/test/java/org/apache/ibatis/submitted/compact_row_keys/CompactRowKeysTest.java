@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_row_keys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompactRowKeysTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_row_keys/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_row_keys/CreateDB.sql");
+  }
+
+  @Test
+  void shouldGroupRowsByOneAndTwoIdColumns() {
+    List<Blog> blogs = select(Mapper::selectBlogs);
+    assertThat(blogs).extracting(Blog::getTitle).containsExactly("Blog 1", "Blog 2", "Blog 3");
+    assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 2");
+    assertThat(blogs.get(0).getPosts().get(0).getTags()).extracting(Tag::getName).containsExactly("java", "sql");
+    assertThat(blogs.get(0).getPosts().get(1).getTags()).extracting(Tag::getName).containsExactly("java");
+    assertThat(blogs.get(1).getPosts()).extracting(Post::getSubject).containsExactly("Post 3");
+    assertThat(blogs.get(1).getPosts().get(0).getTags()).extracting(Tag::getName).containsExactly("sql");
+    // the left join returns null ids for the blog without posts
+    assertThat(blogs.get(2).getPosts()).isEmpty();
+  }
+
+  @Test
+  void shouldGroupUnorderedRows() {
+    List<Blog> blogs = select(Mapper::selectBlogsWithUnorderedRows);
+    assertThat(blogs).extracting(Blog::getTitle).containsExactlyInAnyOrder("Blog 1", "Blog 2", "Blog 3");
+    Blog first = blogs.stream().filter(blog -> blog.getId() == 1).findFirst().get();
+    assertThat(first.getPosts()).extracting(Post::getSubject).containsExactlyInAnyOrder("Post 1", "Post 2");
+    assertThat(first.getPosts()).allSatisfy(post -> assertThat(post.getTags()).extracting(Tag::getName).doesNotHaveDuplicates());
+  }
+
+  @Test
+  void shouldGroupRowsOfResultMapsWithoutIds() {
+    List<Blog> blogs = select(Mapper::selectBlogsWithoutIds);
+    assertThat(blogs).extracting(Blog::getTitle).containsExactly("Blog 1", "Blog 2", "Blog 3");
+    assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 2");
+    assertThat(blogs.get(2).getPosts()).isEmpty();
+  }
+
+  @Test
+  void shouldMapLikeCacheKeys() {
+    assertMappedLikeCacheKeys(false);
+  }
+
+  @Test
+  void shouldMapEmptyRowsLikeCacheKeys() {
+    assertMappedLikeCacheKeys(true);
+  }
+
+  private static void assertMappedLikeCacheKeys(boolean returnInstanceForEmptyRow) {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setReturnInstanceForEmptyRow(returnInstanceForEmptyRow);
+    try {
+      List<Blog> compact = select(Mapper::selectBlogs);
+      configuration.setCompactRowKeysEnabled(false);
+      List<Blog> blogs = select(Mapper::selectBlogs);
+      assertThat(compact).usingRecursiveFieldByFieldElementComparator().isEqualTo(blogs);
+    } finally {
+      configuration.setReturnInstanceForEmptyRow(false);
+      configuration.setCompactRowKeysEnabled(true);
+    }
+  }
+
+  private static List<Blog> select(Function<Mapper, List<Blog>> select) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return select.apply(sqlSession.getMapper(Mapper.class));
+    }
+  }
+
+}
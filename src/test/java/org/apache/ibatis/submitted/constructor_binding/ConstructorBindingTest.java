@@ -0,0 +1,103 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.constructor_binding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ConstructorBindingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/constructor_binding/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/constructor_binding/CreateDB.sql");
+  }
+
+  @Test
+  void shouldCreateResultsWithConstructorMappings() {
+    List<User> users = select(Mapper::getUsers);
+    assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+    assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+  }
+
+  @Test
+  void shouldCreateAutomappedResults() {
+    List<User> users = select(Mapper::getAutomappedUsers);
+    assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+  }
+
+  @Test
+  void shouldCreateResultsWithPrivateConstructors() {
+    List<PrivateUser> users = select(Mapper::getPrivateUsers);
+    assertThat(users).extracting(PrivateUser::getName).containsExactly("User1", "User2", null);
+  }
+
+  @Test
+  void shouldCreateNestedResultsWithColumnPrefix() {
+    List<Order> orders = select(Mapper::getOrders);
+    assertThat(orders).extracting(Order::getId).containsExactly(10, 11, 12);
+    assertThat(orders.get(0).getUser().getName()).isEqualTo("User1");
+    assertThat(orders.get(1).getUser().getId()).isEqualTo(2);
+    assertThat(orders.get(2).getUser()).isNull();
+  }
+
+  @Test
+  void shouldReportInvalidArguments() {
+    assertThatThrownBy(() -> select(Mapper::getPrimitiveUsers)).isInstanceOf(PersistenceException.class)
+        .hasMessageContaining("Error instantiating class org.apache.ibatis.submitted.constructor_binding.PrimitiveUser"
+            + " with invalid types (int,String) or values (null,User1)");
+  }
+
+  @Test
+  void shouldMapLikeObjectFactory() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    List<Order> orders = select(Mapper::getOrders);
+    List<User> users = select(Mapper::getAutomappedUsers);
+    configuration.setConstructorBindingEnabled(false);
+    try {
+      assertThat(orders).usingRecursiveFieldByFieldElementComparator().isEqualTo(select(Mapper::getOrders));
+      assertThat(users).usingRecursiveFieldByFieldElementComparator().isEqualTo(select(Mapper::getAutomappedUsers));
+    } finally {
+      configuration.setConstructorBindingEnabled(true);
+    }
+  }
+
+  private static <T> List<T> select(Function<Mapper, List<T>> select) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return select.apply(sqlSession.getMapper(Mapper.class));
+    }
+  }
+
+}
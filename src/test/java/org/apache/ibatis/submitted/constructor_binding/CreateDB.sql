@@ -0,0 +1,37 @@
+--
+--    Copyright 2009-2021 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table orders if exists;
+drop table users if exists;
+
+create table users (
+  id int,
+  name varchar(20)
+);
+
+create table orders (
+  id int,
+  user_id int
+);
+
+insert into users (id, name) values (1, 'User1');
+insert into users (id, name) values (2, 'User2');
+insert into users (id, name) values (3, null);
+
+insert into orders (id, user_id) values (10, 1);
+insert into orders (id, user_id) values (11, 2);
+insert into orders (id, user_id) values (12, null);
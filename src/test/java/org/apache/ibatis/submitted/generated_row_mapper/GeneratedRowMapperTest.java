@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.generated_row_mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GeneratedRowMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/generated_row_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/generated_row_mapper/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetSettings() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setRowMapperGenerationEnabled(true);
+    configuration.setCallSettersOnNulls(false);
+    configuration.setReturnInstanceForEmptyRow(false);
+    configuration.setUseColumnLabel(true);
+  }
+
+  @Test
+  void shouldMapAutomaticMappingsWithGeneratedRowMapper() {
+    List<User> users = select(Mapper::getUsers);
+    assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+    assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+    assertThat(users).extracting(User::getAge).containsExactly(30, 0, 0);
+    // the automatic mappings are resolved while the first row is mapped
+    assertThat(users.get(0).nameSetBy()).doesNotContain("$$RowMapper$");
+    assertThat(users.get(1).nameSetBy()).contains("$$RowMapper$");
+    assertThat(users.get(2).nameSetBy()).isNull();
+  }
+
+  @Test
+  void shouldMapResultMapWithGeneratedRowMapper() {
+    List<User> users = select(Mapper::getUsersWithResultMap);
+    assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+    assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+    assertThat(users).extracting(User::getAge).containsExactly(30, 0, 0);
+    assertThat(users.get(1).nameSetBy()).contains("$$RowMapper$");
+  }
+
+  @Test
+  void shouldMapSameValuesAsReflectiveMapping() {
+    List<User> generated = select(Mapper::getUsersWithResultMap);
+    sqlSessionFactory.getConfiguration().setRowMapperGenerationEnabled(false);
+    List<User> reflective = select(Mapper::getUsersWithResultMap);
+    assertThat(generated).usingRecursiveFieldByFieldElementComparatorIgnoringFields("nameSetBy").isEqualTo(reflective);
+    assertThat(reflective).extracting(User::nameSetBy).noneMatch(setBy -> setBy != null && setBy.contains("$$RowMapper$"));
+  }
+
+  @Test
+  void shouldCallSettersOnNulls() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    List<User> users = select(Mapper::getUsers);
+    assertThat(users.get(2).getName()).isNull();
+    assertThat(users.get(2).nameSetBy()).contains("$$RowMapper$");
+  }
+
+  @Test
+  void shouldReturnNullForEmptyRow() {
+    List<User> users = select(Mapper::getEmptyRows);
+    assertThat(users).hasSize(2);
+    assertThat(users.get(0).getName()).isEqualTo("User1");
+    assertThat(users.get(1)).isNull();
+  }
+
+  @Test
+  void shouldReturnInstanceForEmptyRow() {
+    sqlSessionFactory.getConfiguration().setReturnInstanceForEmptyRow(true);
+    List<User> users = select(Mapper::getEmptyRows);
+    assertThat(users).hasSize(2);
+    assertThat(users.get(1)).isNotNull();
+    assertThat(users.get(1).getName()).isNull();
+  }
+
+  @Test
+  void shouldReadColumnsByLabel() {
+    List<User> users = select(Mapper::getUsersWithSwappedColumns);
+    assertThat(users).extracting(User::getName).containsExactly("a", "b", null);
+    assertThat(users.get(1).nameSetBy()).contains("$$RowMapper$");
+  }
+
+  @Test
+  void shouldMapReflectivelyWithoutColumnLabels() {
+    // the column names are not the labels the columns are read by
+    sqlSessionFactory.getConfiguration().setUseColumnLabel(false);
+    List<User> users = select(Mapper::getUsersWithSwappedColumns);
+    assertThat(users).extracting(User::getName).containsExactly("a", "b", null);
+    assertThat(users).extracting(User::nameSetBy).noneMatch(setBy -> setBy != null && setBy.contains("$$RowMapper$"));
+  }
+
+  @Test
+  void shouldMapDiscriminatedResultMapReflectively() {
+    List<User> users = select(Mapper::getUsersWithDiscriminator);
+    assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+    assertThat(users).extracting(User::nameSetBy).noneMatch(setBy -> setBy != null && setBy.contains("$$RowMapper$"));
+  }
+
+  private List<User> select(Function<Mapper, List<User>> select) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return select.apply(sqlSession.getMapper(Mapper.class));
+    }
+  }
+
+}
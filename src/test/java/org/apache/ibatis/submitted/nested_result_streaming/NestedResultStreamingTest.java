@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.nested_result_streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.SpillingResultHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class NestedResultStreamingTest {
+
+  private static final String SELECT_BLOGS = "org.apache.ibatis.submitted.nested_result_streaming.Mapper.selectBlogs";
+  private static final String SELECT_BLOGS_BY_POST = "org.apache.ibatis.submitted.nested_result_streaming.Mapper.selectBlogsByPost";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/nested_result_streaming/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/nested_result_streaming/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPassCompleteResultsToResultHandler() {
+    List<String> handled = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.select(SELECT_BLOGS, context -> {
+        Blog blog = (Blog) context.getResultObject();
+        handled.add(blog.getTitle() + ":" + blog.getPosts().size());
+      });
+    }
+    assertThat(handled).containsExactly("Blog 1:2", "Blog 2:1", "Blog 3:0");
+  }
+
+  @Test
+  void shouldFetchCompleteResultsFromCursor() {
+    List<String> fetched = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Cursor<Blog> cursor = sqlSession.selectCursor(SELECT_BLOGS)) {
+      cursor.forEach(blog -> fetched.add(blog.getTitle() + ":" + blog.getPosts().size()));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    assertThat(fetched).containsExactly("Blog 1:2", "Blog 2:1", "Blog 3:0");
+  }
+
+  @Test
+  void shouldForgetHandledResults() {
+    List<String> handled = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.select(SELECT_BLOGS_BY_POST, context -> {
+        Blog blog = (Blog) context.getResultObject();
+        handled.add(blog.getTitle() + ":" + blog.getPosts().get(0).getSubject());
+      });
+    }
+    // the rows of the first blog are not adjacent, it is passed once per group of rows
+    assertThat(handled).containsExactly("Blog 1:Post 1", "Blog 2:Post 2", "Blog 1:Post 3");
+  }
+
+  @Test
+  void shouldNotStreamLists() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsByPost();
+      assertThat(blogs).extracting(Blog::getTitle).containsExactly("Blog 1", "Blog 2");
+      assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 3");
+    }
+  }
+
+  @Test
+  void shouldNotStreamResultsCollectedByMyBatis() {
+    SpillingResultHandler resultHandler = new SpillingResultHandler(10);
+    sqlSessionFactory.getConfiguration().setSafeResultHandlerEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.select(SELECT_BLOGS_BY_POST, resultHandler);
+      List<Object> blogs = resultHandler.getResultList();
+      assertThat(blogs).extracting("title").containsExactly("Blog 1", "Blog 2");
+      assertThat(((Blog) blogs.get(0)).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 3");
+    } finally {
+      sqlSessionFactory.getConfiguration().setSafeResultHandlerEnabled(true);
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.primitive_results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveResultsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/primitive_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/primitive_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSelectInts() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      String statement = Mapper.class.getName() + ".getIds";
+      assertThat(sqlSession.selectInts(statement)).containsExactly(1, 2, 3, 4);
+      assertThat(sqlSession.selectInts(statement, null, new RowBounds(1, 2))).containsExactly(2, 3);
+    }
+  }
+
+  @Test
+  void shouldSelectLongsAndDoubles() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectLongs(Mapper.class.getName() + ".getAmounts", 4))
+          .containsExactly(10000000000L, 20000000000L, 30000000000L);
+      assertThat(sqlSession.selectDoubles(Mapper.class.getName() + ".getPrices")).containsExactly(1.5, 2.5, 3.5, 4.5);
+    }
+  }
+
+  @Test
+  void shouldSelectPrimitivesThroughSelectByDefault() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // a session implemented outside of MyBatis only has to implement select
+      SqlSession otherSession = mock(SqlSession.class, CALLS_REAL_METHODS);
+      doAnswer(invocation -> {
+        sqlSession.select(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+            invocation.getArgument(3));
+        return null;
+      }).when(otherSession).select(anyString(), any(), any(RowBounds.class), any(ResultHandler.class));
+      assertThat(otherSession.selectInts(Mapper.class.getName() + ".getIds")).containsExactly(1, 2, 3, 4);
+      assertThat(otherSession.selectLongs(Mapper.class.getName() + ".getAmounts", 2)).containsExactly(10000000000L);
+      assertThat(otherSession.selectDoubles(Mapper.class.getName() + ".getPrices")).containsExactly(1.5, 2.5, 3.5, 4.5);
+    }
+  }
+
+  @Test
+  void shouldReturnPrimitivesFromMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getIds()).containsExactly(1, 2, 3, 4);
+      assertThat(mapper.getIds(new RowBounds(2, 10))).containsExactly(3, 4);
+      assertThat(mapper.getIdStream().sum()).isEqualTo(10);
+      assertThat(mapper.getAmounts(2)).containsExactly(10000000000L);
+      assertThat(mapper.getPrices().toArray()).containsExactly(1.5, 2.5, 3.5, 4.5);
+    }
+  }
+
+  @Test
+  void shouldWidenMappedValues() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // an int result type is not read with getLong, the mapped values are widened
+      assertThat(sqlSession.getMapper(Mapper.class).getIdsAsLongs()).containsExactly(1L, 2L, 3L, 4L);
+    }
+  }
+
+  @Test
+  void shouldReturnEmptyArray() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getAmounts(0)).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldFailOnNullValue() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getAllAmounts).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("A null value cannot be collected into the long[] result.");
+    }
+  }
+
+  @Test
+  void shouldFailOnValueOfOtherType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getNames).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("A value of type java.lang.String cannot be collected into the int[] result.");
+    }
+  }
+
+}
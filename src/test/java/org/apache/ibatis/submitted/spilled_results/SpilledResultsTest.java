@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.spilled_results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.SpilledResultList;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SpilledResultsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/spilled_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/spilled_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSpillPagesOfRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers();
+      assertThat(users).isInstanceOf(SpilledResultList.class);
+      try (SpilledResultList<User> spilled = (SpilledResultList<User>) users) {
+        assertThat(spilled.isSpilled()).isTrue();
+        assertThat(spilled.size()).isEqualTo(10);
+        assertThat(spilled.getPageSize()).isEqualTo(4);
+        assertThat(spilled.getPageCount()).isEqualTo(3);
+        assertThat(spilled.getPage(1)).extracting(User::getName).containsExactly("User5", "User6", "User7", "User8");
+        assertThat(spilled.getPage(2)).extracting(User::getName).containsExactly("User9", "User10");
+      }
+    }
+  }
+
+  @Test
+  void shouldReadRowsSequentiallyAndByIndex() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        SpilledResultList<User> users = (SpilledResultList<User>) sqlSession.<User>selectList(
+            "org.apache.ibatis.submitted.spilled_results.Mapper.getUsers")) {
+      List<Integer> ids = new ArrayList<>();
+      for (User user : users) {
+        ids.add(user.getId());
+      }
+      assertThat(ids).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+      assertThat(users.get(9).getName()).isEqualTo("User10");
+      assertThat(users.get(0).getName()).isEqualTo("User1");
+      assertThat(users.get(6).getName()).isEqualTo("User7");
+      assertThatThrownBy(() -> users.get(10)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Test
+  void shouldNotSpillSmallResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUser(3).getName()).isEqualTo("User3");
+    }
+  }
+
+  @Test
+  void shouldConvertSpilledResultsToArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User[] users = sqlSession.getMapper(Mapper.class).getUserArray();
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+  }
+
+  @Test
+  void shouldConvertSpilledResultsToMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<Integer, User> users = sqlSession.getMapper(Mapper.class).getUserMap();
+      assertThat(users).hasSize(10);
+      assertThat(users.get(7).getName()).isEqualTo("User7");
+    }
+  }
+
+  @Test
+  void shouldCloseSpilledResultsWithTheSession() {
+    SpilledResultList<User> users;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      users = (SpilledResultList<User>) sqlSession.getMapper(Mapper.class).getUsers();
+      assertThat(users.get(0).getName()).isEqualTo("User1");
+    }
+    assertThatThrownBy(() -> users.get(0)).isInstanceOf(ExecutorException.class)
+        .hasMessage("The result list is closed.");
+  }
+
+  @Test
+  void shouldNotReadClosedResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      SpilledResultList<User> users = (SpilledResultList<User>) sqlSession.getMapper(Mapper.class).getUsers();
+      users.close();
+      assertThatThrownBy(() -> users.get(0)).isInstanceOf(ExecutorException.class)
+          .hasMessage("The result list is closed.");
+    }
+  }
+
+  @Test
+  void shouldRequireSerializableResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getAccounts).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("The results must be Serializable");
+    }
+  }
+
+  @Test
+  void shouldRejectUnorderedNestedResultMaps() throws Exception {
+    Configuration configuration = new Configuration();
+    String resource = "org/apache/ibatis/submitted/spilled_results/UnorderedNestedMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+      assertThatThrownBy(builder::parse).isInstanceOf(BuilderException.class)
+          .hasMessageContaining("declares a spillThreshold, but its nested result maps")
+          .hasMessageContaining("resultOrdered");
+    }
+  }
+
+}
@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.annotations.InsertProvider;
@@ -59,6 +60,7 @@ class SqlProviderTest {
       sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
       sqlSessionFactory.getConfiguration().addMapper(StaticMethodSqlProviderMapper.class);
       sqlSessionFactory.getConfiguration().addMapper(DatabaseIdMapper.class);
+      sqlSessionFactory.getConfiguration().addMapper(CacheableMapper.class);
     }
     // populate in-memory database
     BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
@@ -999,4 +1001,164 @@ class SqlProviderTest {
     }
   }
 
+
+  @Test
+  void shouldReuseSqlOfCacheableProviderByNullArguments() throws NoSuchMethodException {
+    Class<?> mapperType = CacheableMapper.class;
+    Method mapperMethod = mapperType.getMethod("selectUsers", Integer.class, String.class);
+    ProviderSqlSource sqlSource = new ProviderSqlSource(sqlSessionFactory.getConfiguration(),
+        mapperMethod.getAnnotation(SelectProvider.class), mapperType, mapperMethod);
+    CacheableSqlProvider.invocations.set(0);
+
+    assertEquals("SELECT * FROM users WHERE id = ?", sqlSource.getBoundSql(params(1, null)).getSql());
+    assertEquals("SELECT * FROM users WHERE id = ?", sqlSource.getBoundSql(params(2, null)).getSql());
+    assertEquals("SELECT * FROM users WHERE id = ? AND name = ?", sqlSource.getBoundSql(params(2, "User2")).getSql());
+    assertEquals("SELECT * FROM users", sqlSource.getBoundSql(params(null, null)).getSql());
+    assertEquals("SELECT * FROM users WHERE id = ? AND name = ?", sqlSource.getBoundSql(params(3, "User3")).getSql());
+    assertEquals(3, CacheableSqlProvider.invocations.get());
+  }
+
+  @Test
+  void shouldReuseSqlOfCacheableProviderByCacheKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CacheableMapper mapper = sqlSession.getMapper(CacheableMapper.class);
+      CacheableSqlProvider.invocations.set(0);
+
+      User query = new User();
+      query.setId(1);
+      assertEquals("User1", mapper.selectByEntity(query).get(0).getName());
+      query.setId(3);
+      assertEquals("User3", mapper.selectByEntity(query).get(0).getName());
+      query.setName("User4");
+      assertEquals(0, mapper.selectByEntity(query).size());
+      query.setId(4);
+      assertEquals(1, mapper.selectByEntity(query).size());
+      assertEquals(2, CacheableSqlProvider.invocations.get());
+    }
+  }
+
+  @Test
+  void shouldReuseSqlOfCacheableProviderByNullProperties() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CacheableMapper mapper = sqlSession.getMapper(CacheableMapper.class);
+      CacheableSqlProvider.invocations.set(0);
+
+      User query = new User();
+      query.setId(1);
+      assertEquals("User1", mapper.selectByEntityWithoutCacheKey(query).get(0).getName());
+      query.setId(3);
+      assertEquals("User3", mapper.selectByEntityWithoutCacheKey(query).get(0).getName());
+      query.setName("User4");
+      assertEquals(0, mapper.selectByEntityWithoutCacheKey(query).size());
+      query.setId(4);
+      assertEquals(1, mapper.selectByEntityWithoutCacheKey(query).size());
+      assertEquals(2, CacheableSqlProvider.invocations.get());
+    }
+  }
+
+  @Test
+  void shouldReuseSqlOfCacheableProviderByNullMapValues() throws NoSuchMethodException {
+    Class<?> mapperType = CacheableMapper.class;
+    Method mapperMethod = mapperType.getMethod("selectByMap", Map.class);
+    ProviderSqlSource sqlSource = new ProviderSqlSource(sqlSessionFactory.getConfiguration(),
+        mapperMethod.getAnnotation(SelectProvider.class), mapperType, mapperMethod);
+    CacheableSqlProvider.invocations.set(0);
+
+    assertEquals("SELECT * FROM users WHERE id = ?", sqlSource.getBoundSql(params(1, null)).getSql());
+    assertEquals("SELECT * FROM users WHERE id = ?", sqlSource.getBoundSql(params(2, null)).getSql());
+    assertEquals("SELECT * FROM users WHERE id = ? AND name = ?", sqlSource.getBoundSql(params(2, "User2")).getSql());
+    assertEquals("SELECT * FROM users WHERE name = ?", sqlSource.getBoundSql(params(null, "User3")).getSql());
+    assertEquals(3, CacheableSqlProvider.invocations.get());
+  }
+
+  @Test
+  void cacheKeyMethodNotFound() throws NoSuchMethodException {
+    try {
+      Class<?> mapperType = ErrorCacheableMapper.class;
+      Method mapperMethod = mapperType.getMethod("cacheKeyMethodNotFound", User.class);
+      new ProviderSqlSource(new Configuration(), mapperMethod.getAnnotation(SelectProvider.class), mapperType,
+          mapperMethod);
+      fail();
+    } catch (BuilderException e) {
+      assertTrue(e.getMessage().contains(
+          "Error creating SqlSource for SqlProvider. Cache key method 'idKey' not found in SqlProvider 'org.apache.ibatis.submitted.sqlprovider.SqlProviderTest$CacheableSqlProvider'. It must accept the same arguments as the provider method 'selectByEntity'."));
+    }
+  }
+
+  @Test
+  void cacheKeyMethodOnNotCacheableProvider() throws NoSuchMethodException {
+    try {
+      Class<?> mapperType = ErrorCacheableMapper.class;
+      Method mapperMethod = mapperType.getMethod("notCacheable", User.class);
+      new ProviderSqlSource(new Configuration(), mapperMethod.getAnnotation(SelectProvider.class), mapperType,
+          mapperMethod);
+      fail();
+    } catch (BuilderException e) {
+      assertTrue(e.getMessage().contains(
+          "The cache key method 'entityKey' is specified on a provider that is not cacheable"));
+    }
+  }
+
+  private static Map<String, Object> params(Integer id, String name) {
+    Map<String, Object> params = new MapperMethod.ParamMap<>();
+    params.put("id", id);
+    params.put("name", name);
+    return params;
+  }
+
+  public interface CacheableMapper {
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectUsers", cacheable = true)
+    List<User> selectUsers(@Param("id") Integer id, @Param("name") String name);
+
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectByEntity", cacheable = true, cacheKeyMethod = "entityKey")
+    List<User> selectByEntity(User user);
+
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectByEntity", cacheable = true)
+    List<User> selectByEntityWithoutCacheKey(User user);
+
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectByMap", cacheable = true)
+    List<User> selectByMap(Map<String, Object> params);
+  }
+
+  public interface ErrorCacheableMapper {
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectByEntity", cacheable = true, cacheKeyMethod = "idKey")
+    List<User> cacheKeyMethodNotFound(User user);
+
+    @SelectProvider(type = CacheableSqlProvider.class, method = "selectByEntity", cacheKeyMethod = "entityKey")
+    List<User> notCacheable(User user);
+  }
+
+  @SuppressWarnings("unused")
+  public static class CacheableSqlProvider {
+    static final AtomicInteger invocations = new AtomicInteger();
+
+    public static String selectUsers(@Param("id") Integer id, @Param("name") String name) {
+      invocations.incrementAndGet();
+      StringBuilder sql = new StringBuilder("SELECT * FROM users");
+      if (id != null) {
+        sql.append(" WHERE id = #{id}");
+      }
+      if (name != null) {
+        sql.append(id != null ? " AND" : " WHERE").append(" name = #{name}");
+      }
+      return sql.toString();
+    }
+
+    public static String selectByEntity(User user) {
+      return selectUsers(user.getId(), user.getName());
+    }
+
+    public static String selectByMap(Map<String, Object> params) {
+      return selectUsers((Integer) params.get("id"), (String) params.get("name"));
+    }
+
+    public static String entityKey(User user) {
+      return (user.getId() == null ? "-" : "id") + (user.getName() == null ? "-" : "name");
+    }
+
+    public static String idKey(Integer id) {
+      return String.valueOf(id);
+    }
+  }
+
 }
@@ -0,0 +1,39 @@
+--
+--    Copyright 2009-2021 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop view author_names if exists;
+drop table blog if exists;
+drop table author if exists;
+
+create table author (
+  id int,
+  name varchar(20)
+);
+
+create table blog (
+  id int,
+  title varchar(20),
+  author_id int
+);
+
+create view author_names as select id, name from author;
+
+insert into author (id, name) values(1, 'jim');
+insert into author (id, name) values(2, 'sally');
+
+insert into blog (id, title, author_id) values(1, 'Blog1', 1);
+insert into blog (id, title, author_id) values(2, 'Blog2', 2);
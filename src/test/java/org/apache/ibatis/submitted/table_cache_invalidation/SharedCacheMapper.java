@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+
+@CacheNamespace(implementation = SharedCacheMapper.SharedCache.class)
+public interface SharedCacheMapper {
+
+  @Select("select name from author order by id")
+  List<String> selectAuthorNames();
+
+  @Select("select title from blog order by id")
+  List<String> selectBlogTitles();
+
+  @Update("update author set name = #{name} where id = #{id}")
+  void updateAuthorName(@Param("id") int id, @Param("name") String name);
+
+  class SharedCache extends PerpetualCache {
+
+    public SharedCache(String id) {
+      super(id);
+    }
+
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.TableVersions;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableCacheInvalidationTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/table_cache_invalidation/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/table_cache_invalidation/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFindTablesOfStatements() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    String namespace = BlogMapper.class.getName() + ".";
+    assertThat(configuration.getMappedStatement(namespace + "selectBlogTitlesWithAuthors").getTables())
+        .containsExactly("blog", "author");
+    assertThat(configuration.getMappedStatement(namespace + "selectAuthorNamesFromView").getTables())
+        .containsExactly("author");
+    assertThat(configuration.getMappedStatement(namespace + "updateBlogTitle").getTables()).containsExactly("blog");
+    assertThat(configuration.getMappedStatement(namespace + "countBlogs").getTables()).isNull();
+    assertThat(configuration.getMappedStatement(AuthorMapper.class.getName() + ".updateAuthorName").getTables())
+        .containsExactly("author");
+  }
+
+  @Test
+  void shouldOnlyInvalidateEntriesThatDependOnWrittenTables() {
+    List<String> titles = select(BlogMapper::selectBlogTitles);
+    List<String> names = select(BlogMapper::selectAuthorNames);
+    List<String> titlesWithAuthors = select(BlogMapper::selectBlogTitlesWithAuthors);
+    assertThat(select(BlogMapper::selectBlogTitles)).isSameAs(titles);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).updateBlogTitle(1, "New Blog1");
+      sqlSession.commit();
+    }
+
+    assertThat(select(BlogMapper::selectBlogTitles)).isNotSameAs(titles).containsExactly("New Blog1", "Blog2");
+    assertThat(select(BlogMapper::selectBlogTitlesWithAuthors)).isNotSameAs(titlesWithAuthors)
+        .containsExactly("New Blog1 by jim", "Blog2 by sally");
+    assertThat(select(BlogMapper::selectAuthorNames)).isSameAs(names);
+  }
+
+  @Test
+  void shouldInvalidateEntriesOfOtherNamespaces() {
+    List<String> titles = select(BlogMapper::selectBlogTitles);
+    List<String> names = select(BlogMapper::selectAuthorNames);
+    List<String> viewNames = select(BlogMapper::selectAuthorNamesFromView);
+    List<Integer> count = select(BlogMapper::countBlogs);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(AuthorMapper.class).updateAuthorName(1, "john");
+      sqlSession.commit();
+    }
+
+    assertThat(select(BlogMapper::selectAuthorNames)).isNotSameAs(names).containsExactly("john", "sally");
+    assertThat(select(BlogMapper::selectAuthorNamesFromView)).isNotSameAs(viewNames).containsExactly("john", "sally");
+    assertThat(select(BlogMapper::selectBlogTitles)).isSameAs(titles);
+    // the tables of other namespaces do not invalidate the entries whose tables are unknown
+    assertThat(select(BlogMapper::countBlogs)).isSameAs(count);
+  }
+
+  @Test
+  void shouldInvalidateEntriesWithUnknownTablesOnWritesOfTheirNamespace() {
+    List<String> names = select(BlogMapper::selectAuthorNames);
+    List<Integer> count = select(BlogMapper::countBlogs);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).updateBlogTitle(1, "New Blog1");
+      sqlSession.commit();
+    }
+
+    assertThat(select(BlogMapper::countBlogs)).isNotSameAs(count).containsExactly(2);
+    assertThat(select(BlogMapper::selectAuthorNames)).isSameAs(names);
+  }
+
+  @Test
+  void shouldFlushTheCacheOnWritesWithUnknownTables() {
+    List<String> names = select(BlogMapper::selectAuthorNames);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).updateBlogTitles();
+      sqlSession.commit();
+    }
+
+    assertThat(select(BlogMapper::selectAuthorNames)).isNotSameAs(names).containsExactly("jim", "sally");
+    assertThat(select(BlogMapper::selectBlogTitles)).containsExactly("Blog1!", "Blog2!");
+  }
+
+  @Test
+  void shouldNotUseEntriesInvalidatedByTheSessionBeforeCommit() {
+    List<String> titles = select(BlogMapper::selectBlogTitles);
+    List<String> names = select(BlogMapper::selectAuthorNames);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      BlogMapper mapper = sqlSession.getMapper(BlogMapper.class);
+      mapper.updateBlogTitle(1, "New Blog1");
+      assertThat(mapper.selectBlogTitles()).containsExactly("New Blog1", "Blog2");
+      assertThat(mapper.selectAuthorNames()).isSameAs(names);
+      sqlSession.rollback();
+    }
+
+    assertThat(select(BlogMapper::selectBlogTitles)).isSameAs(titles);
+  }
+
+  @Test
+  void shouldOnlyClearTheCacheOfItsNamespaceWhenItIsNotLocal() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    TableVersions tableVersions = configuration.getTableVersions();
+    assertThat(tableVersions.isLocalCache(configuration.getCache(BlogMapper.class.getName()))).isTrue();
+    assertThat(tableVersions.isLocalCache(configuration.getCache(SharedCacheMapper.class.getName()))).isFalse();
+
+    List<String> names = select(SharedCacheMapper.class, SharedCacheMapper::selectAuthorNames);
+    List<String> titles = select(SharedCacheMapper.class, SharedCacheMapper::selectBlogTitles);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(AuthorMapper.class).updateAuthorName(1, "john");
+      sqlSession.commit();
+    }
+
+    // the writes of other namespaces do not invalidate the entries of a cache that may be shared with other JVMs
+    assertThat(select(SharedCacheMapper.class, SharedCacheMapper::selectAuthorNames)).isSameAs(names);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(SharedCacheMapper.class).updateAuthorName(2, "bob");
+      sqlSession.commit();
+    }
+
+    assertThat(select(SharedCacheMapper.class, SharedCacheMapper::selectAuthorNames)).containsExactly("john", "bob");
+    assertThat(select(SharedCacheMapper.class, SharedCacheMapper::selectBlogTitles)).isNotSameAs(titles);
+  }
+
+  private <T> List<T> select(Function<BlogMapper, List<T>> select) {
+    return select(BlogMapper.class, select);
+  }
+
+  private <M, T> List<T> select(Class<M> type, Function<M, List<T>> select) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return select.apply(sqlSession.getMapper(type));
+    }
+  }
+
+}
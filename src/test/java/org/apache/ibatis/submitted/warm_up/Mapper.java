@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.warm_up;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.SelectProvider;
+
+public interface Mapper {
+
+  User findById(Integer id);
+
+  List<User> findUsers(User user);
+
+  List<User> findUsersByIds(@Param("ids") List<Integer> ids);
+
+  List<User> findBroken(@Param("id") Integer id);
+
+  @SelectProvider(type = SqlProvider.class, method = "countUsers")
+  int countUsers();
+
+  class SqlProvider {
+    public static String countUsers() {
+      return "select count(*) from users";
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2009-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.warm_up;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.WarmUpReport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class WarmUpTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/warm_up/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/warm_up/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReportWhatWasWarmedUp() {
+    WarmUpReport report = sqlSessionFactory.getConfiguration().warmUp();
+
+    assertThat(report.getStatementCount()).isEqualTo(5);
+    // the sql of a provider is only known when it is executed
+    assertThat(report.getUncoveredStatementCount()).isEqualTo(1);
+    assertThat(report.getExpressionCount()).isEqualTo(6);
+    assertThat(report.getInvalidExpressionCount()).isEqualTo(1);
+    assertThat(report.getReflectorCount()).isEqualTo(1);
+    assertThat(report.toString()).startsWith("Warmed up 4 of 5 statements: parsed 6 OGNL expressions (1 invalid) and built 1 reflectors in ");
+  }
+
+  @Test
+  void shouldExecuteWarmedUpStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User query = new User();
+      query.setName("User");
+      assertThat(mapper.findUsers(query)).extracting(User::getId).containsExactly(1, 2);
+      assertThat(mapper.findUsersByIds(new ArrayList<>(Arrays.asList(2, 3)))).extracting(User::getName).containsExactly("User2", "Other3");
+      assertThat(mapper.findById(3).getName()).isEqualTo("Other3");
+      assertThat(mapper.countUsers()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldFailOnInvalidExpressionWhenExecuted() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(PersistenceException.class, () -> mapper.findBroken(1));
+    }
+  }
+
+}